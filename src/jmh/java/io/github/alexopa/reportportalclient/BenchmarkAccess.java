@@ -0,0 +1,87 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient;
+
+import java.net.URI;
+
+import io.github.alexopa.reportportalclient.model.log.AddLogProperties;
+import io.github.alexopa.reportportalclient.model.testitem.StartTestItemProperties;
+import io.github.alexopa.reportportalclient.rpmodel.StartTestItemRequest;
+import io.github.alexopa.reportportalclient.rpmodel.log.SaveLogRequest;
+
+/**
+ * Gives the benchmarks in <code>io.github.alexopa.reportportalclient.benchmark</code>
+ * access to the package private request and uri builders of the clients. It is
+ * compiled with the benchmarks only, so it is not part of the client jar
+ */
+public final class BenchmarkAccess {
+
+	private BenchmarkAccess() {
+	}
+
+	/**
+	 * @param props The {@link StartTestItemProperties} of the item
+	 * @return The {@link StartTestItemRequest} that <code>RPClient</code> sends
+	 */
+	public static StartTestItemRequest startItemRequest(StartTestItemProperties props) {
+		return ReportPortalRequests.startItem(props);
+	}
+
+	/**
+	 * @param props The {@link AddLogProperties} of the log message
+	 * @return The {@link SaveLogRequest} that <code>RPClient</code> sends
+	 */
+	public static SaveLogRequest addLogRequest(AddLogProperties props) {
+		return ReportPortalRequests.addLog(props);
+	}
+
+	/**
+	 * @param endpoint    The endpoint of ReportPortal
+	 * @param projectName The name of the project
+	 * @return The {@link Uris} that <code>RPClient</code> sends its requests to
+	 */
+	public static Uris uris(String endpoint, String projectName) {
+		return new Uris(new ReportPortalUris(endpoint, projectName));
+	}
+
+	/**
+	 * The endpoint uris of <code>RPClient</code> used by the benchmarks
+	 */
+	public static final class Uris {
+
+		private final ReportPortalUris uris;
+
+		private Uris(final ReportPortalUris uris) {
+			this.uris = uris;
+		}
+
+		/**
+		 * @return The uri of the log endpoint
+		 */
+		public URI addLog() {
+			return uris.addLog();
+		}
+
+		/**
+		 * @param itemUuid The uuid of the item
+		 * @return The uri to finish the item
+		 */
+		public URI finishItem(String itemUuid) {
+			return uris.finishItem(itemUuid);
+		}
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.benchmark;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.alexopa.reportportalclient.rpmodel.ItemAttribute;
+import io.github.alexopa.reportportalclient.util.AttributeParser;
+
+/**
+ * Benchmarks the parsing of attribute strings, which happens on every start
+ * and finish request. The <code>Split</code> methods parse with
+ * {@link String#split(String)} and a new set on every call, as
+ * <code>AttributeParser</code> used to do, while <code>parseAsSet</code> hits
+ * the cache of parsed keys and values, and builds a new set from them, and <code>splitKeyValue</code> shows the cost of the
+ * single pass parser on a cache miss
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AttributeParserBenchmark {
+
+	@Param({ "build:4r3wf234", "build:4r3wf234;env:staging;browser:chrome;smoke;regression;owner:qa-team" })
+	public String attributes;
+
+	@Benchmark
+	public Set<ItemAttribute> parseAsSet() {
+		return AttributeParser.parseAsSet(attributes);
+	}
+
+	@Benchmark
+	public Set<ItemAttribute> parseAsSetSplit() {
+		Set<ItemAttribute> rs = new HashSet<>();
+		for (String s : attributes.trim().split(";")) {
+			ItemAttribute attribute = splitKeyValueSplit(s);
+			if (attribute != null) {
+				rs.add(attribute);
+			}
+		}
+		return rs;
+	}
+
+	@Benchmark
+	public ItemAttribute splitKeyValue() {
+		return AttributeParser.splitKeyValue(attributes);
+	}
+
+	@Benchmark
+	public ItemAttribute splitKeyValueSplit() {
+		return splitKeyValueSplit(attributes);
+	}
+
+	private static ItemAttribute splitKeyValueSplit(String attribute) {
+		if (attribute.trim().isEmpty()) {
+			return null;
+		}
+		String[] keyValue = attribute.split(":");
+		if (keyValue.length == 1) {
+			return new ItemAttribute(null, keyValue[0].trim());
+		} else if (keyValue.length == 2) {
+			String key = keyValue[0].trim();
+			return new ItemAttribute(key.isEmpty() ? null : key, keyValue[1].trim());
+		}
+		return null;
+	}
+}
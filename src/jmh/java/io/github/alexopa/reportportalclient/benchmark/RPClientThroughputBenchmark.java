@@ -0,0 +1,111 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.benchmark;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.alexopa.reportportalclient.RPClient;
+import io.github.alexopa.reportportalclient.config.RPClientConfig;
+import io.github.alexopa.reportportalclient.model.log.AddLogProperties;
+import io.github.alexopa.reportportalclient.model.testitem.StartTestItemProperties;
+import io.github.alexopa.reportportalclient.rpmodel.EntryCreatedResponse;
+import io.github.alexopa.reportportalclient.stub.StubReportPortalServer;
+import io.github.alexopa.reportportalclient.transport.TransportType;
+
+/**
+ * Benchmarks the throughput of the <code>RPClient</code> end to end, against a
+ * {@link StubReportPortalServer} running in the same process. Nagle's algorithm
+ * is disabled on the stub server, otherwise its responses are delayed by the
+ * delayed acks of the client and the benchmark measures only the tcp stack.
+ * The stub server speaks HTTP/1.1 only, so the JDK transport is measured
+ * without multiplexing
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+public class RPClientThroughputBenchmark {
+
+	private static final String LAUNCH_UUID = "4b4f3ffe-2b6f-4a6e-8f8a-4c1d2e4a7a01";
+	private static final String ITEM_UUID = "1a2b3c4d-5e6f-4a6e-8f8a-4c1d2e4a7a02";
+
+	@Param({ "APACHE", "JDK" })
+	private TransportType transport;
+
+	private StubReportPortalServer server;
+	private RPClient client;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		server = new StubReportPortalServer();
+		RPClientConfig config = new RPClientConfig();
+		config.setEndpoint(server.getEndpoint());
+		config.setApiKey("benchmark");
+		config.setProject("benchmark");
+		config.getConnectionConfig().setTransport(transport);
+		client = new RPClient(config);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		client.close();
+		server.close();
+	}
+
+	@Benchmark
+	public EntryCreatedResponse addLog() {
+		return client.addLog(AddLogProperties.builder()
+				.launchId(LAUNCH_UUID)
+				.itemId(ITEM_UUID)
+				.level("INFO")
+				.time(new Date())
+				.message("A log message of a test step")
+				.build());
+	}
+
+	@Benchmark
+	public EntryCreatedResponse startItem() {
+		return client.startItem(StartTestItemProperties.builder()
+				.launchUuid(LAUNCH_UUID)
+				.parentUuid(ITEM_UUID)
+				.name("step")
+				.type("STEP")
+				.startTime(new Date())
+				.attributes("build:4r3wf234;env:staging;smoke")
+				.build());
+	}
+}
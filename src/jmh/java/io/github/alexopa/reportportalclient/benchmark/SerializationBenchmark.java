@@ -0,0 +1,127 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import io.github.alexopa.reportportalclient.BenchmarkAccess;
+import io.github.alexopa.reportportalclient.config.RPClientConfig;
+import io.github.alexopa.reportportalclient.model.log.AddLogProperties;
+import io.github.alexopa.reportportalclient.model.testitem.StartTestItemProperties;
+import io.github.alexopa.reportportalclient.rpmodel.log.SaveLogRequest;
+import io.github.alexopa.reportportalclient.util.ObjectMappers;
+
+/**
+ * Benchmarks building the requests of the most frequent calls from their
+ * properties with the <code>ReportPortalRequests</code> of the clients, through
+ * {@link BenchmarkAccess}, and serializing them to json,
+ * the same way as the <code>RPClient</code> does, with and without the
+ * Blackbird module. The
+ * <code>ToStream</code> method serializes the log requests straight to a
+ * stream, as the multipart requests do, instead of to an intermediate array
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+	@Param({ "false", "true" })
+	public boolean blackbird;
+
+	private ObjectMapper objectMapper;
+	private ObjectWriter saveLogRequestsWriter;
+	private StartTestItemProperties startItemProps;
+	private AddLogProperties logProps;
+
+	@Setup
+	public void setup() {
+		RPClientConfig.JsonConfig jsonConfig = new RPClientConfig.JsonConfig();
+		jsonConfig.setBlackbird(blackbird);
+		objectMapper = ObjectMappers.create(jsonConfig);
+		saveLogRequestsWriter = objectMapper.writerFor(new TypeReference<List<SaveLogRequest>>() {})
+				.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		startItemProps = StartTestItemProperties.builder()
+				.launchUuid("4b4f3ffe-2b6f-4a6e-8f8a-4c1d2e4a7a01")
+				.parentUuid("1a2b3c4d-5e6f-4a6e-8f8a-4c1d2e4a7a02")
+				.name("shouldReportTheResultOfAVeryImportantTest")
+				.description("A test with a long enough description to be realistic")
+				.codeRef("io.github.alexopa.tests.SomeTest.shouldReportTheResultOfAVeryImportantTest")
+				.type("STEP")
+				.startTime(new Date())
+				.attributes("build:4r3wf234;env:staging;browser:chrome;smoke;regression;owner:qa-team")
+				.build();
+
+		StringBuilder stackTrace = new StringBuilder("java.lang.AssertionError: expected true but was false");
+		for (int i = 0; i < 40; i++) {
+			stackTrace.append("\n\tat io.github.alexopa.tests.SomeTest.method").append(i).append("(SomeTest.java:")
+					.append(i + 10).append(')');
+		}
+		logProps = AddLogProperties.builder()
+				.launchId("4b4f3ffe-2b6f-4a6e-8f8a-4c1d2e4a7a01")
+				.itemId("1a2b3c4d-5e6f-4a6e-8f8a-4c1d2e4a7a02")
+				.level("ERROR")
+				.time(new Date())
+				.message(stackTrace.toString())
+				.build();
+	}
+
+	@Benchmark
+	public byte[] startTestItemRequest() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(BenchmarkAccess.startItemRequest(startItemProps));
+	}
+
+	@Benchmark
+	public byte[] saveLogRequest() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(BenchmarkAccess.addLogRequest(logProps));
+	}
+
+	@Benchmark
+	public byte[] saveLogRequestsToArray() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(List.of(BenchmarkAccess.addLogRequest(logProps)));
+	}
+
+	@Benchmark
+	public void saveLogRequestsToStream() throws IOException {
+		saveLogRequestsWriter.writeValue(OutputStream.nullOutputStream(),
+				List.of(BenchmarkAccess.addLogRequest(logProps)));
+	}
+}
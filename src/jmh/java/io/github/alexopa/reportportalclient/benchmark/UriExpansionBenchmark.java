@@ -0,0 +1,104 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.benchmark;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import io.github.alexopa.reportportalclient.BenchmarkAccess;
+
+/**
+ * Benchmarks the building of the endpoint uris and the authorization header.
+ * The <code>Template</code> methods expand a uri template on every call, as
+ * <code>RPClient</code> used to do, while the others call the
+ * <code>ReportPortalUris</code> of <code>RPClient</code> through
+ * {@link BenchmarkAccess}, which append the uuid to a
+ * prefix resolved once. Run with <code>-prof gc</code> to compare the
+ * allocations
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UriExpansionBenchmark {
+
+	private static final String ENDPOINT = "http://localhost:8080/";
+	private static final String PROJECT = "superadmin_personal";
+	private static final String ITEM_UUID = "1a2b3c4d-5e6f-4a6e-8f8a-4c1d2e4a7a02";
+	private static final String API_KEY = "rp-benchmark_1a2b3c4d5e6f4a6e8f8a4c1d2e4a7a02";
+	private static final String BEARER_TOKEN = "Bearer ";
+
+	private UriComponentsBuilder addLogUriTemplate;
+	private UriComponentsBuilder finishItemUriTemplate;
+	private BenchmarkAccess.Uris uris;
+	private String apiKey;
+	private String authorization;
+
+	@Setup
+	public void setup() {
+		addLogUriTemplate = UriComponentsBuilder.fromHttpUrl(ENDPOINT).pathSegment("api/v1", "{projectName}", "log");
+		finishItemUriTemplate = UriComponentsBuilder.fromHttpUrl(ENDPOINT).pathSegment("api/v1", "{projectName}",
+				"item", "{itemUuid}");
+		uris = BenchmarkAccess.uris(ENDPOINT, PROJECT);
+		apiKey = API_KEY;
+		authorization = BEARER_TOKEN + API_KEY;
+	}
+
+	@Benchmark
+	public URI addLogUriTemplate() {
+		return addLogUriTemplate.buildAndExpand(PROJECT).toUri();
+	}
+
+	@Benchmark
+	public URI finishItemUriTemplate() {
+		return finishItemUriTemplate.buildAndExpand(PROJECT, ITEM_UUID).toUri();
+	}
+
+	@Benchmark
+	public URI addLogUri() {
+		return uris.addLog();
+	}
+
+	@Benchmark
+	public URI finishItemUri() {
+		return uris.finishItem(ITEM_UUID);
+	}
+
+	@Benchmark
+	public String authorizationConcat() {
+		return BEARER_TOKEN + apiKey;
+	}
+
+	@Benchmark
+	public String authorization() {
+		return authorization;
+	}
+}
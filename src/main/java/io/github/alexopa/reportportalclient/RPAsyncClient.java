@@ -0,0 +1,562 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import io.github.alexopa.reportportalclient.attachment.AttachmentSource;
+import io.github.alexopa.reportportalclient.batch.LogBatcher;
+import io.github.alexopa.reportportalclient.config.RPClientConfig;
+import io.github.alexopa.reportportalclient.journal.JournalOperation;
+import io.github.alexopa.reportportalclient.journal.ReportSpool;
+import io.github.alexopa.reportportalclient.model.PendingEntry;
+import io.github.alexopa.reportportalclient.model.launch.FinishLaunchProperties;
+import io.github.alexopa.reportportalclient.model.launch.StartLaunchProperties;
+import io.github.alexopa.reportportalclient.model.launch.UpdateLaunchProperties;
+import io.github.alexopa.reportportalclient.model.log.AddFileAttachmentProperties;
+import io.github.alexopa.reportportalclient.model.log.AddLogProperties;
+import io.github.alexopa.reportportalclient.model.testitem.FinishTestItemProperties;
+import io.github.alexopa.reportportalclient.model.testitem.StartTestItemProperties;
+import io.github.alexopa.reportportalclient.ordering.ItemTree;
+import io.github.alexopa.reportportalclient.queue.QueuedEntry;
+import io.github.alexopa.reportportalclient.queue.ReportQueue;
+import io.github.alexopa.reportportalclient.queue.ReportQueueStatistics;
+import io.github.alexopa.reportportalclient.rpmodel.EntryCreatedResponse;
+import io.github.alexopa.reportportalclient.rpmodel.FinishLaunchResponse;
+import io.github.alexopa.reportportalclient.rpmodel.StartLaunchResponse;
+import io.github.alexopa.reportportalclient.rpmodel.UpdateLaunchResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A non-blocking client for ReportPortal. Every call is delegated to an
+ * {@link RPClient} on a bounded pool of worker threads and a
+ * {@link CompletableFuture} is returned immediately, so the calling thread
+ * never waits for ReportPortal to reply.
+ * <p>
+ * When virtual threads are enabled in {@link RPClientConfig.AsyncConfig} and
+ * the runtime is JDK 21 or later, every call runs on its own virtual thread
+ * instead, and a semaphore caps the calls in flight to ReportPortal.
+ * <p>
+ * Requests that refer to a launch or item which start request is still in
+ * progress (ie. child items, logs and finish requests) are sent only after
+ * ReportPortal has acknowledged the start. Combined with the
+ * {@link #startLaunchPipelined(StartLaunchProperties)} and
+ * {@link #startItemPipelined(StartTestItemProperties)} methods, which generate
+ * the uuids on the client side, a whole launch can be reported without waiting
+ * for any response from ReportPortal.
+ * <p>
+ * The finish request of a launch or item is sent only after all the items
+ * started under it have been finished, so that items of independent subtrees
+ * can be reported in parallel without ReportPortal rejecting a finish request
+ * because of children still in progress.
+ * <p>
+ * When the journal is enabled in {@link RPClientConfig.JournalConfig}, every
+ * call is written to a {@link ReportSpool} on the local disk instead, and sent
+ * to ReportPortal in order by a background thread. Otherwise, when the queue
+ * is enabled in {@link RPClientConfig.QueueConfig}, log messages and
+ * attachments go through a bounded {@link ReportQueue}, which decides what
+ * happens to them when ReportPortal cannot keep up.
+ */
+@Slf4j
+public class RPAsyncClient implements AutoCloseable {
+
+	private static final String THREAD_NAME_PREFIX = "rp-client-async-";
+
+	private final RPClient client;
+	private final boolean ownsClient;
+	private final long closeTimeoutMs;
+	private final ExecutorService executor;
+	private final Executor limitedExecutor;
+	private final LogBatcher logBatcher;
+	private final ReportSpool spool;
+	private final ReportQueue queue;
+	private final Map<String, CompletableFuture<?>> pendingStarts = new ConcurrentHashMap<>();
+	private final ItemTree itemTree = new ItemTree();
+	private final Set<CompletableFuture<?>> pendingRequests = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Creates a new {@link RPAsyncClient} instance with its own {@link RPClient}
+	 *
+	 * @param config A {@link RPClientConfig} with the configuration parameters of
+	 *               the client
+	 */
+	public RPAsyncClient(final RPClientConfig config) {
+		this(new RPClient(config), config, true);
+	}
+
+	/**
+	 * Creates a new {@link RPAsyncClient} instance that delegates to an existing
+	 * {@link RPClient}
+	 *
+	 * @param client The {@link RPClient} that sends the requests to ReportPortal
+	 * @param config A {@link RPClientConfig} with the configuration parameters of
+	 *               the client
+	 */
+	public RPAsyncClient(final RPClient client, final RPClientConfig config) {
+		this(client, config, false);
+	}
+
+	private RPAsyncClient(final RPClient client, final RPClientConfig config, final boolean ownsClient) {
+		this.client = client;
+		this.ownsClient = ownsClient;
+		this.closeTimeoutMs = config.getAsyncConfig().getCloseTimeoutMs();
+		ExecutorService virtualThreadExecutor = config.getAsyncConfig().isVirtualThreads()
+				? createVirtualThreadExecutor()
+				: null;
+		if (virtualThreadExecutor != null) {
+			Semaphore permits = new Semaphore(config.getAsyncConfig().getMaxConcurrency());
+			this.executor = virtualThreadExecutor;
+			this.limitedExecutor = task -> virtualThreadExecutor.execute(() -> {
+				permits.acquireUninterruptibly();
+				try {
+					task.run();
+				} finally {
+					permits.release();
+				}
+			});
+		} else {
+			this.executor = createExecutor(config.getAsyncConfig());
+			this.limitedExecutor = executor;
+		}
+		this.logBatcher = config.getLogBatchConfig().isEnabled()
+				? new LogBatcher(config.getLogBatchConfig(), client::addLogs, limitedExecutor)
+				: null;
+		this.spool = config.getJournalConfig().isEnabled()
+				? new ReportSpool(client, config.getJournalConfig())
+				: null;
+		this.queue = spool == null && config.getQueueConfig().isEnabled()
+				? new ReportQueue(config.getQueueConfig(), client.getObjectMapper(), this::dispatch)
+				: null;
+	}
+
+	private ExecutorService createExecutor(final RPClientConfig.AsyncConfig asyncConfig) {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(THREAD_NAME_PREFIX);
+		threadFactory.setDaemon(true);
+
+		int maxConcurrency = asyncConfig.getMaxConcurrency();
+		// log messages and attachments are bounded by the reporting queue, which
+		// keeps their place until their request ends, so only the launches and
+		// items wait here without a bound
+		ThreadPoolExecutor pool = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 60L, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), threadFactory);
+		pool.allowCoreThreadTimeOut(true);
+		return pool;
+	}
+
+	/**
+	 * Creates an executor that starts a new virtual thread for every task. The
+	 * client is compiled for JDK 17, so the executor is looked up reflectively
+	 *
+	 * @return The executor, or <code>null</code> if the runtime does not support
+	 *         virtual threads
+	 */
+	private ExecutorService createVirtualThreadExecutor() {
+		try {
+			ThreadFactory threadFactory = new VirtualThreadTaskExecutor(THREAD_NAME_PREFIX).getVirtualThreadFactory();
+			return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+					.invoke(null, threadFactory);
+		} catch (UnsupportedOperationException | ReflectiveOperationException e) {
+			log.info("Virtual threads are not supported by Java {}, using a pool of platform threads instead",
+					Runtime.version().feature());
+			return null;
+		}
+	}
+
+	/**
+	 * Starts a new launch on ReportPortal asynchronously
+	 *
+	 * @param props A {@link StartLaunchProperties} object with the properties of
+	 *              the launch to start
+	 * @return A {@link CompletableFuture} that completes with the
+	 *         {@link StartLaunchResponse} from ReportPortal
+	 */
+	public CompletableFuture<StartLaunchResponse> startLaunch(StartLaunchProperties props) {
+		if (spool != null) {
+			return track(spool.submit(JournalOperation.START_LAUNCH, props));
+		}
+		return track(trackStart(props.getUuid(), submit(() -> client.startLaunch(props))));
+	}
+
+	/**
+	 * Starts a new launch on ReportPortal asynchronously, using a uuid generated
+	 * on the client side if the properties do not contain one
+	 *
+	 * @param props A {@link StartLaunchProperties} object with the properties of
+	 *              the launch to start
+	 * @return A {@link PendingEntry} with the uuid of the launch and the response
+	 *         from ReportPortal
+	 */
+	public PendingEntry<StartLaunchResponse> startLaunchPipelined(StartLaunchProperties props) {
+		StartLaunchProperties rq = StringUtils.isBlank(props.getUuid())
+				? props.toBuilder().uuid(UUID.randomUUID().toString()).build()
+				: props;
+		return new PendingEntry<>(rq.getUuid(), startLaunch(rq));
+	}
+
+	/**
+	 * Updates a launch on ReportPortal asynchronously
+	 *
+	 * @param props An {@link UpdateLaunchProperties} object with the properties of
+	 *              the launch to update
+	 * @return A {@link CompletableFuture} that completes with the
+	 *         {@link UpdateLaunchResponse} from ReportPortal
+	 */
+	public CompletableFuture<UpdateLaunchResponse> updateLaunch(UpdateLaunchProperties props) {
+		if (spool != null) {
+			return track(spool.submit(JournalOperation.UPDATE_LAUNCH, props));
+		}
+		return track(submit(() -> client.updateLaunch(props)));
+	}
+
+	/**
+	 * Finishes a launch on ReportPortal asynchronously
+	 *
+	 * @param props A {@link FinishLaunchProperties} object with the properties of
+	 *              the launch to finish
+	 * @return A {@link CompletableFuture} that completes with the
+	 *         {@link FinishLaunchResponse} from ReportPortal
+	 */
+	public CompletableFuture<FinishLaunchResponse> finishLaunch(FinishLaunchProperties props) {
+		if (spool != null) {
+			return track(spool.submit(JournalOperation.FINISH_LAUNCH, props));
+		}
+		return track(forgetOnFinish(props.getLaunchUuid(), finishAfterChildren(props.getLaunchUuid(),
+				() -> submitAfter(props.getLaunchUuid(), () -> client.finishLaunch(props)))));
+	}
+
+	/**
+	 * Starts a new item on ReportPortal asynchronously
+	 *
+	 * @param props A {@link StartTestItemProperties} object with the properties of
+	 *              the item to start
+	 * @return A {@link CompletableFuture} that completes with the
+	 *         {@link EntryCreatedResponse} from ReportPortal
+	 */
+	public CompletableFuture<EntryCreatedResponse> startItem(StartTestItemProperties props) {
+		if (spool != null) {
+			return track(spool.submit(JournalOperation.START_ITEM, props));
+		}
+		String parent = StringUtils.isBlank(props.getParentUuid()) ? props.getLaunchUuid() : props.getParentUuid();
+		String key = StringUtils.isBlank(props.getUuid()) ? itemTree.newTemporaryKey() : props.getUuid();
+		itemTree.register(parent, key);
+		return track(trackStart(props.getUuid(), submitAfter(parent, () -> client.startItem(props)))
+				.whenComplete((rs, e) -> {
+					if (e != null) {
+						itemTree.finished(key);
+					} else if (rs != null && !key.equals(rs.getId())) {
+						itemTree.rename(key, rs.getId());
+					}
+				}));
+	}
+
+	/**
+	 * Starts a new item on ReportPortal asynchronously, using a uuid generated on
+	 * the client side if the properties do not contain one
+	 *
+	 * @param props A {@link StartTestItemProperties} object with the properties of
+	 *              the item to start
+	 * @return A {@link PendingEntry} with the uuid of the item and the response
+	 *         from ReportPortal
+	 */
+	public PendingEntry<EntryCreatedResponse> startItemPipelined(StartTestItemProperties props) {
+		StartTestItemProperties rq = StringUtils.isBlank(props.getUuid())
+				? props.toBuilder().uuid(UUID.randomUUID().toString()).build()
+				: props;
+		return new PendingEntry<>(rq.getUuid(), startItem(rq));
+	}
+
+	/**
+	 * Finishes an item on ReportPortal asynchronously
+	 *
+	 * @param props A {@link FinishTestItemProperties} object with the properties of
+	 *              the item to finish
+	 * @return A {@link CompletableFuture} that completes with the
+	 *         {@link EntryCreatedResponse} from ReportPortal
+	 */
+	public CompletableFuture<EntryCreatedResponse> finishItem(FinishTestItemProperties props) {
+		if (spool != null) {
+			return track(spool.submit(JournalOperation.FINISH_ITEM, props));
+		}
+		return track(forgetOnFinish(props.getItemUuid(), finishAfterChildren(props.getItemUuid(),
+				() -> submitAfter(props.getItemUuid(), () -> client.finishItem(props)))));
+	}
+
+	/**
+	 * Adds a log message to an item asynchronously. When log batching is enabled
+	 * in {@link RPClientConfig.LogBatchConfig}, the message is sent together with
+	 * other messages in a single request
+	 *
+	 * @param props An {@link AddLogProperties} object with the properties of the
+	 *              log message to add
+	 * @return A {@link CompletableFuture} that completes with the
+	 *         {@link EntryCreatedResponse} from ReportPortal
+	 */
+	public CompletableFuture<EntryCreatedResponse> addLog(AddLogProperties props) {
+		if (spool != null) {
+			return track(spool.submit(JournalOperation.ADD_LOG, props));
+		}
+		if (queue != null) {
+			return track(queue.submit(JournalOperation.ADD_LOG, props, props.getLevel()));
+		}
+		return track(sendLog(props));
+	}
+
+	private CompletableFuture<EntryCreatedResponse> sendLog(AddLogProperties props) {
+		String target = StringUtils.isBlank(props.getItemId()) ? props.getLaunchId() : props.getItemId();
+		if (logBatcher == null) {
+			return submitAfter(target, () -> client.addLog(props));
+		}
+		CompletableFuture<?> start = target == null ? null : pendingStarts.get(target);
+		if (start == null) {
+			return logBatcher.add(props);
+		}
+		return start.thenCompose(rs -> logBatcher.add(props));
+	}
+
+	/**
+	 * Adds a file attachment to launch or item asynchronously. When the journal
+	 * is enabled, only the full path of the file is written to the journal, and
+	 * the file is read when the attachment is sent, so it must not be deleted
+	 * or changed until then, also across a restart
+	 *
+	 * @param props An {@link AddFileAttachmentProperties} object with the
+	 *              properties of the attachment to add
+	 * @return A {@link CompletableFuture} that completes with the
+	 *         {@link EntryCreatedResponse} from ReportPortal
+	 */
+	public CompletableFuture<EntryCreatedResponse> addFileAttachment(AddFileAttachmentProperties props) {
+		if (spool != null) {
+			return track(spool.submit(JournalOperation.ADD_FILE_ATTACHMENT, props));
+		}
+		if (queue != null) {
+			return track(queue.submit(JournalOperation.ADD_FILE_ATTACHMENT, props, props.getLevel()));
+		}
+		return track(sendFileAttachment(props));
+	}
+
+	/**
+	 * Adds a file attachment to launch or item asynchronously, reading its
+	 * content from an {@link AttachmentSource}. Since the source cannot be
+	 * written to the journal or the queue, the attachment is always sent
+	 * directly
+	 *
+	 * @param props  An {@link AddFileAttachmentProperties} object with the
+	 *               properties of the attachment to add. Its full path is
+	 *               ignored
+	 * @param source The {@link AttachmentSource} with the content of the
+	 *               attachment
+	 * @return A {@link CompletableFuture} that completes with the
+	 *         {@link EntryCreatedResponse} from ReportPortal
+	 */
+	public CompletableFuture<EntryCreatedResponse> addFileAttachment(AddFileAttachmentProperties props,
+			AttachmentSource source) {
+		String target = StringUtils.isBlank(props.getItemUuid()) ? props.getLaunchUuid() : props.getItemUuid();
+		return track(submitAfter(target, () -> client.addFileAttachment(props, source)));
+	}
+
+	private CompletableFuture<EntryCreatedResponse> sendFileAttachment(AddFileAttachmentProperties props) {
+		String target = StringUtils.isBlank(props.getItemUuid()) ? props.getLaunchUuid() : props.getItemUuid();
+		return submitAfter(target, () -> client.addFileAttachment(props));
+	}
+
+	/**
+	 * Sends a log message or attachment that got a place in the {@link ReportQueue}.
+	 * The properties are read from the entry only when its request starts, so
+	 * an entry evicted while it waits for the executor or its batch is skipped
+	 * and holds no memory
+	 */
+	private CompletableFuture<?> dispatch(QueuedEntry entry) {
+		if (entry.getOperation() == JournalOperation.ADD_FILE_ATTACHMENT) {
+			AddFileAttachmentProperties props = (AddFileAttachmentProperties) entry.getProperties();
+			String target = StringUtils.isBlank(props.getItemUuid()) ? props.getLaunchUuid() : props.getItemUuid();
+			return submitAfter(target, () -> client.addFileAttachment((AddFileAttachmentProperties) started(entry)));
+		}
+		AddLogProperties props = (AddLogProperties) entry.getProperties();
+		String target = StringUtils.isBlank(props.getItemId()) ? props.getLaunchId() : props.getItemId();
+		if (logBatcher == null) {
+			return submitAfter(target, () -> client.addLog((AddLogProperties) started(entry)));
+		}
+		CompletableFuture<?> start = target == null ? null : pendingStarts.get(target);
+		if (start == null) {
+			return logBatcher.add(props, entry::start);
+		}
+		return start.thenCompose(rs -> {
+			AddLogProperties waiting = (AddLogProperties) entry.getProperties();
+			return waiting == null ? CompletableFuture.failedFuture(evicted()) : logBatcher.add(waiting, entry::start);
+		});
+	}
+
+	private static Object started(QueuedEntry entry) {
+		if (!entry.start()) {
+			throw evicted();
+		}
+		return entry.getProperties();
+	}
+
+	private static RejectedExecutionException evicted() {
+		return new RejectedExecutionException("Evicted from the reporting queue");
+	}
+
+	/**
+	 * @return A {@link ReportQueueStatistics} snapshot of the queue of log
+	 *         messages and attachments, or <code>null</code> if the queue is not
+	 *         enabled
+	 */
+	public ReportQueueStatistics getQueueStatistics() {
+		return queue == null ? null : queue.getStatistics();
+	}
+
+	private <T> CompletableFuture<T> submit(Supplier<T> call) {
+		return CompletableFuture.supplyAsync(call, limitedExecutor);
+	}
+
+	/**
+	 * Submits a call that must not reach ReportPortal before the start request
+	 * of the given launch or item has been acknowledged. If the start request
+	 * failed, the call fails too without being sent.
+	 */
+	private <T> CompletableFuture<T> submitAfter(String uuid, Supplier<T> call) {
+		CompletableFuture<?> start = uuid == null ? null : pendingStarts.get(uuid);
+		if (start == null) {
+			return submit(call);
+		}
+		return start.thenApplyAsync(rs -> call.get(), limitedExecutor);
+	}
+
+	/**
+	 * Keeps track of a start request that is in progress, so that requests
+	 * referring to its uuid can wait for it. Successful starts are forgotten as
+	 * soon as they complete, failed ones are kept so that dependent requests
+	 * fail fast.
+	 */
+	private <T> CompletableFuture<T> trackStart(String uuid, CompletableFuture<T> start) {
+		if (StringUtils.isNotBlank(uuid)) {
+			pendingStarts.put(uuid, start);
+			start.thenRun(() -> pendingStarts.remove(uuid, start));
+		}
+		return start;
+	}
+
+	/**
+	 * Submits the finish request of a launch or item once all the items started
+	 * under it have been finished, and removes it from the {@link ItemTree} when
+	 * the request completes
+	 */
+	private <T> CompletableFuture<T> finishAfterChildren(String uuid, Supplier<CompletableFuture<T>> finish) {
+		return itemTree.awaitChildren(uuid)
+				.thenCompose(v -> finish.get())
+				.whenComplete((rs, e) -> itemTree.finished(uuid));
+	}
+
+	/**
+	 * Keeps track of a request until it completes, so that {@link #flush(Duration)}
+	 * can wait for it
+	 */
+	private <T> CompletableFuture<T> track(CompletableFuture<T> rs) {
+		pendingRequests.add(rs);
+		rs.whenComplete((r, e) -> pendingRequests.remove(rs));
+		return rs;
+	}
+
+	private <T> CompletableFuture<T> forgetOnFinish(String uuid, CompletableFuture<T> finish) {
+		if (uuid != null) {
+			finish.whenComplete((rs, e) -> pendingStarts.remove(uuid));
+		}
+		return finish;
+	}
+
+	/**
+	 * Sends the log messages collected in the current batch, if any, and waits
+	 * for all the requests submitted so far to complete, including the finish
+	 * requests that are held back until the children are finished
+	 *
+	 * @param timeout The maximum time to wait
+	 * @return <code>true</code> if all the requests completed in time
+	 */
+	public boolean flush(Duration timeout) {
+		if (logBatcher != null) {
+			logBatcher.flush();
+		}
+		try {
+			CompletableFuture.allOf(pendingRequests.stream()
+					.map(rs -> rs.handle((r, e) -> null))
+					.toArray(CompletableFuture[]::new))
+					.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		} catch (ExecutionException | TimeoutException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Waits for the requests that are already submitted to complete, up to the
+	 * configured close timeout, and releases the worker threads. An
+	 * {@link RPClient} created by this client is closed too
+	 */
+	@Override
+	public void close() {
+		if (!flush(Duration.ofMillis(closeTimeoutMs))) {
+			log.warn("{} pending ReportPortal requests did not complete in {} ms", pendingRequests.size(),
+					closeTimeoutMs);
+		}
+		if (queue != null) {
+			queue.close();
+		}
+		if (logBatcher != null) {
+			logBatcher.close();
+		}
+		if (spool != null) {
+			spool.close();
+		}
+		executor.shutdown();
+		try {
+			if (!executor.awaitTermination(closeTimeoutMs, TimeUnit.MILLISECONDS)) {
+				executor.shutdownNow();
+			}
+		} catch (InterruptedException e) {
+			executor.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+		if (ownsClient) {
+			client.close();
+		}
+	}
+}
@@ -17,40 +17,55 @@
 package io.github.alexopa.reportportalclient;
 
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
+import java.nio.file.Path;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 import org.apache.commons.lang3.StringUtils;
-import org.apache.hc.client5.http.classic.HttpClient;
-import org.apache.hc.client5.http.config.ConnectionConfig;
-import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
-import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
-import org.apache.hc.core5.util.Timeout;
-import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.http.client.ClientHttpResponse;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.ResponseErrorHandler;
 import org.springframework.web.client.RestClient;
-import org.springframework.web.util.UriComponentsBuilder;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import io.github.alexopa.reportportalclient.attachment.AttachmentDeduplicationCache;
+import io.github.alexopa.reportportalclient.attachment.AttachmentSource;
+import io.github.alexopa.reportportalclient.attachment.DuplicateAttachmentMode;
+import io.github.alexopa.reportportalclient.attachment.HashingAttachmentSource;
+import io.github.alexopa.reportportalclient.attachment.MultipartAttachmentBody;
+import io.github.alexopa.reportportalclient.attachment.MultipartAttachmentHttpMessageConverter;
+import io.github.alexopa.reportportalclient.circuit.CircuitBreaker;
+import io.github.alexopa.reportportalclient.circuit.CircuitBreakerListener;
+import io.github.alexopa.reportportalclient.circuit.CircuitBreakerStatistics;
+import io.github.alexopa.reportportalclient.circuit.CircuitState;
+import io.github.alexopa.reportportalclient.compression.CompressionStatistics;
+import io.github.alexopa.reportportalclient.compression.GzipClientHttpRequestFactory;
 import io.github.alexopa.reportportalclient.config.RPClientConfig;
 import io.github.alexopa.reportportalclient.exception.ReportPortalClientException;
+import io.github.alexopa.reportportalclient.metrics.MeteredClientHttpRequestFactory;
+import io.github.alexopa.reportportalclient.metrics.RPClientMetrics;
+import io.github.alexopa.reportportalclient.model.ConnectionPoolStatistics;
 import io.github.alexopa.reportportalclient.model.ReportPortalErrorMessage;
 import io.github.alexopa.reportportalclient.model.launch.FinishLaunchProperties;
 import io.github.alexopa.reportportalclient.model.launch.StartLaunchProperties;
@@ -59,6 +74,10 @@ import io.github.alexopa.reportportalclient.model.log.AddFileAttachmentPropertie
 import io.github.alexopa.reportportalclient.model.log.AddLogProperties;
 import io.github.alexopa.reportportalclient.model.testitem.FinishTestItemProperties;
 import io.github.alexopa.reportportalclient.model.testitem.StartTestItemProperties;
+import io.github.alexopa.reportportalclient.offline.OfflineRecorder;
+import io.github.alexopa.reportportalclient.ratelimit.RateLimitedClientHttpRequestFactory;
+import io.github.alexopa.reportportalclient.ratelimit.RateLimiter;
+import io.github.alexopa.reportportalclient.ratelimit.RateLimiterStatistics;
 import io.github.alexopa.reportportalclient.rpmodel.EntryCreatedResponse;
 import io.github.alexopa.reportportalclient.rpmodel.FinishLaunchRequest;
 import io.github.alexopa.reportportalclient.rpmodel.FinishLaunchResponse;
@@ -68,44 +87,53 @@ import io.github.alexopa.reportportalclient.rpmodel.StartLaunchResponse;
 import io.github.alexopa.reportportalclient.rpmodel.StartTestItemRequest;
 import io.github.alexopa.reportportalclient.rpmodel.UpdateLaunchRequest;
 import io.github.alexopa.reportportalclient.rpmodel.UpdateLaunchResponse;
+import io.github.alexopa.reportportalclient.rpmodel.log.BatchSaveOperatingResponse;
 import io.github.alexopa.reportportalclient.rpmodel.log.SaveLogRequest;
-import io.github.alexopa.reportportalclient.util.AttributeParser;
+import io.github.alexopa.reportportalclient.retry.RetryPolicy;
+import io.github.alexopa.reportportalclient.retry.RetryStatistics;
+import io.github.alexopa.reportportalclient.transport.HttpTransport;
+import io.github.alexopa.reportportalclient.util.ObjectMappers;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * This class is a client for ReportPortal. It provides methods to send requests
- * to a ReportPortal instance
+ * to a ReportPortal instance. The client should be closed when it is no longer
+ * needed, so that the pooled connections are released
+ * 
+ * <p>
+ * When the offline mode is enabled in {@link RPClientConfig.OfflineConfig}, no
+ * request is sent to ReportPortal. Every call is recorded in a launch archive
+ * instead, which can be replayed to ReportPortal later
  */
 @Slf4j
-public class RPClient {
+public class RPClient implements AutoCloseable {
 
 	private static final String HEADER_AUTHORIZATION = "Authorization";
 	private static final String BEARER_TOKEN = "Bearer ";
-	
-	private static final String PROJECT_NAME_PATH = "{projectName}";
-	private static final String API_PATH = "api/v1";
-	private static final String LAUNCH_PATH = "launch";
-	private static final String ITEM_PATH = "item";
-	private static final String LAUNCH_ID_PATH = "{launchId}";
-	private static final String LAUNCH_UUID_PATH = "{launchUuid}";
-	private static final String PARENT_UUID_PATH = "{parentUuid}";
-	private static final String ITEM_UUID_PATH = "{itemUuid}";
-	private static final String UPDATE_PATH = "update";
-	private static final String FINISH_PATH = "finish";
-	private static final String LOG_PATH = "log";
-	
-	
-	private final RestClient client;
-	private final String projectName;
-	private final String apiKey;
+	private static final String CLIENT_NAME_PREFIX = "rp-client-";
+	private static final AtomicInteger CLIENT_NUMBER = new AtomicInteger();
 
-	private final UriComponentsBuilder startLaunchUri;
-	private final UriComponentsBuilder updateLaunchUri;
-	private final UriComponentsBuilder finishLaunchUri;
-	private final UriComponentsBuilder startItemUri;
-	private final UriComponentsBuilder startNestedItemUri;
-	private final UriComponentsBuilder finishItemUri;
-	private final UriComponentsBuilder addLogUri;
+	private final HttpTransport transport;
+	private final RestClient client;
+	private final String authorization;
+	private final RetryPolicy retryPolicy;
+	private final RateLimiter rateLimiter;
+	private final CircuitBreaker circuitBreaker;
+	private final RPClientMetrics metrics;
+	private final String clientName;
+	private final GzipClientHttpRequestFactory compression;
+	private final ObjectMapper objectMapper;
+	private final ObjectWriter saveLogRequestsWriter;
+	private final int attachmentBufferSize;
+	private final AttachmentDeduplicationCache deduplicationCache;
+	private final DuplicateAttachmentMode duplicateAttachmentMode;
+	private final ReportPortalUris uris;
+	private final long closeTimeoutMs;
+	private final OfflineRecorder recorder;
+
+	private final Object inFlightLock = new Object();
+	private int inFlight;
+	private boolean closed;
 
 	/**
 	 * Creates a new {@link RPClient} instance for a specific project on
@@ -114,47 +142,164 @@ public class RPClient {
 	 * @param config A {@link RPClientConfig} with the configuration parameters of the client
 	 */
 	public RPClient(final RPClientConfig config) {
-		MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter();
+		this(config, RPClientMetrics.NOOP);
+	}
+
+	/**
+	 * Creates a new {@link RPClient} instance for a specific project on
+	 * ReportPortal, which records metrics for its operations
+	 * 
+	 * @param config  A {@link RPClientConfig} with the configuration parameters of the client
+	 * @param metrics The {@link RPClientMetrics} to record the metrics in
+	 */
+	public RPClient(final RPClientConfig config, final RPClientMetrics metrics) {
+		this(config, metrics, HttpTransport.create(config.getConnectionConfig()));
+	}
+
+	/**
+	 * Creates a new {@link RPClient} instance for a specific project on
+	 * ReportPortal, which sends its requests over a custom transport
+	 * 
+	 * @param config    A {@link RPClientConfig} with the configuration parameters of the client
+	 * @param metrics   The {@link RPClientMetrics} to record the metrics in
+	 * @param transport The {@link HttpTransport} to send the requests over
+	 */
+	public RPClient(final RPClientConfig config, final RPClientMetrics metrics, final HttpTransport transport) {
+		this.objectMapper = ObjectMappers.create(config.getJsonConfig());
+		this.saveLogRequestsWriter = objectMapper.writerFor(new TypeReference<List<SaveLogRequest>>() {})
+				.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+		MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter(objectMapper);
 		converter.setSupportedMediaTypes(
 				Collections.singletonList(new MediaType("text", "html", StandardCharsets.UTF_8)));
 
+		MappingJackson2HttpMessageConverter jsonConverter = new MappingJackson2HttpMessageConverter(objectMapper);
+
 		List<HttpMessageConverter<?>> c = new ArrayList<>();
 		c.add(converter);
-		c.add(new MappingJackson2HttpMessageConverter());
+		c.add(jsonConverter);
+		c.add(new MultipartAttachmentHttpMessageConverter());
+
+		this.metrics = metrics;
+		this.transport = transport;
+		ClientHttpRequestFactory requestFactory = transport.getRequestFactory();
+		this.rateLimiter = config.getRateLimitConfig().isEnabled()
+				? new RateLimiter(config.getRateLimitConfig())
+				: null;
+		if (rateLimiter != null) {
+			requestFactory = new RateLimitedClientHttpRequestFactory(requestFactory, rateLimiter);
+		}
+		if (metrics.isRecordingBytes()) {
+			requestFactory = new MeteredClientHttpRequestFactory(requestFactory, metrics);
+		}
+		// compress outside of the metered factory, so that the bytes on the wire are recorded
+		this.compression = config.getCompressionConfig().isEnabled()
+				? new GzipClientHttpRequestFactory(requestFactory, config.getCompressionConfig())
+				: null;
+		if (compression != null) {
+			requestFactory = compression;
+		}
+		this.clientName = StringUtils.isBlank(config.getMetricsConfig().getClientName())
+				? CLIENT_NAME_PREFIX + CLIENT_NUMBER.incrementAndGet()
+				: config.getMetricsConfig().getClientName();
+		if (transport.hasConnectionPool()) {
+			metrics.bindConnectionPool(clientName, this::getConnectionPoolStatistics);
+		}
 
-		this.client = RestClient.builder().requestFactory(getClientHttpRequestFactory(config))
-				.messageConverters(converters -> converters.addAll(c))
+		this.client = RestClient.builder().requestFactory(requestFactory)
+				.messageConverters(converters -> {
+					// the default json converter has its own mapper and would take every json body
+					converters.removeIf(MappingJackson2HttpMessageConverter.class::isInstance);
+					converters.addAll(0, c);
+				})
 				.defaultStatusHandler(new ReportPortalErrorHandler()).build();
-		this.projectName = config.getProject();
-		this.apiKey = config.getApiKey();
-
-		String endpoint = config.getEndpoint();
-		startLaunchUri = UriComponentsBuilder.fromHttpUrl(endpoint).pathSegment(API_PATH, PROJECT_NAME_PATH,
-				LAUNCH_PATH);
-		updateLaunchUri = UriComponentsBuilder.fromHttpUrl(endpoint).pathSegment(API_PATH, PROJECT_NAME_PATH,
-				LAUNCH_PATH, LAUNCH_ID_PATH, UPDATE_PATH);	
-		finishLaunchUri = UriComponentsBuilder.fromHttpUrl(endpoint).pathSegment(API_PATH, PROJECT_NAME_PATH,
-				LAUNCH_PATH, LAUNCH_UUID_PATH, FINISH_PATH);
-		startItemUri = UriComponentsBuilder.fromHttpUrl(endpoint).pathSegment(API_PATH, PROJECT_NAME_PATH, ITEM_PATH);
-		startNestedItemUri = UriComponentsBuilder.fromHttpUrl(endpoint).pathSegment(API_PATH, PROJECT_NAME_PATH,
-				ITEM_PATH, PARENT_UUID_PATH);
-		finishItemUri = UriComponentsBuilder.fromHttpUrl(endpoint).pathSegment(API_PATH, PROJECT_NAME_PATH, ITEM_PATH,
-				ITEM_UUID_PATH);
-		addLogUri = UriComponentsBuilder.fromHttpUrl(endpoint).pathSegment(API_PATH, PROJECT_NAME_PATH, LOG_PATH);
+		this.authorization = BEARER_TOKEN + config.getApiKey();
+		this.retryPolicy = new RetryPolicy(config.getRetryConfig());
+		this.circuitBreaker = config.getCircuitBreakerConfig().isEnabled()
+				? new CircuitBreaker(config.getCircuitBreakerConfig())
+				: null;
+		this.attachmentBufferSize = config.getAttachmentConfig().getBufferSizeBytes();
+		this.deduplicationCache = config.getAttachmentConfig().isDeduplicationEnabled()
+				? new AttachmentDeduplicationCache(config.getAttachmentConfig())
+				: null;
+		this.duplicateAttachmentMode = config.getAttachmentConfig().getDuplicateMode();
+
+		this.uris = new ReportPortalUris(config.getEndpoint(), config.getProject());
+		this.closeTimeoutMs = config.getConnectionConfig().getCloseTimeoutMs();
+		this.recorder = config.getOfflineConfig().isEnabled() ? new OfflineRecorder(config) : null;
 	}
 
-	private ClientHttpRequestFactory getClientHttpRequestFactory(final RPClientConfig config) {
-		final PoolingHttpClientConnectionManager connManager = new PoolingHttpClientConnectionManager();
-		
-		ConnectionConfig connectionConfig = ConnectionConfig.custom()
-				.setConnectTimeout(Timeout.ofMilliseconds(config.getConnectionConfig().getConnectTimeout()))
-				.setSocketTimeout(Timeout.ofMilliseconds(config.getConnectionConfig().getSocketTimeout()))
-				.build();
-		connManager.setDefaultConnectionConfig(connectionConfig);
-		HttpClient httpClient = HttpClientBuilder.create().setConnectionManager(connManager).useSystemProperties()
-				.disableRedirectHandling().build();
-
-		return new HttpComponentsClientHttpRequestFactory(httpClient);
+	/**
+	 * Returns the current state of the HTTP connection pool of the client
+	 * 
+	 * @return A {@link ConnectionPoolStatistics} snapshot
+	 */
+	public ConnectionPoolStatistics getConnectionPoolStatistics() {
+		return transport.getConnectionPoolStatistics();
+	}
+
+	/**
+	 * Returns the {@link ObjectMapper} the client serializes its requests with,
+	 * so that other components of the client can share it
+	 * 
+	 * @return The {@link ObjectMapper}
+	 */
+	public ObjectMapper getObjectMapper() {
+		return objectMapper;
+	}
+
+	/**
+	 * Returns the retries done by the client so far, as configured in
+	 * {@link RPClientConfig.RetryConfig}
+	 * 
+	 * @return A {@link RetryStatistics} snapshot
+	 */
+	public RetryStatistics getRetryStatistics() {
+		return retryPolicy.getStatistics();
+	}
+
+	/**
+	 * Returns the calls delayed by the client so far to keep within the budgets
+	 * of {@link RPClientConfig.RateLimitConfig}
+	 * 
+	 * @return A {@link RateLimiterStatistics} snapshot
+	 */
+	public RateLimiterStatistics getRateLimiterStatistics() {
+		return rateLimiter == null ? new RateLimiterStatistics(0, 0, 0, 0) : rateLimiter.getStatistics();
+	}
+
+	/**
+	 * Returns the state of the circuit breaker of the client, as configured in
+	 * {@link RPClientConfig.CircuitBreakerConfig}. When the breaker is disabled
+	 * it is always closed
+	 * 
+	 * @return A {@link CircuitBreakerStatistics} snapshot
+	 */
+	public CircuitBreakerStatistics getCircuitBreakerStatistics() {
+		return circuitBreaker == null ? new CircuitBreakerStatistics(CircuitState.CLOSED, 0, 0, 0, 0)
+				: circuitBreaker.getStatistics();
+	}
+
+	/**
+	 * Adds a listener that is notified when the circuit breaker of the client
+	 * changes state. When the breaker is disabled the listener is never called
+	 * 
+	 * @param listener The {@link CircuitBreakerListener} to add
+	 */
+	public void addCircuitBreakerListener(CircuitBreakerListener listener) {
+		if (circuitBreaker != null) {
+			circuitBreaker.addListener(listener);
+		}
+	}
+
+	/**
+	 * Returns the request bodies compressed by the client so far, as configured
+	 * in {@link RPClientConfig.CompressionConfig}
+	 * 
+	 * @return A {@link CompressionStatistics} snapshot
+	 */
+	public CompressionStatistics getCompressionStatistics() {
+		return compression == null ? new CompressionStatistics(0, 0, 0) : compression.getStatistics();
 	}
 
 	/**
@@ -165,49 +310,45 @@ public class RPClient {
 	 * @return A {@link StartLaunchResponse} object with the response from ReportPortal
 	 */
 	public StartLaunchResponse startLaunch(StartLaunchProperties props) {
-		StartLaunchRequest rq = new StartLaunchRequest();
-		rq.setName(props.getName());
-		if (StringUtils.isNotBlank(props.getRerunOf())) {
-			rq.setRerun(true);
-			rq.setRerunOf(props.getRerunOf());
+		if (recorder != null) {
+			return track(() -> recorder.startLaunch(props));
 		}
-		rq.setStartTime(props.getStartTime());
-		Optional.ofNullable(props.getMode()).ifPresent(rq::setMode);
-		Optional.ofNullable(props.getDescription()).ifPresent(rq::setDescription);
-		Optional.ofNullable(props.getAttributes())
-				.ifPresent(attr -> rq.setAttributes(AttributeParser.parseAsSet(attr)));
-
-		ResponseEntity<StartLaunchResponse> rs = client
-				.post()
-				.uri(startLaunchUri.buildAndExpand(projectName).toUri())
-				.contentType(MediaType.APPLICATION_JSON)
-				.accept(MediaType.APPLICATION_JSON)
-				.header(HEADER_AUTHORIZATION, BEARER_TOKEN + apiKey)
-				.body(rq)
-				.retrieve()
-				.toEntity(StartLaunchResponse.class);
-
-		return rs.getBody();
+		StartLaunchRequest rq = ReportPortalRequests.startLaunch(props);
+
+		return execute("startLaunch", false, () -> {
+			ResponseEntity<StartLaunchResponse> rs = client
+					.post()
+					.uri(uris.startLaunch())
+					.contentType(MediaType.APPLICATION_JSON)
+					.accept(MediaType.APPLICATION_JSON)
+					.header(HEADER_AUTHORIZATION, authorization)
+					.body(rq)
+					.retrieve()
+					.toEntity(StartLaunchResponse.class);
+
+			return rs.getBody();
+		});
 	}
 	
 	public UpdateLaunchResponse updateLaunch(UpdateLaunchProperties props) {
-		UpdateLaunchRequest rq = new UpdateLaunchRequest();
-		Optional.ofNullable(props.getMode()).ifPresent(rq::setMode);
-		Optional.ofNullable(props.getDescription()).ifPresent(rq::setDescription);
-		Optional.ofNullable(props.getAttributes())
-				.ifPresent(attr -> rq.setAttributes(AttributeParser.parseAsSet(attr)));
-
-		ResponseEntity<UpdateLaunchResponse> rs = client
-				.put()
-				.uri(updateLaunchUri.buildAndExpand(projectName, props.getLaunchId()).toUri())
-				.contentType(MediaType.APPLICATION_JSON)
-				.accept(MediaType.APPLICATION_JSON)
-				.header(HEADER_AUTHORIZATION, BEARER_TOKEN + apiKey)
-				.body(rq)
-				.retrieve()
-				.toEntity(UpdateLaunchResponse.class);
-
-		return rs.getBody();	
+		if (recorder != null) {
+			return track(() -> recorder.updateLaunch(props));
+		}
+		UpdateLaunchRequest rq = ReportPortalRequests.updateLaunch(props);
+
+		return execute("updateLaunch", true, () -> {
+			ResponseEntity<UpdateLaunchResponse> rs = client
+					.put()
+					.uri(uris.updateLaunch(props.getLaunchId()))
+					.contentType(MediaType.APPLICATION_JSON)
+					.accept(MediaType.APPLICATION_JSON)
+					.header(HEADER_AUTHORIZATION, authorization)
+					.body(rq)
+					.retrieve()
+					.toEntity(UpdateLaunchResponse.class);
+
+			return rs.getBody();
+		});
 		
 	}
 
@@ -219,23 +360,23 @@ public class RPClient {
 	 * @return A {@link FinishLaunchResponse} object with the response from ReportPortal
 	 */
 	public FinishLaunchResponse finishLaunch(FinishLaunchProperties props) {
-		FinishLaunchRequest rq = new FinishLaunchRequest();
-		rq.setEndTime(props.getEndTime());
-		Optional.ofNullable(props.getStatus()).ifPresent(s -> rq.setStatus(s.name()));
-		Optional.ofNullable(props.getDescription()).ifPresent(rq::setDescription);
-		Optional.ofNullable(props.getAttributes())
-				.ifPresent(attr -> rq.setAttributes(AttributeParser.parseAsSet(attr)));
-		
-		ResponseEntity<FinishLaunchResponse> rs = client
-				.put()
-				.uri(finishLaunchUri.buildAndExpand(projectName, props.getLaunchUuid()).toUri())
-				.accept(MediaType.APPLICATION_JSON)
-				.header(HEADER_AUTHORIZATION, BEARER_TOKEN + apiKey)
-				.body(rq)
-				.retrieve()
-				.toEntity(FinishLaunchResponse.class);
-
-		return rs.getBody();
+		if (recorder != null) {
+			return track(() -> recorder.finishLaunch(props));
+		}
+		FinishLaunchRequest rq = ReportPortalRequests.finishLaunch(props);
+
+		return execute("finishLaunch", true, () -> {
+			ResponseEntity<FinishLaunchResponse> rs = client
+					.put()
+					.uri(uris.finishLaunch(props.getLaunchUuid()))
+					.accept(MediaType.APPLICATION_JSON)
+					.header(HEADER_AUTHORIZATION, authorization)
+					.body(rq)
+					.retrieve()
+					.toEntity(FinishLaunchResponse.class);
+
+			return rs.getBody();
+		});
 	}
 
 	/**
@@ -247,34 +388,25 @@ public class RPClient {
 	 *         ReportPortal
 	 */
 	public EntryCreatedResponse startItem(StartTestItemProperties props) {
-		StartTestItemRequest rq = new StartTestItemRequest();
-		Optional.ofNullable(props.getDescription()).ifPresent(rq::setDescription);
-		Optional.ofNullable(props.getCodeRef()).ifPresent(rq::setCodeRef);
-		rq.setName(props.getName());
-		rq.setStartTime(props.getStartTime());
-		rq.setType(props.getType());
-		rq.setLaunchUuid(props.getLaunchUuid());
-		Optional.ofNullable(props.getHasStats()).ifPresent(rq::setHasStats);
-		Optional.ofNullable(props.getAttributes())
-				.ifPresent(attr -> rq.setAttributes(AttributeParser.parseAsSet(attr)));
-
-		URI uri = null;
-		if (StringUtils.isBlank(props.getParentUuid())) {
-			uri = startItemUri.buildAndExpand(projectName).toUri();
-		} else {
-			uri = startNestedItemUri.buildAndExpand(projectName, props.getParentUuid()).toUri();
+		if (recorder != null) {
+			return track(() -> recorder.startItem(props));
 		}
-
-		ResponseEntity<EntryCreatedResponse> rs = client
-				.post()
-				.uri(uri)
-				.accept(MediaType.ALL)
-				.header(HEADER_AUTHORIZATION, BEARER_TOKEN + apiKey)
-				.body(rq)
-				.retrieve()
-				.toEntity(EntryCreatedResponse.class);
-
-		return rs.getBody();
+		StartTestItemRequest rq = ReportPortalRequests.startItem(props);
+
+		URI uri = uris.startItem(props.getParentUuid());
+
+		return execute("startItem", false, () -> {
+			ResponseEntity<EntryCreatedResponse> rs = client
+					.post()
+					.uri(uri)
+					.accept(MediaType.ALL)
+					.header(HEADER_AUTHORIZATION, authorization)
+					.body(rq)
+					.retrieve()
+					.toEntity(EntryCreatedResponse.class);
+
+			return rs.getBody();
+		});
 	}
 
 	/**
@@ -286,23 +418,23 @@ public class RPClient {
 	 *         ReportPortal
 	 */
 	public EntryCreatedResponse finishItem(FinishTestItemProperties props) {
-		FinishTestItemRequest rq = new FinishTestItemRequest();
-		rq.setEndTime(props.getEndTime());
-		rq.setLaunchUuid(props.getLaunchUuid());
-		rq.setStatus(props.getStatus());
-		Optional.ofNullable(props.getAttributes())
-				.ifPresent(attr -> rq.setAttributes(AttributeParser.parseAsSet(attr)));
-		
-		ResponseEntity<EntryCreatedResponse> rs = client
-				.put()
-				.uri(finishItemUri.buildAndExpand(projectName, props.getItemUuid()).toUri())
-				.accept(MediaType.APPLICATION_JSON)
-				.header(HEADER_AUTHORIZATION, BEARER_TOKEN + apiKey)
-				.body(rq)
-				.retrieve()
-				.toEntity(EntryCreatedResponse.class);
-
-		return rs.getBody();
+		if (recorder != null) {
+			return track(() -> recorder.finishItem(props));
+		}
+		FinishTestItemRequest rq = ReportPortalRequests.finishItem(props);
+
+		return execute("finishItem", true, () -> {
+			ResponseEntity<EntryCreatedResponse> rs = client
+					.put()
+					.uri(uris.finishItem(props.getItemUuid()))
+					.accept(MediaType.APPLICATION_JSON)
+					.header(HEADER_AUTHORIZATION, authorization)
+					.body(rq)
+					.retrieve()
+					.toEntity(EntryCreatedResponse.class);
+
+			return rs.getBody();
+		});
 	}
 
 	/**
@@ -314,27 +446,158 @@ public class RPClient {
 	 *         ReportPortal
 	 */
 	public EntryCreatedResponse addLog(AddLogProperties props) {
-		SaveLogRequest rq = new SaveLogRequest();
-		rq.setLaunchUuid(props.getLaunchId());
-		rq.setItemUuid(props.getItemId());
-		rq.setLevel(props.getLevel());
-		rq.setLogTime(props.getTime());
-		rq.setMessage(props.getMessage());
-
-		ResponseEntity<EntryCreatedResponse> rs = client
-				.post()
-				.uri(addLogUri.buildAndExpand(projectName).toUri())
-				.accept(MediaType.APPLICATION_JSON)
-				.header(HEADER_AUTHORIZATION, BEARER_TOKEN + apiKey)
-				.body(rq)
-				.retrieve()
-				.toEntity(EntryCreatedResponse.class);
-
-		return rs.getBody();
+		if (recorder != null) {
+			return track(() -> recorder.addLog(props));
+		}
+		SaveLogRequest rq = ReportPortalRequests.addLog(props);
+
+		return execute("addLog", false, () -> {
+			ResponseEntity<EntryCreatedResponse> rs = client
+					.post()
+					.uri(uris.addLog())
+					.accept(MediaType.APPLICATION_JSON)
+					.header(HEADER_AUTHORIZATION, authorization)
+					.body(rq)
+					.retrieve()
+					.toEntity(EntryCreatedResponse.class);
+
+			return rs.getBody();
+		});
 	}
 
 	/**
-	 * Adds a file attachment to launch or item
+	 * Adds multiple log messages with a single request. The messages are sent as
+	 * one multipart request to ReportPortal
+	 * 
+	 * @param props A {@link List} of {@link AddLogProperties} objects with the
+	 *              properties of the log messages to add
+	 * @return A {@link BatchSaveOperatingResponse} object with the response from
+	 *         ReportPortal for each log message, in the same order as the
+	 *         properties
+	 */
+	public BatchSaveOperatingResponse addLogs(List<AddLogProperties> props) {
+		if (recorder != null) {
+			return track(() -> recorder.addLogs(props));
+		}
+		List<SaveLogRequest> rq = new ArrayList<>(props.size());
+		props.forEach(p -> rq.add(ReportPortalRequests.addLog(p)));
+
+		return execute("addLogs", false, () -> {
+			ResponseEntity<BatchSaveOperatingResponse> rs = client
+					.post()
+					.uri(uris.addLog())
+					.contentType(MediaType.MULTIPART_FORM_DATA)
+					.accept(MediaType.APPLICATION_JSON)
+					.header(HEADER_AUTHORIZATION, authorization)
+					.body(new MultipartAttachmentBody(saveLogRequestsWriter, rq))
+					.retrieve()
+					.toEntity(BatchSaveOperatingResponse.class);
+
+			return rs.getBody();
+		});
+	}
+
+	private <T> T execute(String operation, boolean idempotent, Supplier<T> call) {
+		return track(() -> metrics.record(operation,
+				() -> retryPolicy.execute(idempotent, limit(operation, guard(attempt(operation, call))))));
+	}
+
+	/**
+	 * Times every attempt of a call on its own, without the retry backoff and
+	 * the waits for the rate limiter, which are part of the time of the call
+	 */
+	private <T> Supplier<T> attempt(String operation, Supplier<T> call) {
+		return () -> metrics.recordAttempt(operation, call);
+	}
+
+	/**
+	 * Makes every attempt of a call wait for the budget of the rate limiter
+	 */
+	private <T> Supplier<T> limit(String operation, Supplier<T> call) {
+		return rateLimiter == null ? call : () -> rateLimiter.execute(operation, call);
+	}
+
+	/**
+	 * Makes every attempt of a call pass through the circuit breaker. The
+	 * breaker is inside the rate limiter, so that the time spent waiting for the
+	 * budget is not taken for a slow response
+	 */
+	private <T> Supplier<T> guard(Supplier<T> call) {
+		return circuitBreaker == null ? call : () -> circuitBreaker.execute(call);
+	}
+
+	/**
+	 * Counts a call as in flight until it returns, so that {@link #flush(Duration)}
+	 * can wait for it
+	 */
+	private <T> T track(Supplier<T> call) {
+		synchronized (inFlightLock) {
+			if (closed) {
+				throw new IllegalStateException("RPClient is closed");
+			}
+			inFlight++;
+		}
+		try {
+			return call.get();
+		} finally {
+			synchronized (inFlightLock) {
+				if (--inFlight == 0) {
+					inFlightLock.notifyAll();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Waits for the calls that are in progress on other threads to complete
+	 * 
+	 * @param timeout The maximum time to wait
+	 * @return <code>true</code> if all the calls completed in time
+	 */
+	public boolean flush(Duration timeout) {
+		long deadline = System.nanoTime() + timeout.toNanos();
+		synchronized (inFlightLock) {
+			while (inFlight > 0) {
+				long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+				if (remainingMs <= 0) {
+					return false;
+				}
+				try {
+					inFlightLock.wait(remainingMs);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Stops accepting new calls, waits for the calls in progress to complete, up
+	 * to the configured close timeout, and releases the pooled connections
+	 */
+	@Override
+	public void close() {
+		synchronized (inFlightLock) {
+			if (closed) {
+				return;
+			}
+			closed = true;
+		}
+		if (!flush(Duration.ofMillis(closeTimeoutMs))) {
+			log.warn("Calls to ReportPortal in progress did not complete in {} ms", closeTimeoutMs);
+		}
+		if (recorder != null) {
+			recorder.close();
+		}
+		metrics.unbindConnectionPool(clientName);
+		transport.close();
+	}
+
+	/**
+	 * Adds a file attachment to launch or item. The file is read from the full
+	 * path of the properties
 	 * 
 	 * @param props An {@link AddFileAttachmentProperties} object with the
 	 *              properties of the attachment to add
@@ -342,32 +605,124 @@ public class RPClient {
 	 *         ReportPortal
 	 */
 	public EntryCreatedResponse addFileAttachment(AddFileAttachmentProperties props) {
-		SaveLogRequest rq = new SaveLogRequest();
-		rq.setLaunchUuid(props.getLaunchUuid());
-		Optional.ofNullable(props.getItemUuid()).ifPresent(rq::setItemUuid);
-		rq.setLevel(props.getLevel());
-		rq.setLogTime(props.getTime());
-		rq.setMessage(props.getMessage());
-
-		SaveLogRequest.File file = new SaveLogRequest.File();
-		file.setName(props.getMessage());
-		rq.setFile(file);
-
-		MultiValueMap<String, Object> parts = new LinkedMultiValueMap<>();
-		parts.add("json_request_part", Arrays.asList(rq));
-		parts.add("file", new FileSystemResource(props.getFullPath()));
-
-		ResponseEntity<EntryCreatedResponse> rs = client
-				.post()
-				.uri(addLogUri.buildAndExpand(projectName).toUri())
-				.contentType(MediaType.MULTIPART_FORM_DATA)
-				.accept(MediaType.APPLICATION_JSON)
-				.header(HEADER_AUTHORIZATION, BEARER_TOKEN + apiKey)
-				.body(parts)
-				.retrieve()
-				.toEntity(EntryCreatedResponse.class);
-
-		return rs.getBody();
+		return addFileAttachment(props, AttachmentSource.of(Path.of(props.getFullPath())));
+	}
+
+	/**
+	 * Adds a file attachment to launch or item. The content of the attachment is
+	 * streamed to ReportPortal through a buffer of
+	 * <code>attachment-config.buffer-size-bytes</code>, so the memory used does
+	 * not depend on the size of the attachment
+	 * 
+	 * <p>
+	 * When deduplication is enabled, a content that has already been uploaded to
+	 * the same launch is not uploaded again. Instead, the configured
+	 * {@link DuplicateAttachmentMode} applies
+	 * 
+	 * @param props  An {@link AddFileAttachmentProperties} object with the
+	 *               properties of the attachment to add. Its full path is
+	 *               ignored
+	 * @param source The {@link AttachmentSource} with the content of the
+	 *               attachment
+	 * @return An {@link EntryCreatedResponse} object with the response from
+	 *         ReportPortal
+	 */
+	public EntryCreatedResponse addFileAttachment(AddFileAttachmentProperties props, AttachmentSource source) {
+		if (recorder != null) {
+			return track(() -> recorder.addFileAttachment(props, source));
+		}
+		if (deduplicationCache == null) {
+			return uploadFileAttachment(props, source);
+		}
+
+		HashingAttachmentSource hashing = new HashingAttachmentSource(source);
+		if (source.isRepeatable()) {
+			// hash the content up front, so that a duplicate is not uploaded at all
+			try {
+				hashing.writeTo(OutputStream.nullOutputStream(), new byte[attachmentBufferSize]);
+			} catch (IOException e) {
+				throw new ResourceAccessException("Failed to read attachment " + source.getFileName(), e);
+			}
+			String entryId = deduplicationCache.get(props.getLaunchUuid(), hashing.getHash());
+			if (entryId != null) {
+				log.debug("Attachment {} of {} bytes was already uploaded to launch {} with log {}",
+						source.getFileName(), hashing.getSize(), props.getLaunchUuid(), entryId);
+				return addDuplicateFileAttachment(props, source.getFileName(), entryId);
+			}
+		}
+
+		// a stream is hashed while it is uploaded, to detect later duplicates of it
+		EntryCreatedResponse rs = uploadFileAttachment(props, source.isRepeatable() ? source : hashing);
+		if (rs != null && rs.getId() != null && hashing.getHash() != null) {
+			deduplicationCache.put(props.getLaunchUuid(), hashing.getHash(), rs.getId());
+		}
+		return rs;
+	}
+
+	/**
+	 * Adds a log message that points to the earlier upload of an attachment,
+	 * instead of uploading it again
+	 */
+	private EntryCreatedResponse addDuplicateFileAttachment(AddFileAttachmentProperties props, String fileName,
+			String entryId) {
+		if (duplicateAttachmentMode == DuplicateAttachmentMode.SKIP) {
+			EntryCreatedResponse rs = new EntryCreatedResponse();
+			rs.setId(entryId);
+			return rs;
+		}
+		return addLog(AddLogProperties.builder()
+				.launchId(props.getLaunchUuid())
+				.itemId(props.getItemUuid())
+				.level(props.getLevel())
+				.time(props.getTime())
+				.message(duplicateAttachmentMessage(props.getMessage(), fileName, entryId))
+				.build());
+	}
+
+	private static String duplicateAttachmentMessage(String message, String fileName, String entryId) {
+		String reference = "Attachment " + fileName + " already uploaded in log " + entryId;
+		return StringUtils.isBlank(message) ? reference : message + "\n" + reference;
+	}
+
+	private EntryCreatedResponse uploadFileAttachment(AddFileAttachmentProperties props, AttachmentSource source) {
+		SaveLogRequest rq = ReportPortalRequests.addFileAttachment(props);
+
+		List<SaveLogRequest> jsonRequestPart = Arrays.asList(rq);
+		MediaType contentType = StringUtils.isBlank(props.getContentType())
+				? MediaTypeFactory.getMediaType(source.getFileName()).orElse(MediaType.APPLICATION_OCTET_STREAM)
+				: MediaType.parseMediaType(props.getContentType());
+
+		Supplier<EntryCreatedResponse> call = () -> {
+			MultipartAttachmentBody body = new MultipartAttachmentBody(saveLogRequestsWriter, jsonRequestPart, source,
+					contentType, attachmentBufferSize);
+			ResponseEntity<BatchSaveOperatingResponse> rs = client
+					.post()
+					.uri(uris.addLog())
+					.contentType(MediaType.MULTIPART_FORM_DATA)
+					.accept(MediaType.APPLICATION_JSON)
+					.header(HEADER_AUTHORIZATION, authorization)
+					.body(body)
+					.retrieve()
+					.toEntity(BatchSaveOperatingResponse.class);
+
+			return firstEntry(rs.getBody());
+		};
+		// a stream can be read only once, so a failed upload from it is never retried
+		return source.isRepeatable() ? execute("addFileAttachment", false, call)
+				: track(() -> metrics.record("addFileAttachment",
+						limit("addFileAttachment", guard(attempt("addFileAttachment", call)))));
+	}
+
+	/**
+	 * ReportPortal replies to a multipart request with one response per log
+	 * message, so the response of an attachment is the first one
+	 */
+	static EntryCreatedResponse firstEntry(BatchSaveOperatingResponse rs) {
+		EntryCreatedResponse entry = new EntryCreatedResponse();
+		if (rs != null && rs.getResponses() != null && !rs.getResponses().isEmpty()) {
+			entry.setId(rs.getResponses().get(0).getId());
+		}
+		return entry;
 	}
 
 	private class ReportPortalErrorHandler implements ResponseErrorHandler {
@@ -385,24 +740,19 @@ public class RPClient {
 						"Redirection responses are not expected. Please check if server is running properly");
 			}
 
-			InputStream res = response.getBody();
-			ObjectMapper objectMapper = new ObjectMapper();
-			ReportPortalErrorMessage errorMessage = null;
+			byte[] body = response.getBody().readAllBytes();
+			ReportPortalErrorMessage errorMessage;
 			try {
-				errorMessage = objectMapper.readValue(res, ReportPortalErrorMessage.class);
-			} catch (Exception e) {
-				try {
-					String error = objectMapper.readValue(res, String.class);
-					errorMessage = new ReportPortalErrorMessage();
-					errorMessage.setMessage(error);
-					errorMessage.setThrowable(e);
-				} catch (Exception e1) {
-					errorMessage = new ReportPortalErrorMessage();
-					errorMessage.setMessage("Failed to parse response as String");
-					errorMessage.setThrowable(e1);
-				}
+				errorMessage = objectMapper.readValue(body, ReportPortalErrorMessage.class);
+			} catch (IOException e) {
+				// not an error message of ReportPortal, ie. the html page of a proxy
+				String error = new String(body, StandardCharsets.UTF_8);
+				errorMessage = new ReportPortalErrorMessage();
+				errorMessage.setMessage(StringUtils.isBlank(error) ? "Failed to parse response as String" : error);
+				errorMessage.setThrowable(e);
 			}
-			throw new ReportPortalClientException(response.getStatusCode(), errorMessage);
+			throw new ReportPortalClientException(response.getStatusCode(), errorMessage,
+					RetryPolicy.parseRetryAfter(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)));
 		}
 	}
 }
@@ -0,0 +1,336 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.MultipartBodyBuilder;
+import org.springframework.http.client.reactive.JdkClientHttpConnector;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.alexopa.reportportalclient.batch.LogBatcher;
+import io.github.alexopa.reportportalclient.config.RPClientConfig;
+import io.github.alexopa.reportportalclient.exception.ReportPortalClientException;
+import io.github.alexopa.reportportalclient.model.ReportPortalErrorMessage;
+import io.github.alexopa.reportportalclient.model.launch.FinishLaunchProperties;
+import io.github.alexopa.reportportalclient.model.launch.StartLaunchProperties;
+import io.github.alexopa.reportportalclient.model.launch.UpdateLaunchProperties;
+import io.github.alexopa.reportportalclient.model.log.AddFileAttachmentProperties;
+import io.github.alexopa.reportportalclient.model.log.AddLogProperties;
+import io.github.alexopa.reportportalclient.model.testitem.FinishTestItemProperties;
+import io.github.alexopa.reportportalclient.model.testitem.StartTestItemProperties;
+import io.github.alexopa.reportportalclient.rpmodel.EntryCreatedResponse;
+import io.github.alexopa.reportportalclient.rpmodel.FinishLaunchResponse;
+import io.github.alexopa.reportportalclient.rpmodel.StartLaunchResponse;
+import io.github.alexopa.reportportalclient.rpmodel.UpdateLaunchResponse;
+import io.github.alexopa.reportportalclient.rpmodel.log.BatchSaveOperatingResponse;
+import io.github.alexopa.reportportalclient.rpmodel.log.SaveLogRequest;
+import io.github.alexopa.reportportalclient.util.ObjectMappers;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * A reactive client for ReportPortal, built on Spring {@link WebClient}. It
+ * offers the same calls as {@link RPClient}, but returns a {@link Mono} that
+ * sends the request when it is subscribed, without blocking any thread while
+ * waiting for ReportPortal to reply. A request fails with a
+ * <code>TimeoutException</code> if ReportPortal does not reply within the
+ * socket timeout.
+ * <p>
+ * Log messages can also be streamed as a {@link Flux}, which is sent to
+ * ReportPortal in batches as configured in {@link RPClientConfig.LogBatchConfig}.
+ * Only one batch is in flight at a time, and log messages are requested from
+ * the {@link Flux} only as fast as the batches are sent.
+ * <p>
+ * This client requires <code>spring-webflux</code> on the classpath.
+ */
+public class ReactiveRPClient {
+
+	private static final String HEADER_AUTHORIZATION = "Authorization";
+	private static final String BEARER_TOKEN = "Bearer ";
+
+	private final WebClient client;
+	private final ReportPortalUris uris;
+	private final Duration responseTimeout;
+	private final int maxBatchCount;
+	private final long maxBatchBytes;
+	private final Duration maxBatchLinger;
+
+	/**
+	 * Creates a new {@link ReactiveRPClient} instance for a specific project on
+	 * ReportPortal, which sends its requests with the JDK
+	 * <code>java.net.http.HttpClient</code>
+	 *
+	 * @param config A {@link RPClientConfig} with the configuration parameters of
+	 *               the client
+	 */
+	public ReactiveRPClient(final RPClientConfig config) {
+		this(config, WebClient.builder().clientConnector(createConnector(config.getConnectionConfig())));
+	}
+
+	/**
+	 * Creates a new {@link ReactiveRPClient} instance for a specific project on
+	 * ReportPortal, on a custom {@link WebClient.Builder}, ie. one with a Reactor
+	 * Netty connector
+	 *
+	 * @param config  A {@link RPClientConfig} with the configuration parameters
+	 *                of the client
+	 * @param builder The {@link WebClient.Builder} to build the client with
+	 */
+	public ReactiveRPClient(final RPClientConfig config, final WebClient.Builder builder) {
+		ObjectMapper objectMapper = ObjectMappers.create(config.getJsonConfig());
+		this.client = builder
+				.codecs(codecs -> {
+					codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+					codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+				})
+				.defaultHeader(HEADER_AUTHORIZATION, BEARER_TOKEN + config.getApiKey())
+				.defaultStatusHandler(status -> status.is3xxRedirection() || status.isError(),
+						ReactiveRPClient::toException)
+				.build();
+		this.uris = new ReportPortalUris(config.getEndpoint(), config.getProject());
+		this.responseTimeout = Duration.ofMillis(config.getConnectionConfig().getSocketTimeout());
+		this.maxBatchCount = config.getLogBatchConfig().getMaxCount();
+		this.maxBatchBytes = config.getLogBatchConfig().getMaxBytes();
+		this.maxBatchLinger = Duration.ofMillis(config.getLogBatchConfig().getMaxLingerMs());
+	}
+
+	private static JdkClientHttpConnector createConnector(final RPClientConfig.ConnectionConfig config) {
+		HttpClient httpClient = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_2)
+				.connectTimeout(Duration.ofMillis(config.getConnectTimeout()))
+				.followRedirects(HttpClient.Redirect.NEVER)
+				.build();
+		return new JdkClientHttpConnector(httpClient);
+	}
+
+	private static Mono<ReportPortalClientException> toException(ClientResponse response) {
+		HttpStatusCode statusCode = response.statusCode();
+		if (statusCode.is3xxRedirection()) {
+			return Mono.just(new ReportPortalClientException(statusCode,
+					"Redirection responses are not expected. Please check if server is running properly"));
+		}
+		return response.bodyToMono(ReportPortalErrorMessage.class)
+				.onErrorResume(e -> Mono.just(ReportPortalErrorMessage.builder()
+						.message("Failed to parse response")
+						.throwable(e)
+						.build()))
+				.defaultIfEmpty(ReportPortalErrorMessage.builder().message("Empty error response").build())
+				.map(errorMessage -> new ReportPortalClientException(statusCode, errorMessage));
+	}
+
+	/**
+	 * Starts a new launch on ReportPortal
+	 *
+	 * @param props A {@link StartLaunchProperties} object with the properties of
+	 *              the launch to start
+	 * @return A {@link Mono} with the {@link StartLaunchResponse} from
+	 *         ReportPortal
+	 */
+	public Mono<StartLaunchResponse> startLaunch(StartLaunchProperties props) {
+		return post(uris.startLaunch(), ReportPortalRequests.startLaunch(props), StartLaunchResponse.class);
+	}
+
+	/**
+	 * Updates a launch on ReportPortal
+	 *
+	 * @param props An {@link UpdateLaunchProperties} object with the properties
+	 *              of the launch to update
+	 * @return A {@link Mono} with the {@link UpdateLaunchResponse} from
+	 *         ReportPortal
+	 */
+	public Mono<UpdateLaunchResponse> updateLaunch(UpdateLaunchProperties props) {
+		return put(uris.updateLaunch(props.getLaunchId()), ReportPortalRequests.updateLaunch(props),
+				UpdateLaunchResponse.class);
+	}
+
+	/**
+	 * Finishes a launch on ReportPortal
+	 *
+	 * @param props A {@link FinishLaunchProperties} object with the properties of
+	 *              the launch to finish
+	 * @return A {@link Mono} with the {@link FinishLaunchResponse} from
+	 *         ReportPortal
+	 */
+	public Mono<FinishLaunchResponse> finishLaunch(FinishLaunchProperties props) {
+		return put(uris.finishLaunch(props.getLaunchUuid()), ReportPortalRequests.finishLaunch(props),
+				FinishLaunchResponse.class);
+	}
+
+	/**
+	 * Starts a new item on ReportPortal
+	 *
+	 * @param props A {@link StartTestItemProperties} object with the properties
+	 *              of the item to start
+	 * @return A {@link Mono} with the {@link EntryCreatedResponse} from
+	 *         ReportPortal
+	 */
+	public Mono<EntryCreatedResponse> startItem(StartTestItemProperties props) {
+		return post(uris.startItem(props.getParentUuid()), ReportPortalRequests.startItem(props),
+				EntryCreatedResponse.class);
+	}
+
+	/**
+	 * Finishes an item on ReportPortal
+	 *
+	 * @param props A {@link FinishTestItemProperties} object with the properties
+	 *              of the item to finish
+	 * @return A {@link Mono} with the {@link EntryCreatedResponse} from
+	 *         ReportPortal
+	 */
+	public Mono<EntryCreatedResponse> finishItem(FinishTestItemProperties props) {
+		return put(uris.finishItem(props.getItemUuid()), ReportPortalRequests.finishItem(props),
+				EntryCreatedResponse.class);
+	}
+
+	/**
+	 * Adds a log message to an item
+	 *
+	 * @param props An {@link AddLogProperties} object with the properties of the
+	 *              log message to add
+	 * @return A {@link Mono} with the {@link EntryCreatedResponse} from
+	 *         ReportPortal
+	 */
+	public Mono<EntryCreatedResponse> addLog(AddLogProperties props) {
+		return post(uris.addLog(), ReportPortalRequests.addLog(props), EntryCreatedResponse.class);
+	}
+
+	/**
+	 * Adds multiple log messages with a single multipart request
+	 *
+	 * @param props A {@link List} of {@link AddLogProperties} objects with the
+	 *              properties of the log messages to add
+	 * @return A {@link Mono} with the {@link BatchSaveOperatingResponse} from
+	 *         ReportPortal for each log message, in the same order as the
+	 *         properties
+	 */
+	public Mono<BatchSaveOperatingResponse> addLogs(List<AddLogProperties> props) {
+		List<SaveLogRequest> rq = new ArrayList<>(props.size());
+		props.forEach(p -> rq.add(ReportPortalRequests.addLog(p)));
+
+		MultipartBodyBuilder parts = new MultipartBodyBuilder();
+		parts.part("json_request_part", rq, MediaType.APPLICATION_JSON);
+		return postMultipart(parts, BatchSaveOperatingResponse.class);
+	}
+
+	/**
+	 * Streams log messages to ReportPortal in batches. A batch is sent when it
+	 * reaches the configured number of messages or size in bytes, or when its
+	 * oldest message has waited for the linger time. The batches are sent one at
+	 * a time, so log messages are requested from the {@link Flux} only as fast
+	 * as ReportPortal accepts them
+	 *
+	 * @param logs A {@link Flux} of {@link AddLogProperties} objects with the
+	 *             properties of the log messages to add
+	 * @return A {@link Flux} with the {@link BatchSaveOperatingResponse} of each
+	 *         batch
+	 */
+	public Flux<BatchSaveOperatingResponse> addLogs(Flux<AddLogProperties> logs) {
+		return logs.bufferTimeout(maxBatchCount, maxBatchLinger, true)
+				.concatMapIterable(this::splitByBytes, 1)
+				.concatMap(this::addLogs, 1);
+	}
+
+	private List<List<AddLogProperties>> splitByBytes(List<AddLogProperties> batch) {
+		List<List<AddLogProperties>> batches = new ArrayList<>();
+		List<AddLogProperties> current = new ArrayList<>();
+		long bytes = 0;
+		for (AddLogProperties props : batch) {
+			long size = LogBatcher.estimateSize(props);
+			if (!current.isEmpty() && bytes + size > maxBatchBytes) {
+				batches.add(current);
+				current = new ArrayList<>();
+				bytes = 0;
+			}
+			current.add(props);
+			bytes += size;
+		}
+		batches.add(current);
+		return batches;
+	}
+
+	/**
+	 * Adds a file attachment to launch or item. The file is read from the full
+	 * path of the properties and streamed to ReportPortal
+	 *
+	 * @param props An {@link AddFileAttachmentProperties} object with the
+	 *              properties of the attachment to add
+	 * @return A {@link Mono} with the {@link EntryCreatedResponse} from
+	 *         ReportPortal
+	 */
+	public Mono<EntryCreatedResponse> addFileAttachment(AddFileAttachmentProperties props) {
+		MultipartBodyBuilder parts = new MultipartBodyBuilder();
+		parts.part("json_request_part", Arrays.asList(ReportPortalRequests.addFileAttachment(props)),
+				MediaType.APPLICATION_JSON);
+		MultipartBodyBuilder.PartBuilder file = parts.part("file",
+				new FileSystemResource(Path.of(props.getFullPath())));
+		if (StringUtils.isNotBlank(props.getContentType())) {
+			file.header(HttpHeaders.CONTENT_TYPE, props.getContentType());
+		}
+		return postMultipart(parts, BatchSaveOperatingResponse.class).map(RPClient::firstEntry);
+	}
+
+	private <T> Mono<T> post(URI uri, Object rq, Class<T> responseType) {
+		return client.post()
+				.uri(uri)
+				.contentType(MediaType.APPLICATION_JSON)
+				.accept(MediaType.APPLICATION_JSON)
+				.bodyValue(rq)
+				.retrieve()
+				.bodyToMono(responseType)
+				.timeout(responseTimeout);
+	}
+
+	private <T> Mono<T> put(URI uri, Object rq, Class<T> responseType) {
+		return client.put()
+				.uri(uri)
+				.contentType(MediaType.APPLICATION_JSON)
+				.accept(MediaType.APPLICATION_JSON)
+				.bodyValue(rq)
+				.retrieve()
+				.bodyToMono(responseType)
+				.timeout(responseTimeout);
+	}
+
+	private <T> Mono<T> postMultipart(MultipartBodyBuilder parts, Class<T> responseType) {
+		return client.post()
+				.uri(uris.addLog())
+				.contentType(MediaType.MULTIPART_FORM_DATA)
+				.accept(MediaType.APPLICATION_JSON)
+				.body(BodyInserters.fromMultipartData(parts.build()))
+				.retrieve()
+				.bodyToMono(responseType)
+				.timeout(responseTimeout);
+	}
+}
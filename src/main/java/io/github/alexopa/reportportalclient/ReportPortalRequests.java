@@ -0,0 +1,130 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient;
+
+import java.util.Optional;
+
+import org.apache.commons.lang3.StringUtils;
+
+import io.github.alexopa.reportportalclient.model.launch.FinishLaunchProperties;
+import io.github.alexopa.reportportalclient.model.launch.StartLaunchProperties;
+import io.github.alexopa.reportportalclient.model.launch.UpdateLaunchProperties;
+import io.github.alexopa.reportportalclient.model.log.AddFileAttachmentProperties;
+import io.github.alexopa.reportportalclient.model.log.AddLogProperties;
+import io.github.alexopa.reportportalclient.model.testitem.FinishTestItemProperties;
+import io.github.alexopa.reportportalclient.model.testitem.StartTestItemProperties;
+import io.github.alexopa.reportportalclient.rpmodel.FinishLaunchRequest;
+import io.github.alexopa.reportportalclient.rpmodel.FinishTestItemRequest;
+import io.github.alexopa.reportportalclient.rpmodel.StartLaunchRequest;
+import io.github.alexopa.reportportalclient.rpmodel.StartTestItemRequest;
+import io.github.alexopa.reportportalclient.rpmodel.UpdateLaunchRequest;
+import io.github.alexopa.reportportalclient.rpmodel.log.SaveLogRequest;
+import io.github.alexopa.reportportalclient.util.AttributeParser;
+
+/**
+ * Maps the properties objects of the clients to the requests of the
+ * ReportPortal api
+ */
+final class ReportPortalRequests {
+
+	private ReportPortalRequests() {
+	}
+
+	static StartLaunchRequest startLaunch(StartLaunchProperties props) {
+		StartLaunchRequest rq = new StartLaunchRequest();
+		Optional.ofNullable(props.getUuid()).ifPresent(rq::setUuid);
+		rq.setName(props.getName());
+		if (StringUtils.isNotBlank(props.getRerunOf())) {
+			rq.setRerun(true);
+			rq.setRerunOf(props.getRerunOf());
+		}
+		rq.setStartTime(props.getStartTime());
+		Optional.ofNullable(props.getMode()).ifPresent(rq::setMode);
+		Optional.ofNullable(props.getDescription()).ifPresent(rq::setDescription);
+		Optional.ofNullable(props.getAttributes())
+				.ifPresent(attr -> rq.setAttributes(AttributeParser.parseAsSet(attr)));
+		return rq;
+	}
+
+	static UpdateLaunchRequest updateLaunch(UpdateLaunchProperties props) {
+		UpdateLaunchRequest rq = new UpdateLaunchRequest();
+		Optional.ofNullable(props.getMode()).ifPresent(rq::setMode);
+		Optional.ofNullable(props.getDescription()).ifPresent(rq::setDescription);
+		Optional.ofNullable(props.getAttributes())
+				.ifPresent(attr -> rq.setAttributes(AttributeParser.parseAsSet(attr)));
+		return rq;
+	}
+
+	static FinishLaunchRequest finishLaunch(FinishLaunchProperties props) {
+		FinishLaunchRequest rq = new FinishLaunchRequest();
+		rq.setEndTime(props.getEndTime());
+		Optional.ofNullable(props.getStatus()).ifPresent(s -> rq.setStatus(s.name()));
+		Optional.ofNullable(props.getDescription()).ifPresent(rq::setDescription);
+		Optional.ofNullable(props.getAttributes())
+				.ifPresent(attr -> rq.setAttributes(AttributeParser.parseAsSet(attr)));
+		return rq;
+	}
+
+	static StartTestItemRequest startItem(StartTestItemProperties props) {
+		StartTestItemRequest rq = new StartTestItemRequest();
+		Optional.ofNullable(props.getUuid()).ifPresent(rq::setUuid);
+		Optional.ofNullable(props.getDescription()).ifPresent(rq::setDescription);
+		Optional.ofNullable(props.getCodeRef()).ifPresent(rq::setCodeRef);
+		rq.setName(props.getName());
+		rq.setStartTime(props.getStartTime());
+		rq.setType(props.getType());
+		rq.setLaunchUuid(props.getLaunchUuid());
+		Optional.ofNullable(props.getHasStats()).ifPresent(rq::setHasStats);
+		Optional.ofNullable(props.getAttributes())
+				.ifPresent(attr -> rq.setAttributes(AttributeParser.parseAsSet(attr)));
+		return rq;
+	}
+
+	static FinishTestItemRequest finishItem(FinishTestItemProperties props) {
+		FinishTestItemRequest rq = new FinishTestItemRequest();
+		rq.setEndTime(props.getEndTime());
+		rq.setLaunchUuid(props.getLaunchUuid());
+		rq.setStatus(props.getStatus());
+		Optional.ofNullable(props.getAttributes())
+				.ifPresent(attr -> rq.setAttributes(AttributeParser.parseAsSet(attr)));
+		return rq;
+	}
+
+	static SaveLogRequest addLog(AddLogProperties props) {
+		SaveLogRequest rq = new SaveLogRequest();
+		rq.setLaunchUuid(props.getLaunchId());
+		rq.setItemUuid(props.getItemId());
+		rq.setLevel(props.getLevel());
+		rq.setLogTime(props.getTime());
+		rq.setMessage(props.getMessage());
+		return rq;
+	}
+
+	static SaveLogRequest addFileAttachment(AddFileAttachmentProperties props) {
+		SaveLogRequest rq = new SaveLogRequest();
+		rq.setLaunchUuid(props.getLaunchUuid());
+		Optional.ofNullable(props.getItemUuid()).ifPresent(rq::setItemUuid);
+		rq.setLevel(props.getLevel());
+		rq.setLogTime(props.getTime());
+		rq.setMessage(props.getMessage());
+
+		SaveLogRequest.File file = new SaveLogRequest.File();
+		file.setName(props.getMessage());
+		rq.setFile(file);
+		return rq;
+	}
+}
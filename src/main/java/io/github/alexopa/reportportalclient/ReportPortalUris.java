@@ -0,0 +1,109 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Builds the URIs of the ReportPortal api for a project. The URIs that do not
+ * depend on a launch or item are resolved once, with the project name already
+ * expanded in them. The others are built by appending the uuid to a resolved
+ * prefix, instead of expanding a template on every call
+ */
+final class ReportPortalUris {
+
+	private static final String PROJECT_NAME_PATH = "{projectName}";
+	private static final String API_PATH = "api/v1";
+	private static final String LAUNCH_PATH = "launch";
+	private static final String ITEM_PATH = "item";
+	private static final String UPDATE_PATH = "update";
+	private static final String FINISH_PATH = "finish";
+	private static final String LOG_PATH = "log";
+	private static final char SEPARATOR = '/';
+
+	private final URI startLaunchUri;
+	private final URI startItemUri;
+	private final URI addLogUri;
+	private final String launchPrefix;
+	private final String itemPrefix;
+
+	ReportPortalUris(final String endpoint, final String projectName) {
+		String projectUri = UriComponentsBuilder.fromHttpUrl(endpoint)
+				.pathSegment(API_PATH, PROJECT_NAME_PATH)
+				.buildAndExpand(projectName)
+				.toUri()
+				.toString();
+		launchPrefix = projectUri + SEPARATOR + LAUNCH_PATH;
+		itemPrefix = projectUri + SEPARATOR + ITEM_PATH;
+		startLaunchUri = URI.create(launchPrefix);
+		startItemUri = URI.create(itemPrefix);
+		addLogUri = URI.create(projectUri + SEPARATOR + LOG_PATH);
+	}
+
+	URI startLaunch() {
+		return startLaunchUri;
+	}
+
+	URI updateLaunch(int launchId) {
+		return URI.create(launchPrefix + SEPARATOR + launchId + SEPARATOR + UPDATE_PATH);
+	}
+
+	URI finishLaunch(String launchUuid) {
+		return URI.create(launchPrefix + SEPARATOR + encode(launchUuid) + SEPARATOR + FINISH_PATH);
+	}
+
+	URI startItem(String parentUuid) {
+		return StringUtils.isBlank(parentUuid)
+				? startItemUri
+				: URI.create(itemPrefix + SEPARATOR + encode(parentUuid));
+	}
+
+	URI finishItem(String itemUuid) {
+		return URI.create(itemPrefix + SEPARATOR + encode(itemUuid));
+	}
+
+	URI addLog() {
+		return addLogUri;
+	}
+
+	/**
+	 * Quotes a uuid for the path, the same way as an expanded template is
+	 * quoted. Uuids normally contain only unreserved characters, so they are
+	 * returned as they are without being copied
+	 */
+	private static String encode(String uuid) {
+		for (int i = 0; i < uuid.length(); i++) {
+			if (!isUnreserved(uuid.charAt(i))) {
+				try {
+					return new URI(null, null, SEPARATOR + uuid, null).getRawPath().substring(1);
+				} catch (URISyntaxException e) {
+					throw new IllegalArgumentException("Invalid uuid " + uuid, e);
+				}
+			}
+		}
+		return uuid;
+	}
+
+	private static boolean isUnreserved(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+				|| c == '-' || c == '.' || c == '_' || c == '~';
+	}
+}
@@ -0,0 +1,80 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.attachment;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.github.alexopa.reportportalclient.config.RPClientConfig;
+
+/**
+ * Remembers the content of the attachments that have been uploaded in each
+ * launch, by their SHA-256 hash, so that the same content is not uploaded
+ * again to the same launch. The cache holds up to a configured number of
+ * entries and evicts the least recently used ones.
+ */
+public class AttachmentDeduplicationCache {
+
+	private final Map<String, String> entries;
+
+	/**
+	 * Creates a new {@link AttachmentDeduplicationCache}
+	 *
+	 * @param config A {@link RPClientConfig.AttachmentConfig} with the size of
+	 *               the cache
+	 */
+	public AttachmentDeduplicationCache(final RPClientConfig.AttachmentConfig config) {
+		int maxEntries = config.getDeduplicationMaxEntries();
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+				return size() > maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * Returns the id of the log entry with which a content was uploaded to a
+	 * launch
+	 *
+	 * @param launchUuid The uuid of the launch
+	 * @param hash       The hash of the content
+	 * @return The id of the log entry, or <code>null</code> if the content has not
+	 *         been uploaded to the launch
+	 */
+	public synchronized String get(String launchUuid, String hash) {
+		return entries.get(key(launchUuid, hash));
+	}
+
+	/**
+	 * Records that a content was uploaded to a launch
+	 *
+	 * @param launchUuid The uuid of the launch
+	 * @param hash       The hash of the content
+	 * @param entryId    The id of the log entry with the attachment
+	 */
+	public synchronized void put(String launchUuid, String hash, String entryId) {
+		entries.put(key(launchUuid, hash), entryId);
+	}
+
+	private static String key(String launchUuid, String hash) {
+		return launchUuid + '/' + hash;
+	}
+}
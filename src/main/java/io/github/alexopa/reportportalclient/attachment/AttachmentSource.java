@@ -0,0 +1,119 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.attachment;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The content of a file attachment. The content is copied to the request body
+ * through a buffer of fixed size, so that the memory used for an upload does
+ * not depend on the size of the attachment.
+ */
+public interface AttachmentSource {
+
+	/**
+	 * @return The name of the file that is sent to ReportPortal
+	 */
+	String getFileName();
+
+	/**
+	 * @return Whether the content can be read more than once, ie. whether a
+	 *         failed upload can be retried
+	 */
+	boolean isRepeatable();
+
+	/**
+	 * Copies the content to an {@link OutputStream}
+	 *
+	 * @param out    The {@link OutputStream} to write the content to
+	 * @param buffer The buffer to copy the content through
+	 * @throws IOException If the content cannot be read or written
+	 */
+	void writeTo(OutputStream out, byte[] buffer) throws IOException;
+
+	/**
+	 * Creates an {@link AttachmentSource} that reads a file through a
+	 * {@link FileChannel}
+	 *
+	 * @param path The {@link Path} of the file
+	 * @return The {@link AttachmentSource}
+	 */
+	static AttachmentSource of(Path path) {
+		return new AttachmentSource() {
+
+			@Override
+			public String getFileName() {
+				return path.getFileName().toString();
+			}
+
+			@Override
+			public boolean isRepeatable() {
+				return true;
+			}
+
+			@Override
+			public void writeTo(OutputStream out, byte[] buffer) throws IOException {
+				ByteBuffer bb = ByteBuffer.wrap(buffer);
+				try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+					while (channel.read(bb.clear()) >= 0) {
+						out.write(buffer, 0, bb.position());
+					}
+				}
+			}
+		};
+	}
+
+	/**
+	 * Creates an {@link AttachmentSource} that reads an {@link InputStream}. The
+	 * stream is read only once, so uploads from it are never retried, and it is
+	 * closed when it has been read.
+	 *
+	 * @param in       The {@link InputStream} with the content
+	 * @param fileName The name of the file that is sent to ReportPortal
+	 * @return The {@link AttachmentSource}
+	 */
+	static AttachmentSource of(InputStream in, String fileName) {
+		return new AttachmentSource() {
+
+			@Override
+			public String getFileName() {
+				return fileName;
+			}
+
+			@Override
+			public boolean isRepeatable() {
+				return false;
+			}
+
+			@Override
+			public void writeTo(OutputStream out, byte[] buffer) throws IOException {
+				try (InputStream is = in) {
+					int read;
+					while ((read = is.read(buffer)) >= 0) {
+						out.write(buffer, 0, read);
+					}
+				}
+			}
+		};
+	}
+}
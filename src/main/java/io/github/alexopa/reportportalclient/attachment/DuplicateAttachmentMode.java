@@ -0,0 +1,35 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.attachment;
+
+/**
+ * What is sent to ReportPortal for an attachment whose content has already been
+ * uploaded in the same launch
+ */
+public enum DuplicateAttachmentMode {
+
+	/**
+	 * Nothing is sent, the response of the first upload is returned
+	 */
+	SKIP,
+
+	/**
+	 * The log message is sent without the file, followed by a line with the
+	 * file name and the id of the log that the file was uploaded with
+	 */
+	LOG_ONLY
+}
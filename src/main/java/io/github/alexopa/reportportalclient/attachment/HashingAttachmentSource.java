@@ -0,0 +1,103 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.attachment;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * An {@link AttachmentSource} that computes the SHA-256 hash and the size of
+ * the content of another source while it is written
+ */
+public class HashingAttachmentSource implements AttachmentSource {
+
+	private static final String ALGORITHM = "SHA-256";
+
+	private final AttachmentSource source;
+	private String hash;
+	private long size;
+
+	/**
+	 * Creates a new {@link HashingAttachmentSource}
+	 *
+	 * @param source The {@link AttachmentSource} to hash
+	 */
+	public HashingAttachmentSource(final AttachmentSource source) {
+		this.source = source;
+	}
+
+	@Override
+	public String getFileName() {
+		return source.getFileName();
+	}
+
+	@Override
+	public boolean isRepeatable() {
+		return source.isRepeatable();
+	}
+
+	@Override
+	public void writeTo(OutputStream out, byte[] buffer) throws IOException {
+		MessageDigest digest = newDigest();
+		long[] written = new long[1];
+		source.writeTo(new FilterOutputStream(out) {
+
+			@Override
+			public void write(int b) throws IOException {
+				out.write(b);
+				digest.update((byte) b);
+				written[0]++;
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				out.write(b, off, len);
+				digest.update(b, off, len);
+				written[0] += len;
+			}
+		}, buffer);
+		this.hash = HexFormat.of().formatHex(digest.digest());
+		this.size = written[0];
+	}
+
+	/**
+	 * @return The hex encoded SHA-256 hash of the content, or <code>null</code>
+	 *         if the content has not been written completely yet
+	 */
+	public String getHash() {
+		return hash;
+	}
+
+	/**
+	 * @return The size in bytes of the content that was written
+	 */
+	public long getSize() {
+		return size;
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance(ALGORITHM);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(ALGORITHM + " is not supported", e);
+		}
+	}
+}
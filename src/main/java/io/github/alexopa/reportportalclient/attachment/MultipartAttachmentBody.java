@@ -0,0 +1,142 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.attachment;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * The multipart body of a request that adds log messages to ReportPortal. It
+ * consists of the <code>json_request_part</code> with the log requests and, for
+ * a file attachment, the <code>file</code> part with the content of the
+ * attachment. The body is written by the
+ * {@link MultipartAttachmentHttpMessageConverter} straight to the connection,
+ * without a content length, so it is sent with chunked transfer encoding. The
+ * log requests are serialized straight to the connection too, and the
+ * attachment is never held in memory.
+ */
+public class MultipartAttachmentBody {
+
+	private static final byte[] CRLF = { '\r', '\n' };
+	private static final byte[] DASHES = { '-', '-' };
+
+	private final ObjectWriter jsonWriter;
+	private final Object jsonRequestPart;
+	private final AttachmentSource source;
+	private final MediaType fileContentType;
+	private final int bufferSize;
+	private final String boundary;
+
+	/**
+	 * Creates a new {@link MultipartAttachmentBody} without a file part
+	 *
+	 * @param jsonWriter      The {@link ObjectWriter} that serializes the log
+	 *                        requests. It must not close the stream it writes to
+	 * @param jsonRequestPart The log requests
+	 */
+	public MultipartAttachmentBody(final ObjectWriter jsonWriter, final Object jsonRequestPart) {
+		this(jsonWriter, jsonRequestPart, null, null, 0);
+	}
+
+	/**
+	 * Creates a new {@link MultipartAttachmentBody}
+	 *
+	 * @param jsonWriter      The {@link ObjectWriter} that serializes the log
+	 *                        requests. It must not close the stream it writes to
+	 * @param jsonRequestPart The log requests
+	 * @param source          The {@link AttachmentSource} with the content of the
+	 *                        attachment
+	 * @param fileContentType The {@link MediaType} of the attachment
+	 * @param bufferSize      The size in bytes of the buffer the attachment is
+	 *                        copied through
+	 */
+	public MultipartAttachmentBody(final ObjectWriter jsonWriter, final Object jsonRequestPart,
+			final AttachmentSource source, final MediaType fileContentType, final int bufferSize) {
+		this.jsonWriter = jsonWriter;
+		this.jsonRequestPart = jsonRequestPart;
+		this.source = source;
+		this.fileContentType = fileContentType;
+		this.bufferSize = bufferSize;
+		this.boundary = MimeTypeUtils.generateMultipartBoundaryString();
+	}
+
+	/**
+	 * @return The <code>multipart/form-data</code> {@link MediaType} of the body,
+	 *         with its boundary
+	 */
+	public MediaType getContentType() {
+		return new MediaType(MediaType.MULTIPART_FORM_DATA, Map.of("boundary", boundary));
+	}
+
+	/**
+	 * Writes the body to an {@link OutputStream}
+	 *
+	 * @param out The {@link OutputStream} to write the body to
+	 * @throws IOException If the attachment cannot be read or the body cannot be
+	 *                     written
+	 */
+	public void writeTo(OutputStream out) throws IOException {
+		writePartHeaders(out, ContentDisposition.formData().name("json_request_part").build(),
+				MediaType.APPLICATION_JSON);
+		jsonWriter.writeValue(out, jsonRequestPart);
+		out.write(CRLF);
+
+		if (source != null) {
+			writePartHeaders(out, ContentDisposition.formData().name("file").filename(source.getFileName()).build(),
+					fileContentType);
+			source.writeTo(out, new byte[bufferSize]);
+			out.write(CRLF);
+		}
+
+		out.write(DASHES);
+		write(out, boundary);
+		out.write(DASHES);
+		out.write(CRLF);
+		out.flush();
+	}
+
+	private void writePartHeaders(OutputStream out, ContentDisposition disposition, MediaType contentType)
+			throws IOException {
+		out.write(DASHES);
+		write(out, boundary);
+		out.write(CRLF);
+		write(out, "Content-Disposition: " + disposition);
+		out.write(CRLF);
+		write(out, "Content-Type: " + contentType);
+		out.write(CRLF);
+		out.write(CRLF);
+	}
+
+	private static void write(OutputStream out, String s) throws IOException {
+		out.write(s.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * @return Whether the body can be written more than once
+	 */
+	public boolean isRepeatable() {
+		return source == null || source.isRepeatable();
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.attachment;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+/**
+ * An {@link HttpMessageConverter} that writes a {@link MultipartAttachmentBody}.
+ * When the request supports it, the body is handed to the request as a
+ * {@link StreamingHttpOutputMessage.Body}, so that it is written straight to the
+ * connection instead of being buffered by the request first.
+ */
+public class MultipartAttachmentHttpMessageConverter implements HttpMessageConverter<MultipartAttachmentBody> {
+
+	@Override
+	public boolean canRead(Class<?> clazz, MediaType mediaType) {
+		return false;
+	}
+
+	@Override
+	public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+		return MultipartAttachmentBody.class.isAssignableFrom(clazz)
+				&& (mediaType == null || MediaType.MULTIPART_FORM_DATA.includes(mediaType));
+	}
+
+	@Override
+	public List<MediaType> getSupportedMediaTypes() {
+		return Collections.singletonList(MediaType.MULTIPART_FORM_DATA);
+	}
+
+	@Override
+	public MultipartAttachmentBody read(Class<? extends MultipartAttachmentBody> clazz, HttpInputMessage inputMessage)
+			throws IOException, HttpMessageNotReadableException {
+		throw new HttpMessageNotReadableException("Reading multipart attachment bodies is not supported",
+				inputMessage);
+	}
+
+	@Override
+	public void write(MultipartAttachmentBody body, MediaType contentType, HttpOutputMessage outputMessage)
+			throws IOException, HttpMessageNotWritableException {
+		outputMessage.getHeaders().setContentType(body.getContentType());
+		if (outputMessage instanceof StreamingHttpOutputMessage streamingMessage) {
+			streamingMessage.setBody(new StreamingHttpOutputMessage.Body() {
+
+				@Override
+				public void writeTo(OutputStream outputStream) throws IOException {
+					body.writeTo(outputStream);
+				}
+
+				@Override
+				public boolean repeatable() {
+					return body.isRepeatable();
+				}
+			});
+		} else {
+			body.writeTo(outputMessage.getBody());
+		}
+	}
+}
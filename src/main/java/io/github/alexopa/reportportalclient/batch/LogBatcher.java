@@ -0,0 +1,251 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import io.github.alexopa.reportportalclient.config.RPClientConfig;
+import io.github.alexopa.reportportalclient.exception.ReportPortalClientException;
+import io.github.alexopa.reportportalclient.model.log.AddLogProperties;
+import io.github.alexopa.reportportalclient.rpmodel.EntryCreatedResponse;
+import io.github.alexopa.reportportalclient.rpmodel.log.BatchSaveOperatingResponse;
+import io.github.alexopa.reportportalclient.rpmodel.log.BatchSaveOperatingResponse.BatchElementCreatedResponse;
+
+/**
+ * Collects log messages and sends them to ReportPortal in batches. A batch is
+ * sent when it reaches the configured number of messages or size in bytes, or
+ * when its oldest message has waited for the configured linger time, whichever
+ * comes first
+ */
+public class LogBatcher implements AutoCloseable {
+
+	private static final String THREAD_NAME_PREFIX = "rp-client-log-batch-";
+
+	/**
+	 * Approximate size of the json fields of a log message besides the message
+	 * text, ie. uuids, time and level
+	 */
+	private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+	private final int maxCount;
+	private final long maxBytes;
+	private final long maxLingerMs;
+	private final Function<List<AddLogProperties>, BatchSaveOperatingResponse> sender;
+	private final Executor executor;
+	private final ScheduledExecutorService scheduler;
+	private final Set<CompletableFuture<Void>> inFlight = ConcurrentHashMap.newKeySet();
+
+	private Batch current;
+
+	/**
+	 * Creates a new {@link LogBatcher}
+	 *
+	 * @param config   A {@link RPClientConfig.LogBatchConfig} with the flush
+	 *                 triggers of the batches
+	 * @param sender   The function that sends a batch to ReportPortal, ie.
+	 *                 <code>RPClient::addLogs</code>
+	 * @param executor The {@link Executor} on which the batches are sent
+	 */
+	public LogBatcher(final RPClientConfig.LogBatchConfig config,
+			final Function<List<AddLogProperties>, BatchSaveOperatingResponse> sender, final Executor executor) {
+		this.maxCount = config.getMaxCount();
+		this.maxBytes = config.getMaxBytes();
+		this.maxLingerMs = config.getMaxLingerMs();
+		this.sender = sender;
+		this.executor = executor;
+
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(THREAD_NAME_PREFIX);
+		threadFactory.setDaemon(true);
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+	}
+
+	/**
+	 * Adds a log message to the current batch
+	 *
+	 * @param props An {@link AddLogProperties} object with the properties of the
+	 *              log message to add
+	 * @return A {@link CompletableFuture} that completes with the
+	 *         {@link EntryCreatedResponse} of the message, once the batch that
+	 *         contains it has been sent
+	 */
+	public CompletableFuture<EntryCreatedResponse> add(AddLogProperties props) {
+		return add(props, () -> true);
+	}
+
+	/**
+	 * Adds a log message to the current batch, to be sent only if it is still
+	 * wanted when the batch is sent
+	 *
+	 * @param props    An {@link AddLogProperties} object with the properties of
+	 *                 the log message to add
+	 * @param sendable Called once when the batch is sent. If it returns
+	 *                 <code>false</code>, the message is left out of the batch
+	 *                 and its future fails with a
+	 *                 {@link RejectedExecutionException}
+	 * @return A {@link CompletableFuture} that completes with the
+	 *         {@link EntryCreatedResponse} of the message, once the batch that
+	 *         contains it has been sent
+	 */
+	public CompletableFuture<EntryCreatedResponse> add(AddLogProperties props, BooleanSupplier sendable) {
+		CompletableFuture<EntryCreatedResponse> rs = new CompletableFuture<>();
+		Batch full = null;
+		synchronized (this) {
+			if (current == null) {
+				Batch batch = new Batch();
+				current = batch;
+				scheduler.schedule(() -> flush(batch), maxLingerMs, TimeUnit.MILLISECONDS);
+			}
+			current.add(props, sendable, rs);
+			if (current.entries.size() >= maxCount || current.bytes >= maxBytes) {
+				full = current;
+				current = null;
+			}
+		}
+		if (full != null) {
+			send(full);
+		}
+		return rs;
+	}
+
+	/**
+	 * Sends the current batch, if any, without waiting for the flush triggers
+	 *
+	 * @return A {@link CompletableFuture} that completes when all the batches
+	 *         that are in progress have been sent
+	 */
+	public CompletableFuture<Void> flush() {
+		Batch batch;
+		synchronized (this) {
+			batch = current;
+			current = null;
+		}
+		if (batch != null) {
+			send(batch);
+		}
+		return CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0]));
+	}
+
+	private void flush(Batch batch) {
+		synchronized (this) {
+			if (current != batch) {
+				return;
+			}
+			current = null;
+		}
+		send(batch);
+	}
+
+	private void send(Batch batch) {
+		CompletableFuture<Void> sent = CompletableFuture.runAsync(() -> {
+			if (!batch.select()) {
+				return;
+			}
+			try {
+				batch.complete(sender.apply(batch.entries));
+			} catch (RuntimeException e) {
+				batch.fail(e);
+			}
+		}, executor);
+		inFlight.add(sent);
+		sent.whenComplete((r, e) -> inFlight.remove(sent));
+	}
+
+	/**
+	 * Sends the current batch, waits for all the batches in progress and stops
+	 * the linger timer. No log messages should be added after closing
+	 */
+	@Override
+	public void close() {
+		flush().join();
+		scheduler.shutdownNow();
+	}
+
+	/**
+	 * Estimates the size of a log message in a batch request
+	 *
+	 * @param props The {@link AddLogProperties} of the log message
+	 * @return The approximate size in bytes
+	 */
+	public static long estimateSize(AddLogProperties props) {
+		return ENTRY_OVERHEAD_BYTES + (props.getMessage() == null ? 0 : props.getMessage().length());
+	}
+
+	private static final class Batch {
+
+		private final List<AddLogProperties> entries = new ArrayList<>();
+		private final List<BooleanSupplier> gates = new ArrayList<>();
+		private final List<CompletableFuture<EntryCreatedResponse>> futures = new ArrayList<>();
+		private long bytes;
+
+		private void add(AddLogProperties props, BooleanSupplier sendable, CompletableFuture<EntryCreatedResponse> rs) {
+			entries.add(props);
+			gates.add(sendable);
+			futures.add(rs);
+			bytes += estimateSize(props);
+		}
+
+		/**
+		 * Leaves out the messages that are no longer wanted
+		 *
+		 * @return <code>false</code> if no message is left to send
+		 */
+		private boolean select() {
+			for (int i = entries.size() - 1; i >= 0; i--) {
+				if (!gates.get(i).getAsBoolean()) {
+					entries.remove(i);
+					futures.remove(i).completeExceptionally(
+							new RejectedExecutionException("Log message was dropped before its batch was sent"));
+				}
+			}
+			return !entries.isEmpty();
+		}
+
+		private void complete(BatchSaveOperatingResponse rs) {
+			List<BatchElementCreatedResponse> elements = rs == null || rs.getResponses() == null ? List.of()
+					: rs.getResponses();
+			for (int i = 0; i < futures.size(); i++) {
+				BatchElementCreatedResponse element = i < elements.size() ? elements.get(i) : null;
+				if (element == null || element.getId() == null) {
+					String message = element == null ? "No response for log message in batch" : element.getMessage();
+					futures.get(i).completeExceptionally(new ReportPortalClientException(HttpStatus.BAD_REQUEST, message));
+				} else {
+					EntryCreatedResponse entry = new EntryCreatedResponse();
+					entry.setId(element.getId());
+					futures.get(i).complete(entry);
+				}
+			}
+		}
+
+		private void fail(Throwable e) {
+			futures.forEach(f -> f.completeExceptionally(e));
+		}
+	}
+}
@@ -0,0 +1,331 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.circuit;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.web.client.ResourceAccessException;
+
+import io.github.alexopa.reportportalclient.config.RPClientConfig;
+import io.github.alexopa.reportportalclient.exception.CircuitBreakerOpenException;
+import io.github.alexopa.reportportalclient.exception.ReportPortalClientException;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Stops sending calls to ReportPortal while it is unhealthy, so that the calls
+ * fail immediately instead of each one waiting for the socket timeout.
+ *
+ * <p>
+ * The outcome of the last calls is kept in a window. A call fails when
+ * ReportPortal cannot be reached or responds with a 5xx status, and is slow
+ * when it takes longer than the configured duration. Calls that are still in
+ * progress after that duration count as slow too, so that a server that hangs
+ * opens the breaker before the calls time out. When the rate of failed or slow
+ * calls in the window reaches its threshold, the breaker opens and rejects
+ * calls with a {@link CircuitBreakerOpenException}. After the open duration it
+ * lets a few probe calls through: if they all succeed in time the breaker
+ * closes, otherwise it opens again.
+ * <p>
+ * The transitions are queued while the breaker is locked, and the listeners
+ * are notified of them in order once the lock is released.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+	private final int windowSize;
+	private final int minimumCalls;
+	private final double failureRateThreshold;
+	private final long slowCallDurationNanos;
+	private final double slowCallRateThreshold;
+	private final long openDurationNanos;
+	private final int halfOpenCalls;
+
+	private final List<CircuitBreakerListener> listeners = new CopyOnWriteArrayList<>();
+	/**
+	 * The transitions that the listeners have not been notified of yet, queued
+	 * in order while the breaker is locked
+	 */
+	private final Queue<Transition> transitions = new ConcurrentLinkedQueue<>();
+	private final Object notifyLock = new Object();
+
+	private final boolean[] failedCalls;
+	private final boolean[] slowCalls;
+	private int windowCount;
+	private int windowIndex;
+	private int failures;
+	private int slow;
+
+	/**
+	 * The start time of the calls in progress by their id, in the order they
+	 * started
+	 */
+	private final Map<Long, Long> inProgress = new LinkedHashMap<>();
+	private long nextCallId;
+	/**
+	 * Calls with a lower id started before the last transition, and their
+	 * outcome is not recorded
+	 */
+	private long firstCallIdOfState;
+
+	private CircuitState state = CircuitState.CLOSED;
+	private long openedAt;
+	private int halfOpenPermits;
+	private int halfOpenSuccesses;
+	private long opened;
+	private long shortCircuited;
+
+	/**
+	 * Creates a new {@link CircuitBreaker}
+	 *
+	 * @param config A {@link RPClientConfig.CircuitBreakerConfig} with the
+	 *               configuration of the breaker
+	 */
+	public CircuitBreaker(final RPClientConfig.CircuitBreakerConfig config) {
+		this.windowSize = Math.max(1, config.getWindowSize());
+		this.minimumCalls = Math.max(1, Math.min(windowSize, config.getMinimumCalls()));
+		this.failureRateThreshold = config.getFailureRateThreshold();
+		this.slowCallDurationNanos = TimeUnit.MILLISECONDS.toNanos(config.getSlowCallDurationMs());
+		this.slowCallRateThreshold = config.getSlowCallRateThreshold();
+		this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(config.getOpenDurationMs());
+		this.halfOpenCalls = Math.max(1, config.getHalfOpenCalls());
+		this.failedCalls = new boolean[windowSize];
+		this.slowCalls = new boolean[windowSize];
+	}
+
+	/**
+	 * Adds a listener that is notified when the breaker changes state
+	 *
+	 * @param listener The {@link CircuitBreakerListener} to add
+	 */
+	public void addListener(CircuitBreakerListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Executes a call if the breaker permits it, and records its outcome
+	 *
+	 * @param <T>  The type of the result of the call
+	 * @param call The call to execute
+	 * @return The result of the call
+	 * @throws CircuitBreakerOpenException if the breaker is open
+	 */
+	public <T> T execute(Supplier<T> call) {
+		long id;
+		try {
+			id = acquire();
+		} finally {
+			notifyListeners();
+		}
+		T result;
+		try {
+			result = call.get();
+		} catch (RuntimeException e) {
+			if (isFailure(e)) {
+				release(id, true);
+			} else {
+				ignore(id);
+			}
+			notifyListeners();
+			throw e;
+		} catch (Error e) {
+			ignore(id);
+			throw e;
+		}
+		release(id, false);
+		notifyListeners();
+		return result;
+	}
+
+	private static boolean isFailure(RuntimeException e) {
+		if (e instanceof ReportPortalClientException rpe) {
+			return rpe.getHttpStatusCode() != null && rpe.getHttpStatusCode().is5xxServerError();
+		}
+		return e instanceof ResourceAccessException;
+	}
+
+	private synchronized long acquire() {
+		long now = System.nanoTime();
+		if (state == CircuitState.OPEN && now - openedAt >= openDurationNanos) {
+			transition(CircuitState.HALF_OPEN, now);
+		} else if (state == CircuitState.CLOSED && isTripped(now)) {
+			transition(CircuitState.OPEN, now);
+		}
+
+		if (state == CircuitState.OPEN || (state == CircuitState.HALF_OPEN && halfOpenPermits == 0)) {
+			shortCircuited++;
+			throw new CircuitBreakerOpenException(state,
+					"Call to ReportPortal was not sent, the circuit breaker is " + state);
+		}
+		if (state == CircuitState.HALF_OPEN) {
+			halfOpenPermits--;
+		}
+		long id = nextCallId++;
+		inProgress.put(id, now);
+		return id;
+	}
+
+	private synchronized void release(long id, boolean failed) {
+		long now = System.nanoTime();
+		Long start = inProgress.remove(id);
+		if (start == null || id < firstCallIdOfState) {
+			return;
+		}
+		boolean isSlow = now - start >= slowCallDurationNanos;
+
+		if (state == CircuitState.HALF_OPEN) {
+			if (failed || isSlow) {
+				transition(CircuitState.OPEN, now);
+			} else if (++halfOpenSuccesses >= halfOpenCalls) {
+				transition(CircuitState.CLOSED, now);
+			}
+			return;
+		}
+
+		if (windowCount == windowSize) {
+			failures -= failedCalls[windowIndex] ? 1 : 0;
+			slow -= slowCalls[windowIndex] ? 1 : 0;
+		} else {
+			windowCount++;
+		}
+		failedCalls[windowIndex] = failed;
+		slowCalls[windowIndex] = isSlow;
+		failures += failed ? 1 : 0;
+		slow += isSlow ? 1 : 0;
+		windowIndex = (windowIndex + 1) % windowSize;
+
+		if (isTripped(now)) {
+			transition(CircuitState.OPEN, now);
+		}
+	}
+
+	/**
+	 * Releases a call whose outcome says nothing about the health of
+	 * ReportPortal, ie. one rejected with a 4xx status
+	 */
+	private synchronized void ignore(long id) {
+		if (inProgress.remove(id) != null && id >= firstCallIdOfState && state == CircuitState.HALF_OPEN) {
+			halfOpenPermits++;
+		}
+	}
+
+	private boolean isTripped(long now) {
+		int stalled = countStalled(now);
+		if (windowCount >= minimumCalls && failureRate() >= failureRateThreshold) {
+			return true;
+		}
+		return windowCount + stalled >= minimumCalls && slowCallRate(stalled) >= slowCallRateThreshold;
+	}
+
+	/**
+	 * Counts the calls that have been in progress for longer than the slow call
+	 * duration
+	 */
+	private int countStalled(long now) {
+		int stalled = 0;
+		Iterator<Long> starts = inProgress.values().iterator();
+		while (starts.hasNext() && now - starts.next() >= slowCallDurationNanos) {
+			stalled++;
+		}
+		return stalled;
+	}
+
+	private double failureRate() {
+		return windowCount == 0 ? 0 : (double) failures / windowCount;
+	}
+
+	private double slowCallRate(int stalled) {
+		return windowCount + stalled == 0 ? 0 : (double) (slow + stalled) / (windowCount + stalled);
+	}
+
+	private void transition(CircuitState to, long now) {
+		CircuitState from = state;
+		state = to;
+		firstCallIdOfState = nextCallId;
+		switch (to) {
+		case OPEN -> {
+			openedAt = now;
+			opened++;
+			int stalled = countStalled(now);
+			log.warn("Circuit breaker to ReportPortal opened after {} failed and {} slow of the last {} calls",
+					failures, slow + stalled, windowCount + stalled);
+		}
+		case HALF_OPEN -> {
+			halfOpenPermits = halfOpenCalls;
+			halfOpenSuccesses = 0;
+			log.info("Circuit breaker to ReportPortal is half open, probing with {} calls", halfOpenCalls);
+		}
+		case CLOSED -> log.info("Circuit breaker to ReportPortal closed");
+		}
+		if (to != CircuitState.OPEN) {
+			resetWindow();
+		}
+		transitions.add(new Transition(from, to));
+	}
+
+	/**
+	 * Notifies the listeners of the queued transitions. Must be called without
+	 * holding the lock of the breaker, so that a listener cannot block the
+	 * calls or deadlock on the breaker
+	 */
+	private void notifyListeners() {
+		if (transitions.isEmpty()) {
+			return;
+		}
+		synchronized (notifyLock) {
+			Transition transition;
+			while ((transition = transitions.poll()) != null) {
+				for (CircuitBreakerListener listener : listeners) {
+					try {
+						listener.onStateTransition(transition.getFrom(), transition.getTo());
+					} catch (RuntimeException e) {
+						log.warn("Circuit breaker listener failed", e);
+					}
+				}
+			}
+		}
+	}
+
+	private void resetWindow() {
+		windowCount = 0;
+		windowIndex = 0;
+		failures = 0;
+		slow = 0;
+	}
+
+	@Value
+	private static class Transition {
+		CircuitState from;
+		CircuitState to;
+	}
+
+	/**
+	 * @return A {@link CircuitBreakerStatistics} snapshot of the breaker
+	 */
+	public synchronized CircuitBreakerStatistics getStatistics() {
+		return new CircuitBreakerStatistics(state, opened, shortCircuited, failureRate(),
+				slowCallRate(countStalled(System.nanoTime())));
+	}
+}
@@ -0,0 +1,35 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.circuit;
+
+/**
+ * A listener that is notified when a {@link CircuitBreaker} changes state.
+ * Listeners are called on the thread of a call that caused or followed the
+ * transition, after the breaker is unlocked, one transition at a time and in
+ * order. They should still return quickly, since the call waits for them
+ */
+@FunctionalInterface
+public interface CircuitBreakerListener {
+
+	/**
+	 * Called when the breaker changes state
+	 *
+	 * @param from The {@link CircuitState} before the transition
+	 * @param to   The {@link CircuitState} after the transition
+	 */
+	void onStateTransition(CircuitState from, CircuitState to);
+}
@@ -0,0 +1,55 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.circuit;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A snapshot of the state of a {@link CircuitBreaker}
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CircuitBreakerStatistics {
+
+	/**
+	 * The current {@link CircuitState} of the breaker
+	 */
+	private final CircuitState state;
+
+	/**
+	 * The number of times the breaker opened
+	 */
+	private final long opened;
+
+	/**
+	 * The number of calls that failed immediately because the breaker was open
+	 */
+	private final long shortCircuited;
+
+	/**
+	 * The rate of failed calls in the current window, from 0 to 1
+	 */
+	private final double failureRate;
+
+	/**
+	 * The rate of slow calls in the current window, from 0 to 1
+	 */
+	private final double slowCallRate;
+}
@@ -0,0 +1,40 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.circuit;
+
+/**
+ * The states of a {@link CircuitBreaker}
+ */
+public enum CircuitState {
+
+	/**
+	 * Calls are sent to ReportPortal, and their outcome is recorded
+	 */
+	CLOSED,
+
+	/**
+	 * ReportPortal is considered unhealthy, and calls fail immediately without
+	 * being sent
+	 */
+	OPEN,
+
+	/**
+	 * A limited number of probe calls are sent to ReportPortal, to decide
+	 * whether the breaker closes again or opens
+	 */
+	HALF_OPEN
+}
@@ -0,0 +1,54 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.compression;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A snapshot of the request bodies compressed by a
+ * {@link GzipClientHttpRequestFactory}
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CompressionStatistics {
+
+	/**
+	 * The number of requests which body was compressed
+	 */
+	private final long compressedRequests;
+
+	/**
+	 * The size in bytes of the compressed bodies before compression
+	 */
+	private final long originalBytes;
+
+	/**
+	 * The size in bytes of the compressed bodies after compression
+	 */
+	private final long compressedBytes;
+
+	/**
+	 * @return The ratio of the bytes saved by compression to the original bytes,
+	 *         between 0 and 1
+	 */
+	public double getSavedRatio() {
+		return originalBytes == 0 ? 0.0 : (double) (originalBytes - compressedBytes) / originalBytes;
+	}
+}
@@ -0,0 +1,181 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.compression;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.FastByteArrayOutputStream;
+
+import io.github.alexopa.reportportalclient.config.RPClientConfig;
+
+/**
+ * A {@link ClientHttpRequestFactory} that compresses the json request bodies
+ * with gzip and sends them with <code>Content-Encoding: gzip</code>. Bodies
+ * smaller than the configured threshold are sent as is, since compressing them
+ * saves less than it costs. Other bodies, ie. the multipart bodies of file
+ * attachments, are streamed to the delegate untouched.
+ */
+public class GzipClientHttpRequestFactory implements ClientHttpRequestFactory {
+
+	private static final String GZIP = "gzip";
+
+	private final ClientHttpRequestFactory delegate;
+	private final int thresholdBytes;
+
+	private final LongAdder compressedRequests = new LongAdder();
+	private final LongAdder originalBytes = new LongAdder();
+	private final LongAdder compressedBytes = new LongAdder();
+
+	/**
+	 * Creates a new {@link GzipClientHttpRequestFactory}
+	 *
+	 * @param delegate The {@link ClientHttpRequestFactory} that creates the
+	 *                 actual requests
+	 * @param config   A {@link RPClientConfig.CompressionConfig} with the
+	 *                 configuration of the compression
+	 */
+	public GzipClientHttpRequestFactory(final ClientHttpRequestFactory delegate,
+			final RPClientConfig.CompressionConfig config) {
+		this.delegate = delegate;
+		this.thresholdBytes = config.getThresholdBytes();
+	}
+
+	@Override
+	public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+		return new GzipRequest(delegate.createRequest(uri, httpMethod));
+	}
+
+	/**
+	 * @return A {@link CompressionStatistics} snapshot with the bodies compressed
+	 *         so far
+	 */
+	public CompressionStatistics getStatistics() {
+		return new CompressionStatistics(compressedRequests.sum(), originalBytes.sum(), compressedBytes.sum());
+	}
+
+	private class GzipRequest implements ClientHttpRequest, StreamingHttpOutputMessage {
+
+		private final ClientHttpRequest request;
+		private FastByteArrayOutputStream buffer;
+
+		private GzipRequest(ClientHttpRequest request) {
+			this.request = request;
+		}
+
+		@Override
+		public HttpMethod getMethod() {
+			return request.getMethod();
+		}
+
+		@Override
+		public URI getURI() {
+			return request.getURI();
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return request.getHeaders();
+		}
+
+		@Override
+		public OutputStream getBody() throws IOException {
+			if (!isCompressible()) {
+				return request.getBody();
+			}
+			if (buffer == null) {
+				buffer = new FastByteArrayOutputStream();
+			}
+			return buffer;
+		}
+
+		@Override
+		public void setBody(Body body) {
+			try {
+				if (isCompressible()) {
+					body.writeTo(getBody());
+				} else if (request instanceof StreamingHttpOutputMessage streamingRequest) {
+					streamingRequest.setBody(body);
+				} else {
+					body.writeTo(request.getBody());
+				}
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		private boolean isCompressible() {
+			MediaType contentType = request.getHeaders().getContentType();
+			return contentType != null && MediaType.APPLICATION_JSON.isCompatibleWith(contentType);
+		}
+
+		@Override
+		public ClientHttpResponse execute() throws IOException {
+			if (buffer != null) {
+				byte[] body = buffer.toByteArrayUnsafe();
+				if (body.length >= thresholdBytes) {
+					byte[] compressed = compress(body);
+					compressedRequests.increment();
+					originalBytes.add(body.length);
+					compressedBytes.add(compressed.length);
+					request.getHeaders().set(HttpHeaders.CONTENT_ENCODING, GZIP);
+					body = compressed;
+				}
+				write(body);
+			}
+			return request.execute();
+		}
+
+		private byte[] compress(byte[] body) throws IOException {
+			FastByteArrayOutputStream out = new FastByteArrayOutputStream(Math.max(256, body.length / 4));
+			try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+				gzip.write(body);
+			}
+			return out.toByteArrayUnsafe();
+		}
+
+		private void write(byte[] body) throws IOException {
+			request.getHeaders().setContentLength(body.length);
+			if (request instanceof StreamingHttpOutputMessage streamingRequest) {
+				streamingRequest.setBody(new Body() {
+
+					@Override
+					public void writeTo(OutputStream outputStream) throws IOException {
+						outputStream.write(body);
+					}
+
+					@Override
+					public boolean repeatable() {
+						return true;
+					}
+				});
+			} else {
+				request.getBody().write(body);
+			}
+		}
+	}
+}
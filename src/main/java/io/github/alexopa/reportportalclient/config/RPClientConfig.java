@@ -16,11 +16,25 @@
  */
 package io.github.alexopa.reportportalclient.config;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import io.github.alexopa.reportportalclient.RPAsyncClient;
 import io.github.alexopa.reportportalclient.RPClient;
+import io.github.alexopa.reportportalclient.ReactiveRPClient;
+import io.github.alexopa.reportportalclient.attachment.DuplicateAttachmentMode;
+import io.github.alexopa.reportportalclient.metrics.MicrometerRPClientMetrics;
+import io.github.alexopa.reportportalclient.metrics.RPClientMetrics;
+import io.github.alexopa.reportportalclient.queue.OverflowPolicy;
+import io.github.alexopa.reportportalclient.transport.TransportType;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.Data;
 
 @Configuration
@@ -34,14 +48,181 @@ public class RPClientConfig {
 
 	@Data
 	public static class ConnectionConfig {
+		TransportType transport = TransportType.APACHE;
 		long connectTimeout = 15000L;
-		long socketTimeout = 30000L;	
+		long socketTimeout = 30000L;
+		int maxConnectionsTotal = 50;
+		int maxConnectionsPerRoute = 20;
+		long timeToLiveMs = -1L;
+		long idleEvictionMs = 60000L;
+		long validateAfterInactivityMs = 2000L;
+		long keepAliveMs = 180000L;
+		long closeTimeoutMs = 30000L;
 	}
 	
 	private ConnectionConfig connectionConfig = new ConnectionConfig();
+
+	@Data
+	public static class RetryConfig {
+		int maxAttempts = 1;
+		long baseBackoffMs = 200L;
+		long maxBackoffMs = 10000L;
+		double jitter = 0.5;
+		List<Integer> retryableStatusCodes = new ArrayList<>(List.of(429, 500, 502, 503, 504));
+		boolean retryNonIdempotent = false;
+	}
+
+	private RetryConfig retryConfig = new RetryConfig();
+
+	@Data
+	public static class RateLimitConfig {
+		boolean enabled = false;
+		double requestsPerSecond = 0;
+		long bytesPerSecond = 0L;
+		double lifecycleRequestsPerSecond = 0;
+		long lifecycleBytesPerSecond = 0L;
+		double logRequestsPerSecond = 0;
+		long logBytesPerSecond = 0L;
+		double burstSeconds = 1.0;
+	}
+
+	private RateLimitConfig rateLimitConfig = new RateLimitConfig();
+
+	@Data
+	public static class CircuitBreakerConfig {
+		boolean enabled = false;
+		int windowSize = 20;
+		int minimumCalls = 5;
+		double failureRateThreshold = 0.5;
+		long slowCallDurationMs = 10000L;
+		double slowCallRateThreshold = 0.5;
+		long openDurationMs = 30000L;
+		int halfOpenCalls = 3;
+	}
+
+	private CircuitBreakerConfig circuitBreakerConfig = new CircuitBreakerConfig();
+
+	@Data
+	public static class AsyncConfig {
+		boolean enabled = false;
+		int maxConcurrency = 10;
+		boolean virtualThreads = false;
+		long closeTimeoutMs = 30000L;
+	}
+
+	private AsyncConfig asyncConfig = new AsyncConfig();
+
+	@Data
+	public static class QueueConfig {
+		boolean enabled = false;
+		int capacity = 10000;
+		OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+		long closeTimeoutMs = 30000L;
+	}
+
+	private QueueConfig queueConfig = new QueueConfig();
+
+	@Data
+	public static class LogBatchConfig {
+		boolean enabled = false;
+		int maxCount = 50;
+		long maxBytes = 1048576L;
+		long maxLingerMs = 1000L;
+	}
+
+	private LogBatchConfig logBatchConfig = new LogBatchConfig();
+
+	@Data
+	public static class JournalConfig {
+		boolean enabled = false;
+		String directory = "rp-client-journal";
+		long segmentSizeBytes = 67108864L;
+		boolean fsync = false;
+		long retryDelayMs = 5000L;
+		int maxAttempts = 100;
+		long closeTimeoutMs = 30000L;
+	}
+
+	private JournalConfig journalConfig = new JournalConfig();
+
+	@Data
+	public static class OfflineConfig {
+		boolean enabled = false;
+		String archive = "rp-client-launch.rpla";
+		int replayMaxInFlight = 1000;
+	}
+
+	private OfflineConfig offlineConfig = new OfflineConfig();
 	
-	@Bean
-	RPClient rpClient() {
-		return new RPClient(this);
+	@Data
+	public static class MetricsConfig {
+		boolean enabled = true;
+		String clientName;
+	}
+
+	private MetricsConfig metricsConfig = new MetricsConfig();
+
+	@Data
+	public static class AttachmentConfig {
+		int bufferSizeBytes = 65536;
+		boolean deduplicationEnabled = false;
+		int deduplicationMaxEntries = 10000;
+		DuplicateAttachmentMode duplicateMode = DuplicateAttachmentMode.LOG_ONLY;
+	}
+
+	private AttachmentConfig attachmentConfig = new AttachmentConfig();
+
+	@Data
+	public static class CompressionConfig {
+		boolean enabled = false;
+		int thresholdBytes = 1024;
+	}
+
+	private CompressionConfig compressionConfig = new CompressionConfig();
+
+	@Data
+	public static class JsonConfig {
+		boolean blackbird = false;
+	}
+
+	private JsonConfig jsonConfig = new JsonConfig();
+	
+	@Bean(destroyMethod = "close")
+	RPClient rpClient(ObjectProvider<RPClientMetrics> metrics) {
+		if (!metricsConfig.isEnabled()) {
+			return new RPClient(this);
+		}
+		return new RPClient(this, metrics.getIfAvailable(() -> RPClientMetrics.NOOP));
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnProperty(prefix = "rp-client.async-config", name = "enabled", havingValue = "true")
+	static class AsyncClientConfig {
+
+		@Bean(destroyMethod = "close")
+		RPAsyncClient rpAsyncClient(RPClient rpClient, RPClientConfig config) {
+			return new RPAsyncClient(rpClient, config);
+		}
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+	static class MicrometerMetricsConfig {
+
+		@Bean
+		RPClientMetrics rpClientMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+			MeterRegistry registry = meterRegistry.getIfAvailable();
+			return registry == null ? RPClientMetrics.NOOP : new MicrometerRPClientMetrics(registry);
+		}
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(name = "org.springframework.web.reactive.function.client.WebClient")
+	static class ReactiveClientConfig {
+
+		@Bean
+		ReactiveRPClient reactiveRPClient(RPClientConfig config) {
+			return new ReactiveRPClient(config);
+		}
 	}
 }
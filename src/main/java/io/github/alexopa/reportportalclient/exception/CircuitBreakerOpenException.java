@@ -0,0 +1,50 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.exception;
+
+import org.springframework.http.HttpStatusCode;
+
+import io.github.alexopa.reportportalclient.RPClient;
+import io.github.alexopa.reportportalclient.circuit.CircuitState;
+import lombok.Getter;
+
+/**
+ * An exception that is thrown by the {@link RPClient} when a call is not sent
+ * to ReportPortal because the circuit breaker is open. Like a call that could
+ * not reach ReportPortal, it has no {@link HttpStatusCode}
+ */
+@Getter
+public class CircuitBreakerOpenException extends ReportPortalClientException {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The {@link CircuitState} of the breaker when the call was rejected
+	 */
+	private final CircuitState state;
+
+	/**
+	 * Creates a new {@link CircuitBreakerOpenException}
+	 *
+	 * @param state   The {@link CircuitState} of the breaker
+	 * @param message A {@link String} with a message about the rejected call
+	 */
+	public CircuitBreakerOpenException(CircuitState state, String message) {
+		super(null, message);
+		this.state = state;
+	}
+}
@@ -16,6 +16,8 @@
  */
 package io.github.alexopa.reportportalclient.exception;
 
+import java.time.Duration;
+
 import org.springframework.http.HttpStatusCode;
 
 import io.github.alexopa.reportportalclient.RPClient;
@@ -41,6 +43,13 @@ public class ReportPortalClientException extends RuntimeException {
 	 */
 	private final ReportPortalErrorMessage errorMessage;
 
+	/**
+	 * The time to wait before sending the request again, from the
+	 * <code>Retry-After</code> header of the response, or <code>null</code> if
+	 * there was none
+	 */
+	private final Duration retryAfter;
+
 	/**
 	 * Creates a new {@link ReportPortalClientException}
 	 * 
@@ -49,9 +58,25 @@ public class ReportPortalClientException extends RuntimeException {
 	 *                       information about the error
 	 */
 	public ReportPortalClientException(HttpStatusCode httpStatusCode, ReportPortalErrorMessage errorMessage) {
+		this(httpStatusCode, errorMessage, null);
+	}
+
+	/**
+	 * Creates a new {@link ReportPortalClientException}
+	 * 
+	 * @param httpStatusCode The {@link HttpStatusCode} of the error that occurred
+	 * @param errorMessage   A {@link ReportPortalErrorMessage} instance with
+	 *                       information about the error
+	 * @param retryAfter     The {@link Duration} from the
+	 *                       <code>Retry-After</code> header of the response, or
+	 *                       <code>null</code>
+	 */
+	public ReportPortalClientException(HttpStatusCode httpStatusCode, ReportPortalErrorMessage errorMessage,
+			Duration retryAfter) {
 		super(errorMessage.toString());
 		this.httpStatusCode = httpStatusCode;
 		this.errorMessage = errorMessage;
+		this.retryAfter = retryAfter;
 	}
 
 	/**
@@ -66,5 +91,6 @@ public class ReportPortalClientException extends RuntimeException {
 		super(message);
 		this.httpStatusCode = statusCode;
 		this.errorMessage = ReportPortalErrorMessage.builder().message(message).build();
+		this.retryAfter = null;
 	}
 }
@@ -0,0 +1,95 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.journal;
+
+import io.github.alexopa.reportportalclient.RPClient;
+import io.github.alexopa.reportportalclient.model.launch.FinishLaunchProperties;
+import io.github.alexopa.reportportalclient.model.launch.StartLaunchProperties;
+import io.github.alexopa.reportportalclient.model.launch.UpdateLaunchProperties;
+import io.github.alexopa.reportportalclient.model.log.AddFileAttachmentProperties;
+import io.github.alexopa.reportportalclient.model.log.AddLogProperties;
+import io.github.alexopa.reportportalclient.model.testitem.FinishTestItemProperties;
+import io.github.alexopa.reportportalclient.model.testitem.StartTestItemProperties;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The operations of {@link RPClient} that can be written in a
+ * {@link ReportJournal} and replayed later
+ */
+@Getter
+@AllArgsConstructor
+public enum JournalOperation {
+
+	START_LAUNCH(StartLaunchProperties.class) {
+		@Override
+		public Object send(RPClient client, Object props) {
+			return client.startLaunch((StartLaunchProperties) props);
+		}
+	},
+	UPDATE_LAUNCH(UpdateLaunchProperties.class) {
+		@Override
+		public Object send(RPClient client, Object props) {
+			return client.updateLaunch((UpdateLaunchProperties) props);
+		}
+	},
+	FINISH_LAUNCH(FinishLaunchProperties.class) {
+		@Override
+		public Object send(RPClient client, Object props) {
+			return client.finishLaunch((FinishLaunchProperties) props);
+		}
+	},
+	START_ITEM(StartTestItemProperties.class) {
+		@Override
+		public Object send(RPClient client, Object props) {
+			return client.startItem((StartTestItemProperties) props);
+		}
+	},
+	FINISH_ITEM(FinishTestItemProperties.class) {
+		@Override
+		public Object send(RPClient client, Object props) {
+			return client.finishItem((FinishTestItemProperties) props);
+		}
+	},
+	ADD_LOG(AddLogProperties.class) {
+		@Override
+		public Object send(RPClient client, Object props) {
+			return client.addLog((AddLogProperties) props);
+		}
+	},
+	ADD_FILE_ATTACHMENT(AddFileAttachmentProperties.class) {
+		@Override
+		public Object send(RPClient client, Object props) {
+			return client.addFileAttachment((AddFileAttachmentProperties) props);
+		}
+	};
+
+	/**
+	 * The class of the properties object of the operation
+	 */
+	private final Class<?> propertiesType;
+
+	/**
+	 * Sends the operation to ReportPortal
+	 *
+	 * @param client The {@link RPClient} that sends the request
+	 * @param props  The properties object of the operation, an instance of its
+	 *               properties type
+	 * @return The response from ReportPortal
+	 */
+	public abstract Object send(RPClient client, Object props);
+}
@@ -0,0 +1,544 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import io.github.alexopa.reportportalclient.config.RPClientConfig;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * An append-only journal of operations, stored in segment files in a local
+ * directory. Each record is written with a header that contains the length of
+ * the payload, a checksum and the sequence number of the record, so that a
+ * partially written record at the end of the journal can be detected and
+ * dropped after a crash. The sequence number of the last record that has been
+ * sent successfully is kept in a checkpoint file, and segments that contain
+ * only acknowledged records are deleted.
+ *
+ * <p>
+ * A journal directory is used by one journal at a time, which holds an
+ * exclusive lock on a lock file in it. When the configured directory is
+ * locked by another journal, ie. of a parallel test fork in the same working
+ * directory, the first unlocked <code>instance-N</code> subdirectory of it is
+ * used instead. Records left behind in such a subdirectory are sent by the
+ * next journal that opens it.
+ *
+ * <p>
+ * Records that can never be sent, ie. because ReportPortal rejects them, are
+ * moved to a dead letter file in the directory, one json object per line, so
+ * that they do not block the records after them and can still be inspected.
+ */
+@Slf4j
+public class ReportJournal implements AutoCloseable {
+
+	private static final String SEGMENT_PREFIX = "segment-";
+	private static final String SEGMENT_SUFFIX = ".journal";
+	private static final String CHECKPOINT_FILE = "checkpoint";
+	private static final String DEAD_LETTER_FILE = "dead-letters.jsonl";
+	private static final String LOCK_FILE = "lock";
+	private static final String INSTANCE_PREFIX = "instance-";
+	private static final int HEADER_BYTES = Integer.BYTES + Integer.BYTES + Long.BYTES;
+
+	private final Path directory;
+	private final long segmentSizeBytes;
+	private final boolean fsync;
+	private final ObjectMapper objectMapper;
+	private final FileChannel checkpoint;
+	private final FileLock lock;
+
+	/**
+	 * The segment files of the journal, by the sequence number of their first
+	 * record
+	 */
+	private final NavigableMap<Long, Path> segments = new TreeMap<>();
+
+	private FileChannel activeChannel;
+	private long activeFirstSequence;
+	private long activeSize;
+	private long nextSequence;
+	private long acknowledgedSequence;
+
+	/**
+	 * Opens the journal in the configured directory, recovering the records of a
+	 * previous run that have not been acknowledged yet
+	 *
+	 * @param config       A {@link RPClientConfig.JournalConfig} with the
+	 *                     configuration of the journal
+	 * @param objectMapper The {@link ObjectMapper} used to (de)serialize the
+	 *                     records
+	 */
+	public ReportJournal(final RPClientConfig.JournalConfig config, final ObjectMapper objectMapper) {
+		this.segmentSizeBytes = config.getSegmentSizeBytes();
+		this.fsync = config.isFsync();
+		this.objectMapper = objectMapper;
+		Path root = Paths.get(config.getDirectory());
+		try {
+			Path candidate = root;
+			FileLock candidateLock;
+			int instance = 0;
+			while ((candidateLock = tryLock(candidate)) == null) {
+				candidate = root.resolve(INSTANCE_PREFIX + ++instance);
+			}
+			if (instance > 0) {
+				log.info("Journal in {} is used by another process, using {}", root, candidate);
+			}
+			this.directory = candidate;
+			this.lock = candidateLock;
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to lock journal in " + root, e);
+		}
+		try {
+			this.checkpoint = FileChannel.open(directory.resolve(CHECKPOINT_FILE), StandardOpenOption.CREATE,
+					StandardOpenOption.READ, StandardOpenOption.WRITE);
+			this.acknowledgedSequence = readCheckpoint();
+			recover();
+		} catch (IOException e) {
+			releaseLock();
+			throw new UncheckedIOException("Failed to open journal in " + directory, e);
+		}
+	}
+
+	/**
+	 * Takes the exclusive lock of a journal directory
+	 *
+	 * @return The {@link FileLock}, or <code>null</code> if another journal
+	 *         holds it
+	 */
+	private static FileLock tryLock(Path directory) throws IOException {
+		Files.createDirectories(directory);
+		FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE);
+		try {
+			FileLock lock = channel.tryLock();
+			if (lock != null) {
+				return lock;
+			}
+		} catch (OverlappingFileLockException e) {
+			// held by another journal in this JVM
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+		channel.close();
+		return null;
+	}
+
+	private long readCheckpoint() throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+		if (checkpoint.read(buffer, 0) < Long.BYTES) {
+			return 0L;
+		}
+		return buffer.flip().getLong();
+	}
+
+	private void recover() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			files.filter(f -> f.getFileName().toString().startsWith(SEGMENT_PREFIX)
+					&& f.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+					.forEach(f -> segments.put(firstSequenceOf(f), f));
+		}
+
+		long lastSequence = acknowledgedSequence;
+		if (!segments.isEmpty()) {
+			Map.Entry<Long, Path> last = segments.lastEntry();
+			long lastValid = truncateInvalidTail(last.getValue());
+			if (lastValid < 0) {
+				Files.delete(last.getValue());
+				segments.remove(last.getKey());
+				lastSequence = Math.max(lastSequence, last.getKey() - 1);
+			} else {
+				lastSequence = Math.max(lastSequence, lastValid);
+			}
+		}
+		this.nextSequence = lastSequence + 1;
+		deleteAcknowledgedSegments();
+		openSegment(nextSequence);
+
+		if (nextSequence - 1 > acknowledgedSequence) {
+			log.info("Recovered {} records from journal in {}", nextSequence - 1 - acknowledgedSequence, directory);
+		}
+	}
+
+	/**
+	 * Scans a segment and truncates it after its last valid record
+	 *
+	 * @return The sequence number of the last valid record, or -1 if there is
+	 *         none
+	 */
+	private long truncateInvalidTail(Path segment) throws IOException {
+		long lastValid = -1;
+		try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			long position = 0;
+			long size = channel.size();
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+			while (position + HEADER_BYTES <= size) {
+				header.clear();
+				channel.read(header, position);
+				header.flip();
+				int length = header.getInt();
+				int crc = header.getInt();
+				long sequence = header.getLong();
+				if (length < 0 || position + HEADER_BYTES + length > size) {
+					break;
+				}
+				ByteBuffer payload = ByteBuffer.allocate(length);
+				channel.read(payload, position + HEADER_BYTES);
+				if (crc != checksum(payload.array())) {
+					break;
+				}
+				lastValid = sequence;
+				position += HEADER_BYTES + length;
+			}
+			if (position < size) {
+				log.warn("Dropping {} bytes of incomplete records at the end of {}", size - position, segment);
+				channel.truncate(position);
+			}
+		}
+		return lastValid;
+	}
+
+	private void openSegment(long firstSequence) throws IOException {
+		Path segment = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+		activeChannel = FileChannel.open(segment, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+		activeFirstSequence = firstSequence;
+		activeSize = 0L;
+		segments.put(firstSequence, segment);
+	}
+
+	/**
+	 * Appends an operation to the journal
+	 *
+	 * @param operation The {@link JournalOperation} to append
+	 * @param props     The properties object of the operation
+	 * @return The sequence number of the record
+	 */
+	public synchronized long append(JournalOperation operation, Object props) {
+		long sequence = nextSequence;
+		try {
+			byte[] payload = objectMapper
+					.writeValueAsBytes(new JournalRecord(sequence, operation, objectMapper.valueToTree(props)));
+			int recordSize = HEADER_BYTES + payload.length;
+			if (activeSize > 0 && activeSize + recordSize > segmentSizeBytes) {
+				activeChannel.close();
+				openSegment(sequence);
+			}
+
+			ByteBuffer buffer = ByteBuffer.allocate(recordSize);
+			buffer.putInt(payload.length).putInt(checksum(payload)).putLong(sequence).put(payload).flip();
+			while (buffer.hasRemaining()) {
+				activeChannel.write(buffer);
+			}
+			if (fsync) {
+				activeChannel.force(false);
+			}
+			activeSize += recordSize;
+			nextSequence++;
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to append to journal in " + directory, e);
+		}
+		notifyAll();
+		return sequence;
+	}
+
+	/**
+	 * Marks all the records up to a sequence number as sent, so that they are
+	 * not replayed again
+	 *
+	 * @param sequence The sequence number of the last record that has been sent
+	 */
+	public synchronized void acknowledge(long sequence) {
+		if (sequence <= acknowledgedSequence) {
+			return;
+		}
+		acknowledgedSequence = sequence;
+		try {
+			checkpoint.write(ByteBuffer.allocate(Long.BYTES).putLong(sequence).flip(), 0);
+			if (fsync) {
+				// otherwise a crash can lose the checkpoint and send the acknowledged records again
+				checkpoint.force(false);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to write journal checkpoint in " + directory, e);
+		}
+		deleteAcknowledgedSegments();
+		notifyAll();
+	}
+
+	/**
+	 * Writes a record that cannot be sent to the dead letter file of the
+	 * journal. The record still has to be acknowledged
+	 *
+	 * @param record The {@link JournalRecord} that cannot be sent
+	 * @param error  The reason why the record cannot be sent
+	 */
+	public synchronized void deadLetter(JournalRecord record, String error) {
+		ObjectNode deadLetter = objectMapper.createObjectNode();
+		deadLetter.put("sequence", record.getSequence());
+		deadLetter.put("operation", record.getOperation() == null ? null : record.getOperation().name());
+		deadLetter.set("properties", record.getProperties());
+		deadLetter.put("error", error);
+		try (FileChannel channel = FileChannel.open(directory.resolve(DEAD_LETTER_FILE), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+			ByteBuffer buffer = ByteBuffer.wrap((objectMapper.writeValueAsString(deadLetter) + "\n")
+					.getBytes(StandardCharsets.UTF_8));
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			if (fsync) {
+				channel.force(false);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to write dead letter of journal in " + directory, e);
+		}
+	}
+
+	private void deleteAcknowledgedSegments() {
+		Iterator<Map.Entry<Long, Path>> it = segments.entrySet().iterator();
+		while (it.hasNext()) {
+			Map.Entry<Long, Path> segment = it.next();
+			Long next = segments.higherKey(segment.getKey());
+			if (next == null || next - 1 > acknowledgedSequence) {
+				return;
+			}
+			try {
+				Files.deleteIfExists(segment.getValue());
+				it.remove();
+			} catch (IOException e) {
+				log.debug("Failed to delete journal segment {}, it will be retried", segment.getValue(), e);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * @return The sequence number of the last record that has been appended
+	 */
+	public synchronized long getLastSequence() {
+		return nextSequence - 1;
+	}
+
+	/**
+	 * @return The sequence number of the last record that has been acknowledged
+	 */
+	public synchronized long getAcknowledgedSequence() {
+		return acknowledgedSequence;
+	}
+
+	/**
+	 * Waits until all the appended records have been acknowledged
+	 *
+	 * @param timeoutMs The maximum time to wait, in milliseconds
+	 * @return <code>true</code> if all records have been acknowledged,
+	 *         <code>false</code> if the timeout elapsed first
+	 * @throws InterruptedException if the current thread is interrupted while
+	 *                              waiting
+	 */
+	public synchronized boolean awaitAcknowledged(long timeoutMs) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + timeoutMs;
+		while (acknowledgedSequence < nextSequence - 1) {
+			long remaining = deadline - System.currentTimeMillis();
+			if (remaining <= 0) {
+				return false;
+			}
+			wait(remaining);
+		}
+		return true;
+	}
+
+	/**
+	 * Creates a new {@link Reader} that reads the records of the journal that
+	 * have not been acknowledged yet, in order
+	 *
+	 * @return A new {@link Reader}
+	 */
+	public synchronized Reader reader() {
+		return new Reader(acknowledgedSequence);
+	}
+
+	private synchronized long committedSize(long segmentFirstSequence) throws IOException {
+		if (segmentFirstSequence == activeFirstSequence) {
+			return activeSize;
+		}
+		Path segment = segments.get(segmentFirstSequence);
+		return segment == null ? 0L : Files.size(segment);
+	}
+
+	private synchronized Long nextSegment(long segmentFirstSequence) {
+		return segments.higherKey(segmentFirstSequence);
+	}
+
+	private static long firstSequenceOf(Path segment) {
+		String name = segment.getFileName().toString();
+		return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+	}
+
+	private static int checksum(byte[] payload) {
+		CRC32 crc = new CRC32();
+		crc.update(payload);
+		return (int) crc.getValue();
+	}
+
+	@Override
+	public synchronized void close() {
+		try {
+			activeChannel.close();
+			checkpoint.close();
+		} catch (IOException e) {
+			log.warn("Failed to close journal in {}", directory, e);
+		}
+		releaseLock();
+	}
+
+	private void releaseLock() {
+		try {
+			lock.channel().close();
+		} catch (IOException e) {
+			log.warn("Failed to release the lock of journal in {}", directory, e);
+		}
+	}
+
+	/**
+	 * Reads the records of a {@link ReportJournal} in order, waiting for new
+	 * records to be appended
+	 */
+	public class Reader implements AutoCloseable {
+
+		private final long startAfter;
+		private long segmentFirstSequence;
+		private FileChannel channel;
+		private long position;
+
+		private Reader(long startAfter) {
+			this.startAfter = startAfter;
+			Long first = segments.floorKey(startAfter + 1);
+			this.segmentFirstSequence = first == null ? segments.firstKey() : first;
+		}
+
+		/**
+		 * Reads the next record of the journal
+		 *
+		 * @param timeoutMs The maximum time to wait for a new record, in
+		 *                  milliseconds
+		 * @return The next {@link JournalRecord}, or <code>null</code> if no
+		 *         record was appended within the timeout. A record that cannot
+		 *         be read has no operation
+		 * @throws IOException          if the journal cannot be read
+		 * @throws InterruptedException if the current thread is interrupted while
+		 *                              waiting
+		 */
+		public JournalRecord next(long timeoutMs) throws IOException, InterruptedException {
+			long deadline = System.currentTimeMillis() + timeoutMs;
+			while (true) {
+				long size = committedSize(segmentFirstSequence);
+				if (position + HEADER_BYTES <= size) {
+					JournalRecord record = read();
+					if (record.getSequence() > startAfter) {
+						return record;
+					}
+					continue;
+				}
+
+				Long next = nextSegment(segmentFirstSequence);
+				if (next != null && committedSize(segmentFirstSequence) <= position) {
+					closeChannel();
+					segmentFirstSequence = next;
+					position = 0L;
+					continue;
+				}
+
+				synchronized (ReportJournal.this) {
+					long remaining = deadline - System.currentTimeMillis();
+					if (remaining <= 0) {
+						return null;
+					}
+					if (committedSize(segmentFirstSequence) <= position
+							&& nextSegment(segmentFirstSequence) == null) {
+						ReportJournal.this.wait(remaining);
+					}
+				}
+			}
+		}
+
+		private JournalRecord read() throws IOException {
+			if (channel == null) {
+				Path segment;
+				synchronized (ReportJournal.this) {
+					segment = segments.get(segmentFirstSequence);
+				}
+				channel = FileChannel.open(segment, StandardOpenOption.READ);
+			}
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+			channel.read(header, position);
+			header.flip();
+			int length = header.getInt();
+			header.getInt();
+			long sequence = header.getLong();
+
+			ByteBuffer payload = ByteBuffer.allocate(length);
+			while (payload.hasRemaining()) {
+				channel.read(payload, position + HEADER_BYTES + payload.position());
+			}
+			position += HEADER_BYTES + length;
+
+			JournalRecord record;
+			try {
+				record = objectMapper.readValue(payload.array(), JournalRecord.class);
+			} catch (JsonProcessingException e) {
+				// an unreadable record has no operation, and keeps its payload as text
+				log.warn("Journal record {} in {} cannot be read: {}", sequence, directory, e.getOriginalMessage());
+				record = new JournalRecord(sequence, null,
+						new TextNode(new String(payload.array(), StandardCharsets.UTF_8)));
+			}
+			record.setSequence(sequence);
+			return record;
+		}
+
+		private void closeChannel() throws IOException {
+			if (channel != null) {
+				channel.close();
+				channel = null;
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			closeChannel();
+		}
+	}
+}
@@ -0,0 +1,226 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.RestClientException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.alexopa.reportportalclient.RPClient;
+import io.github.alexopa.reportportalclient.config.RPClientConfig;
+import io.github.alexopa.reportportalclient.exception.CircuitBreakerOpenException;
+import io.github.alexopa.reportportalclient.exception.ReportPortalClientException;
+import io.github.alexopa.reportportalclient.model.log.AddFileAttachmentProperties;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A durable spool of requests to ReportPortal. Every operation is first
+ * appended to a {@link ReportJournal} on the local disk and then sent to
+ * ReportPortal, in order, by a background thread. When ReportPortal cannot be
+ * reached the thread keeps retrying, and operations that have not been sent
+ * when the spool is closed remain in the journal and are sent by the next spool
+ * that is opened on the same directory. While the circuit breaker of the
+ * client is open, the operations are kept in the journal until it closes.
+ *
+ * <p>
+ * An operation that can never be sent, ie. one that ReportPortal rejects, one
+ * whose attachment file no longer exists or one that cannot be read from the
+ * journal, is moved to the dead letter file of the journal, and so is an
+ * operation that still fails after the configured number of attempts. So a
+ * single bad operation does not block the ones after it.
+ */
+@Slf4j
+public class ReportSpool implements AutoCloseable {
+
+	private static final String THREAD_NAME = "rp-client-journal-drainer";
+	private static final long POLL_TIMEOUT_MS = 200L;
+
+	private final ReportJournal journal;
+	private final RPClient client;
+	private final ObjectMapper objectMapper;
+	private final long retryDelayMs;
+	private final int maxAttempts;
+	private final long closeTimeoutMs;
+	private final Map<Long, CompletableFuture<Object>> waiting = new HashMap<>();
+	private final Thread drainer;
+
+	private volatile boolean running = true;
+	private volatile boolean stopped = false;
+
+	/**
+	 * Creates a new {@link ReportSpool} and starts sending the operations that
+	 * are already in the journal
+	 *
+	 * @param client The {@link RPClient} that sends the requests to ReportPortal
+	 * @param config A {@link RPClientConfig.JournalConfig} with the configuration
+	 *               of the journal
+	 */
+	public ReportSpool(final RPClient client, final RPClientConfig.JournalConfig config) {
+		this.client = client;
+		this.objectMapper = client.getObjectMapper();
+		this.journal = new ReportJournal(config, objectMapper);
+		this.retryDelayMs = config.getRetryDelayMs();
+		this.maxAttempts = config.getMaxAttempts();
+		this.closeTimeoutMs = config.getCloseTimeoutMs();
+
+		this.drainer = new Thread(this::drain, THREAD_NAME);
+		this.drainer.setDaemon(true);
+		this.drainer.start();
+	}
+
+	/**
+	 * Appends an operation to the journal
+	 *
+	 * @param <T>       The type of the response from ReportPortal
+	 * @param operation The {@link JournalOperation} to send
+	 * @param props     The properties object of the operation
+	 * @return A {@link CompletableFuture} that completes with the response from
+	 *         ReportPortal, once the operation has been sent
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized <T> CompletableFuture<T> submit(JournalOperation operation, Object props) {
+		CompletableFuture<Object> rs = new CompletableFuture<>();
+		waiting.put(journal.append(operation, props), rs);
+		return (CompletableFuture<T>) rs;
+	}
+
+	private void drain() {
+		try (ReportJournal.Reader reader = journal.reader()) {
+			while (!stopped && (running || journal.getAcknowledgedSequence() < journal.getLastSequence())) {
+				JournalRecord record = reader.next(POLL_TIMEOUT_MS);
+				if (record != null && send(record)) {
+					journal.acknowledge(record.getSequence());
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (IOException | UncheckedIOException e) {
+			log.error("Failed to read journal, stopped sending to ReportPortal", e);
+		}
+	}
+
+	/**
+	 * Sends a record to ReportPortal, retrying until it is either accepted by
+	 * ReportPortal or moved to the dead letters
+	 *
+	 * @return <code>false</code> if the spool was stopped before the record could
+	 *         be sent
+	 */
+	private boolean send(JournalRecord record) throws InterruptedException {
+		if (record.getOperation() == null) {
+			return deadLetter(record, new IllegalStateException("Journal record cannot be read"));
+		}
+		Object props;
+		try {
+			props = objectMapper.treeToValue(record.getProperties(), record.getOperation().getPropertiesType());
+		} catch (IOException e) {
+			return deadLetter(record, e);
+		}
+
+		int attempts = 0;
+		while (!stopped) {
+			try {
+				checkAttachment(props);
+				Object response = record.getOperation().send(client, props);
+				complete(record.getSequence()).complete(response);
+				return true;
+			} catch (CircuitBreakerOpenException e) {
+				log.debug("Circuit breaker is {}, keeping journal record {} for {} ms", e.getState(),
+						record.getSequence(), retryDelayMs);
+			} catch (RuntimeException e) {
+				if (!isTransient(e) || ++attempts >= maxAttempts) {
+					return deadLetter(record, e);
+				}
+				log.warn("Failed to send journal record {}, retrying in {} ms: {}", record.getSequence(), retryDelayMs,
+						e.getMessage());
+			}
+			long retryAt = System.currentTimeMillis() + retryDelayMs;
+			while (!stopped && System.currentTimeMillis() < retryAt) {
+				Thread.sleep(Math.min(POLL_TIMEOUT_MS, retryAt - System.currentTimeMillis() + 1));
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Tells whether a failure can go away when the record is sent again. The
+	 * errors of ReportPortal other than a rejection of the request, and the
+	 * failures to reach it, are transient. A rejection, or any other failure,
+	 * ie. of the client itself, fails again the same way
+	 */
+	private static boolean isTransient(RuntimeException e) {
+		if (e instanceof ReportPortalClientException rpe) {
+			return rpe.getHttpStatusCode() == null || !rpe.getHttpStatusCode().is4xxClientError()
+					|| rpe.getHttpStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS);
+		}
+		return e instanceof RestClientException;
+	}
+
+	/**
+	 * Fails an attachment whose file no longer exists, which would otherwise look
+	 * like a failure to reach ReportPortal while the file is uploaded
+	 */
+	private static void checkAttachment(Object props) {
+		if (props instanceof AddFileAttachmentProperties attachment
+				&& !Files.isReadable(Path.of(attachment.getFullPath()))) {
+			throw new IllegalStateException("Attachment file " + attachment.getFullPath() + " cannot be read");
+		}
+	}
+
+	private boolean deadLetter(JournalRecord record, Exception e) {
+		log.error("Moving {} request of journal record {} to the dead letters: {}", record.getOperation(),
+				record.getSequence(), e.getMessage());
+		journal.deadLetter(record, e.toString());
+		complete(record.getSequence()).completeExceptionally(e);
+		return true;
+	}
+
+	private synchronized CompletableFuture<Object> complete(long sequence) {
+		CompletableFuture<Object> rs = waiting.remove(sequence);
+		return rs == null ? new CompletableFuture<>() : rs;
+	}
+
+	/**
+	 * Waits for the operations in the journal to be sent, up to the configured
+	 * close timeout, and stops the background thread. Operations that have not
+	 * been sent remain in the journal
+	 */
+	@Override
+	public void close() {
+		running = false;
+		try {
+			if (!journal.awaitAcknowledged(closeTimeoutMs)) {
+				log.warn("{} journal records were not sent to ReportPortal and will be sent on next run",
+						journal.getLastSequence() - journal.getAcknowledgedSequence());
+			}
+			stopped = true;
+			drainer.join(closeTimeoutMs);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		journal.close();
+	}
+}
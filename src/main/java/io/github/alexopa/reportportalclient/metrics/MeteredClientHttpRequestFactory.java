@@ -0,0 +1,200 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.metrics;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * A {@link ClientHttpRequestFactory} that counts the bytes of the request and
+ * response bodies in an {@link RPClientMetrics}. The bodies are counted while
+ * they are streamed, so that no body is buffered in memory because of the
+ * metrics.
+ */
+public class MeteredClientHttpRequestFactory implements ClientHttpRequestFactory {
+
+	private final ClientHttpRequestFactory delegate;
+	private final RPClientMetrics metrics;
+
+	/**
+	 * Creates a new {@link MeteredClientHttpRequestFactory}
+	 *
+	 * @param delegate The {@link ClientHttpRequestFactory} that creates the
+	 *                 actual requests
+	 * @param metrics  The {@link RPClientMetrics} to record the bytes in
+	 */
+	public MeteredClientHttpRequestFactory(final ClientHttpRequestFactory delegate, final RPClientMetrics metrics) {
+		this.delegate = delegate;
+		this.metrics = metrics;
+	}
+
+	@Override
+	public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+		return new MeteredRequest(delegate.createRequest(uri, httpMethod));
+	}
+
+	private class MeteredRequest implements ClientHttpRequest, StreamingHttpOutputMessage {
+
+		private final ClientHttpRequest request;
+		private long bytes;
+
+		private MeteredRequest(ClientHttpRequest request) {
+			this.request = request;
+		}
+
+		@Override
+		public HttpMethod getMethod() {
+			return request.getMethod();
+		}
+
+		@Override
+		public URI getURI() {
+			return request.getURI();
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return request.getHeaders();
+		}
+
+		@Override
+		public OutputStream getBody() throws IOException {
+			return new CountingOutputStream(request.getBody());
+		}
+
+		@Override
+		public void setBody(Body body) {
+			if (request instanceof StreamingHttpOutputMessage streamingRequest) {
+				streamingRequest.setBody(new Body() {
+
+					@Override
+					public void writeTo(OutputStream outputStream) throws IOException {
+						body.writeTo(new CountingOutputStream(outputStream));
+					}
+
+					@Override
+					public boolean repeatable() {
+						return body.repeatable();
+					}
+				});
+			} else {
+				try {
+					body.writeTo(getBody());
+				} catch (IOException e) {
+					throw new IllegalStateException(e);
+				}
+			}
+		}
+
+		@Override
+		public ClientHttpResponse execute() throws IOException {
+			ClientHttpResponse response = request.execute();
+			metrics.recordRequestBytes(bytes);
+			return new MeteredResponse(response);
+		}
+
+		private class CountingOutputStream extends FilterOutputStream {
+
+			private CountingOutputStream(OutputStream out) {
+				super(out);
+			}
+
+			@Override
+			public void write(int b) throws IOException {
+				out.write(b);
+				bytes++;
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				out.write(b, off, len);
+				bytes += len;
+			}
+		}
+	}
+
+	private class MeteredResponse implements ClientHttpResponse {
+
+		private final ClientHttpResponse response;
+		private InputStream body;
+		private long bytes;
+
+		private MeteredResponse(ClientHttpResponse response) {
+			this.response = response;
+		}
+
+		@Override
+		public HttpStatusCode getStatusCode() throws IOException {
+			return response.getStatusCode();
+		}
+
+		@Override
+		public String getStatusText() throws IOException {
+			return response.getStatusText();
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return response.getHeaders();
+		}
+
+		@Override
+		public InputStream getBody() throws IOException {
+			if (body == null) {
+				body = new FilterInputStream(response.getBody()) {
+
+					@Override
+					public int read() throws IOException {
+						int b = in.read();
+						if (b >= 0) {
+							bytes++;
+						}
+						return b;
+					}
+
+					@Override
+					public int read(byte[] b, int off, int len) throws IOException {
+						int read = in.read(b, off, len);
+						if (read > 0) {
+							bytes += read;
+						}
+						return read;
+					}
+				};
+			}
+			return body;
+		}
+
+		@Override
+		public void close() {
+			response.close();
+			metrics.recordResponseBytes(bytes);
+		}
+	}
+}
@@ -0,0 +1,205 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.metrics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+import io.github.alexopa.reportportalclient.exception.CircuitBreakerOpenException;
+import io.github.alexopa.reportportalclient.exception.ReportPortalClientException;
+import io.github.alexopa.reportportalclient.model.ConnectionPoolStatistics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * An {@link RPClientMetrics} that records the metrics in a Micrometer
+ * {@link MeterRegistry}. The following meters are registered, all tagged with
+ * the <code>operation</code>:
+ * <ul>
+ * <li><code>rp.client.requests</code>: timer of the calls from end to end,
+ * including their retries, the backoff between them and the waits for the
+ * rate limiter, tagged with the <code>outcome</code></li>
+ * <li><code>rp.client.attempts</code>: timer of every single attempt of the
+ * calls, ie. of the HTTP requests, tagged with the <code>outcome</code></li>
+ * <li><code>rp.client.errors</code>: counter of the failed calls, tagged with
+ * the HTTP <code>status</code>, or <code>IO_ERROR</code> and
+ * <code>CIRCUIT_OPEN</code> for calls that were not answered</li>
+ * <li><code>rp.client.request.bytes</code> and
+ * <code>rp.client.response.bytes</code>: counters of the body bytes sent and
+ * received</li>
+ * </ul>
+ * and the gauges <code>rp.client.connections.leased</code>,
+ * <code>available</code>, <code>pending</code> and <code>max</code> for the
+ * connection pool, tagged with the name of the <code>client</code> and removed
+ * when the client is closed.
+ */
+public class MicrometerRPClientMetrics implements RPClientMetrics {
+
+	private static final String REQUESTS = "rp.client.requests";
+	private static final String ATTEMPTS = "rp.client.attempts";
+	private static final String ERRORS = "rp.client.errors";
+	private static final String REQUEST_BYTES = "rp.client.request.bytes";
+	private static final String RESPONSE_BYTES = "rp.client.response.bytes";
+	private static final String CONNECTIONS = "rp.client.connections.";
+
+	private static final String TAG_OPERATION = "operation";
+	private static final String TAG_OUTCOME = "outcome";
+	private static final String TAG_STATUS = "status";
+	private static final String TAG_CLIENT = "client";
+	private static final String OUTCOME_SUCCESS = "SUCCESS";
+	private static final String OUTCOME_ERROR = "ERROR";
+	private static final String STATUS_IO_ERROR = "IO_ERROR";
+	private static final String STATUS_CIRCUIT_OPEN = "CIRCUIT_OPEN";
+
+	private final MeterRegistry registry;
+	private final ThreadLocal<String> currentOperation = new ThreadLocal<>();
+	private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+	private final Map<String, Timer> attemptTimers = new ConcurrentHashMap<>();
+	private final Map<String, Counter> byteCounters = new ConcurrentHashMap<>();
+	private final Map<String, List<Meter>> connectionPoolGauges = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a new {@link MicrometerRPClientMetrics}
+	 *
+	 * @param registry The {@link MeterRegistry} to register the meters in
+	 */
+	public MicrometerRPClientMetrics(final MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	@Override
+	public <T> T record(String operation, Supplier<T> call) {
+		String previous = currentOperation.get();
+		currentOperation.set(operation);
+		long start = System.nanoTime();
+		String outcome = OUTCOME_ERROR;
+		try {
+			T result = call.get();
+			outcome = OUTCOME_SUCCESS;
+			return result;
+		} catch (CircuitBreakerOpenException e) {
+			countError(operation, STATUS_CIRCUIT_OPEN);
+			throw e;
+		} catch (ReportPortalClientException e) {
+			countError(operation, e.getHttpStatusCode() == null ? STATUS_IO_ERROR
+					: String.valueOf(e.getHttpStatusCode().value()));
+			throw e;
+		} catch (RuntimeException e) {
+			countError(operation, STATUS_IO_ERROR);
+			throw e;
+		} finally {
+			timer(operation, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			if (previous == null) {
+				currentOperation.remove();
+			} else {
+				currentOperation.set(previous);
+			}
+		}
+	}
+
+	@Override
+	public <T> T recordAttempt(String operation, Supplier<T> attempt) {
+		long start = System.nanoTime();
+		String outcome = OUTCOME_ERROR;
+		try {
+			T result = attempt.get();
+			outcome = OUTCOME_SUCCESS;
+			return result;
+		} finally {
+			attemptTimer(operation, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	private Timer timer(String operation, String outcome) {
+		return timers.computeIfAbsent(operation + ' ' + outcome, k -> Timer.builder(REQUESTS)
+				.tag(TAG_OPERATION, operation)
+				.tag(TAG_OUTCOME, outcome)
+				.register(registry));
+	}
+
+	private Timer attemptTimer(String operation, String outcome) {
+		return attemptTimers.computeIfAbsent(operation + ' ' + outcome, k -> Timer.builder(ATTEMPTS)
+				.tag(TAG_OPERATION, operation)
+				.tag(TAG_OUTCOME, outcome)
+				.register(registry));
+	}
+
+	private void countError(String operation, String status) {
+		Counter.builder(ERRORS).tag(TAG_OPERATION, operation).tag(TAG_STATUS, status).register(registry).increment();
+	}
+
+	@Override
+	public boolean isRecordingBytes() {
+		return true;
+	}
+
+	@Override
+	public void recordRequestBytes(long bytes) {
+		countBytes(REQUEST_BYTES, bytes);
+	}
+
+	@Override
+	public void recordResponseBytes(long bytes) {
+		countBytes(RESPONSE_BYTES, bytes);
+	}
+
+	private void countBytes(String name, long bytes) {
+		String operation = currentOperation.get();
+		if (operation != null && bytes > 0) {
+			byteCounters.computeIfAbsent(name + ' ' + operation,
+					k -> Counter.builder(name).baseUnit("bytes").tag(TAG_OPERATION, operation).register(registry))
+					.increment(bytes);
+		}
+	}
+
+	@Override
+	public void bindConnectionPool(String client, Supplier<ConnectionPoolStatistics> statistics) {
+		connectionPoolGauges.put(client, List.of(
+				gauge(client, "leased", statistics, s -> s.get().getLeased()),
+				gauge(client, "available", statistics, s -> s.get().getAvailable()),
+				gauge(client, "pending", statistics, s -> s.get().getPending()),
+				gauge(client, "max", statistics, s -> s.get().getMax())));
+	}
+
+	/**
+	 * Registers a gauge of the pool. The gauge holds a strong reference to the
+	 * statistics, which are a method reference to the client that nothing else
+	 * holds on to, and is removed in {@link #unbindConnectionPool(String)}
+	 */
+	private Gauge gauge(String client, String name, Supplier<ConnectionPoolStatistics> statistics,
+			ToDoubleFunction<Supplier<ConnectionPoolStatistics>> value) {
+		return Gauge.builder(CONNECTIONS + name, statistics, value)
+				.tag(TAG_CLIENT, client)
+				.strongReference(true)
+				.register(registry);
+	}
+
+	@Override
+	public void unbindConnectionPool(String client) {
+		List<Meter> gauges = connectionPoolGauges.remove(client);
+		if (gauges != null) {
+			gauges.forEach(registry::remove);
+		}
+	}
+}
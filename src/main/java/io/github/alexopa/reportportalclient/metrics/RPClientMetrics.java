@@ -0,0 +1,125 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.metrics;
+
+import java.util.function.Supplier;
+
+import io.github.alexopa.reportportalclient.RPClient;
+import io.github.alexopa.reportportalclient.model.ConnectionPoolStatistics;
+
+/**
+ * Records metrics for the operations of an {@link RPClient}
+ */
+public interface RPClientMetrics {
+
+	/**
+	 * An {@link RPClientMetrics} that records nothing
+	 */
+	RPClientMetrics NOOP = new RPClientMetrics() {
+
+		@Override
+		public <T> T record(String operation, Supplier<T> call) {
+			return call.get();
+		}
+
+		@Override
+		public boolean isRecordingBytes() {
+			return false;
+		}
+
+		@Override
+		public void recordRequestBytes(long bytes) {
+			// nothing to record
+		}
+
+		@Override
+		public void recordResponseBytes(long bytes) {
+			// nothing to record
+		}
+
+		@Override
+		public void bindConnectionPool(String client, Supplier<ConnectionPoolStatistics> statistics) {
+			// nothing to record
+		}
+	};
+
+	/**
+	 * Executes a call of an operation and records its latency and outcome. The
+	 * latency is the end to end time of the call, including its retries, the
+	 * backoff between them and the waits for the rate limiter
+	 *
+	 * @param <T>       The type of the result of the call
+	 * @param operation The name of the operation, ie. <code>startItem</code>
+	 * @param call      The call to execute
+	 * @return The result of the call
+	 */
+	<T> T record(String operation, Supplier<T> call);
+
+	/**
+	 * Executes a single attempt of a call of an operation, ie. one HTTP request,
+	 * and records its latency and outcome
+	 *
+	 * @param <T>       The type of the result of the attempt
+	 * @param operation The name of the operation, ie. <code>startItem</code>
+	 * @param attempt   The attempt to execute
+	 * @return The result of the attempt
+	 */
+	default <T> T recordAttempt(String operation, Supplier<T> attempt) {
+		return attempt.get();
+	}
+
+	/**
+	 * @return <code>true</code> if the request and response bytes should be
+	 *         counted
+	 */
+	boolean isRecordingBytes();
+
+	/**
+	 * Records the bytes of a request body of the operation that is currently
+	 * executed in {@link #record(String, Supplier)} by this thread
+	 *
+	 * @param bytes The number of bytes sent
+	 */
+	void recordRequestBytes(long bytes);
+
+	/**
+	 * Records the bytes of a response body of the operation that is currently
+	 * executed in {@link #record(String, Supplier)} by this thread
+	 *
+	 * @param bytes The number of bytes received
+	 */
+	void recordResponseBytes(long bytes);
+
+	/**
+	 * Registers gauges for the HTTP connection pool of a client
+	 *
+	 * @param client     The name of the client, to tell the pools of several
+	 *                   clients apart
+	 * @param statistics A {@link Supplier} of the current state of the pool
+	 */
+	void bindConnectionPool(String client, Supplier<ConnectionPoolStatistics> statistics);
+
+	/**
+	 * Removes the gauges registered for the HTTP connection pool of a client,
+	 * when the client is closed
+	 *
+	 * @param client The name of the client
+	 */
+	default void unbindConnectionPool(String client) {
+		// nothing registered
+	}
+}
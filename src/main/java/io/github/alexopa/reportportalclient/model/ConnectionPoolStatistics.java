@@ -0,0 +1,52 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.model;
+
+import io.github.alexopa.reportportalclient.RPClient;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Class that models a snapshot of the HTTP connection pool of the
+ * {@link RPClient}
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ConnectionPoolStatistics {
+
+	/**
+	 * The number of connections that are currently in use
+	 */
+	private final int leased;
+
+	/**
+	 * The number of idle connections that are kept alive in the pool
+	 */
+	private final int available;
+
+	/**
+	 * The number of requests that are waiting for a connection
+	 */
+	private final int pending;
+
+	/**
+	 * The maximum number of connections in the pool
+	 */
+	private final int max;
+}
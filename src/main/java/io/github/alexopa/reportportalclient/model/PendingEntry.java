@@ -0,0 +1,47 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.model;
+
+import java.util.concurrent.CompletableFuture;
+
+import io.github.alexopa.reportportalclient.RPAsyncClient;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Class that models a launch or item started by the {@link RPAsyncClient} with
+ * a uuid generated on the client side. The uuid is available immediately and
+ * can be used for children, logs and finish requests, while the request to
+ * ReportPortal is still in progress
+ *
+ * @param <T> The type of the response returned from ReportPortal
+ */
+@Getter
+@AllArgsConstructor
+public class PendingEntry<T> {
+
+	/**
+	 * The uuid of the launch or item, as generated by the client
+	 */
+	private final String uuid;
+
+	/**
+	 * A {@link CompletableFuture} that completes with the response from
+	 * ReportPortal
+	 */
+	private final CompletableFuture<T> response;
+}
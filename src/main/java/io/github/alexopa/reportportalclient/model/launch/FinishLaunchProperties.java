@@ -23,6 +23,7 @@ import io.github.alexopa.reportportalclient.RPClient;
 import io.github.alexopa.reportportalclient.rpmodel.LaunchStatus;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.extern.jackson.Jacksonized;
 
 /**
  * Class that models the properties sent to {@link RPClient} to finish
@@ -30,6 +31,7 @@ import lombok.Getter;
  */
 @Builder
 @Getter
+@Jacksonized
 public class FinishLaunchProperties {
 
 	private String launchUuid;
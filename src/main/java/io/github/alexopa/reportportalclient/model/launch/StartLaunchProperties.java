@@ -22,15 +22,18 @@ import io.github.alexopa.reportportalclient.RPClient;
 import io.github.alexopa.reportportalclient.rpmodel.Mode;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.extern.jackson.Jacksonized;
 
 /**
  * Class that models the properties sent to {@link RPClient} to start
  * a launch
  */
-@Builder
+@Builder(toBuilder = true)
 @Getter
+@Jacksonized
 public class StartLaunchProperties {
 
+	private String uuid;
 	private String name;
 	private String description;
 	private Date startTime;
@@ -20,12 +20,14 @@ import io.github.alexopa.reportportalclient.RPClient;
 import io.github.alexopa.reportportalclient.rpmodel.Mode;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.extern.jackson.Jacksonized;
 
 /**
  * Class that models the properties sent to {@link RPClient} to update a launch
  */
 @Builder
 @Getter
+@Jacksonized
 public class UpdateLaunchProperties {
 
 	private int launchId;
@@ -21,6 +21,7 @@ import java.util.Date;
 import io.github.alexopa.reportportalclient.RPClient;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.extern.jackson.Jacksonized;
 
 /**
  * Class that models the properties sent to {@link RPClient} to add
@@ -28,6 +29,7 @@ import lombok.Getter;
  */
 @Builder
 @Getter
+@Jacksonized
 public class AddLogProperties {
 	
 	private String launchId;
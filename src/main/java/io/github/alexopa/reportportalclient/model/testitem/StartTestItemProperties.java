@@ -21,15 +21,18 @@ import java.util.Date;
 import io.github.alexopa.reportportalclient.RPClient;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.extern.jackson.Jacksonized;
 
 /**
  * Class that models the properties sent to {@link RPClient} to start
  * an item
  */
-@Builder
+@Builder(toBuilder = true)
 @Getter
+@Jacksonized
 public class StartTestItemProperties {
 
+	private String uuid;
 	private String launchUuid;
 	private String parentUuid;
 	private String name;
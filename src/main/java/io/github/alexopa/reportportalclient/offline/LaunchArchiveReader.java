@@ -0,0 +1,219 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.offline;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.alexopa.reportportalclient.attachment.AttachmentSource;
+import io.github.alexopa.reportportalclient.journal.JournalOperation;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reads the records of a launch archive written by a
+ * {@link LaunchArchiveWriter}, in the order they were written. The content of
+ * file attachments is not read with the records, but from the archive file
+ * when the attachment is uploaded.
+ */
+@Slf4j
+public class LaunchArchiveReader implements AutoCloseable {
+
+	private static final int INPUT_BUFFER_BYTES = 65536;
+
+	private final Path path;
+	private final ObjectMapper objectMapper;
+	private final FileChannel channel;
+	private final DataInputStream in;
+	private long position;
+
+	/**
+	 * Opens an archive for reading
+	 *
+	 * @param path         The {@link Path} of the archive file
+	 * @param objectMapper The {@link ObjectMapper} the properties of the calls
+	 *                     were encoded with
+	 * @throws IOException If the archive cannot be opened or is not a launch
+	 *                     archive
+	 */
+	public LaunchArchiveReader(final Path path, final ObjectMapper objectMapper) throws IOException {
+		this.path = path;
+		this.objectMapper = objectMapper;
+		this.channel = FileChannel.open(path, StandardOpenOption.READ);
+		try {
+			checkHeader(channel, path);
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+		this.position = channel.position();
+		this.in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), INPUT_BUFFER_BYTES));
+	}
+
+	static void checkHeader(FileChannel channel, Path path) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(8);
+		while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+			// read until the header is complete or the end of the file
+		}
+		header.flip();
+		if (header.remaining() < 8 || header.getInt() != LaunchArchiveWriter.MAGIC) {
+			throw new IOException(path + " is not a launch archive");
+		}
+		int version = header.getInt();
+		if (version != LaunchArchiveWriter.VERSION) {
+			throw new IOException("Unsupported version " + version + " of launch archive " + path);
+		}
+		channel.position(8);
+	}
+
+	/**
+	 * Reads an archive up to its last complete record
+	 *
+	 * @return The length of the archive up to the end of its last complete
+	 *         record. Anything after it was partially written or cannot be read
+	 */
+	static long completeLength(Path path, ObjectMapper objectMapper) throws IOException {
+		try (LaunchArchiveReader reader = new LaunchArchiveReader(path, objectMapper)) {
+			try {
+				while (reader.next() != null) {
+					// read until the end of the complete records
+				}
+			} catch (IOException e) {
+				log.warn("Launch archive {} has an unreadable record at byte {}: {}", path, reader.position,
+						e.getMessage());
+			}
+			return reader.position;
+		}
+	}
+
+	/**
+	 * Reads the next record of the archive. A record that was only partially
+	 * written, ie. because the process that wrote the archive crashed, ends the
+	 * archive
+	 *
+	 * @return The next {@link LaunchArchiveRecord}, or <code>null</code> at the
+	 *         end of the archive
+	 * @throws IOException If the archive cannot be read
+	 */
+	public LaunchArchiveRecord next() throws IOException {
+		int ordinal = in.read();
+		if (ordinal < 0) {
+			return null;
+		}
+		if (ordinal >= JournalOperation.values().length) {
+			throw new IOException("Unknown operation " + ordinal + " at byte " + position + " of launch archive " + path);
+		}
+		try {
+			JournalOperation operation = JournalOperation.values()[ordinal];
+			byte[] payload = new byte[readLength()];
+			in.readFully(payload);
+			Object props = objectMapper.readValue(payload, operation.getPropertiesType());
+			long end = position + 1 + Integer.BYTES + payload.length;
+			if (operation != JournalOperation.ADD_FILE_ATTACHMENT) {
+				position = end;
+				return new LaunchArchiveRecord(operation, props, null, -1L, 0L);
+			}
+
+			byte[] fileName = new byte[readLength()];
+			in.readFully(fileName);
+			long length = in.readLong();
+			if (length < 0) {
+				// the writer crashed while copying the content
+				throw new EOFException();
+			}
+			long offset = end + Integer.BYTES + fileName.length + Long.BYTES;
+			in.skipNBytes(length);
+			position = offset + length;
+			return new LaunchArchiveRecord(operation, props, new String(fileName, StandardCharsets.UTF_8), offset,
+					length);
+		} catch (EOFException e) {
+			log.warn("Launch archive {} ends with a partially written record at byte {}", path, position);
+			return null;
+		}
+	}
+
+	/**
+	 * Reads the length of a part of a record. A length that does not fit in the
+	 * rest of the archive is one that was not completely written
+	 */
+	private int readLength() throws IOException {
+		int length = in.readInt();
+		if (length < 0 || length > channel.size() - position) {
+			throw new EOFException();
+		}
+		return length;
+	}
+
+	/**
+	 * Creates an {@link AttachmentSource} that reads the content of a file
+	 * attachment from the archive. The source can be read any number of times,
+	 * also after the reader has been closed
+	 *
+	 * @param record A {@link LaunchArchiveRecord} of a file attachment
+	 * @return The {@link AttachmentSource}
+	 */
+	public AttachmentSource attachment(LaunchArchiveRecord record) {
+		if (record.getOperation() != JournalOperation.ADD_FILE_ATTACHMENT) {
+			throw new IllegalArgumentException(record.getOperation() + " record has no attachment");
+		}
+		return new AttachmentSource() {
+
+			@Override
+			public String getFileName() {
+				return record.getFileName();
+			}
+
+			@Override
+			public boolean isRepeatable() {
+				return true;
+			}
+
+			@Override
+			public void writeTo(OutputStream out, byte[] buffer) throws IOException {
+				ByteBuffer bb = ByteBuffer.wrap(buffer);
+				long offset = record.getContentOffset();
+				long end = offset + record.getContentLength();
+				try (FileChannel content = FileChannel.open(path, StandardOpenOption.READ)) {
+					while (offset < end) {
+						bb.clear().limit((int) Math.min(buffer.length, end - offset));
+						int read = content.read(bb, offset);
+						if (read < 0) {
+							throw new EOFException("Attachment " + record.getFileName() + " is truncated in " + path);
+						}
+						out.write(buffer, 0, read);
+						offset += read;
+					}
+				}
+			}
+		};
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+}
@@ -0,0 +1,51 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.offline;
+
+import io.github.alexopa.reportportalclient.journal.JournalOperation;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Class that models a single call read from a launch archive
+ */
+@Getter
+@AllArgsConstructor
+public class LaunchArchiveRecord {
+
+	private final JournalOperation operation;
+
+	/**
+	 * The properties object of the call, of the type of the operation
+	 */
+	private final Object properties;
+
+	/**
+	 * The name of the file of an attachment, <code>null</code> for other calls
+	 */
+	private final String fileName;
+
+	/**
+	 * The position of the content of an attachment in the archive file
+	 */
+	private final long contentOffset;
+
+	/**
+	 * The length of the content of an attachment
+	 */
+	private final long contentLength;
+}
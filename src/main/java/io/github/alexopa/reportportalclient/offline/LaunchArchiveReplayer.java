@@ -0,0 +1,128 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.offline;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.alexopa.reportportalclient.RPAsyncClient;
+import io.github.alexopa.reportportalclient.config.RPClientConfig;
+import io.github.alexopa.reportportalclient.model.launch.FinishLaunchProperties;
+import io.github.alexopa.reportportalclient.model.launch.StartLaunchProperties;
+import io.github.alexopa.reportportalclient.model.launch.UpdateLaunchProperties;
+import io.github.alexopa.reportportalclient.model.log.AddFileAttachmentProperties;
+import io.github.alexopa.reportportalclient.model.log.AddLogProperties;
+import io.github.alexopa.reportportalclient.model.testitem.FinishTestItemProperties;
+import io.github.alexopa.reportportalclient.model.testitem.StartTestItemProperties;
+import io.github.alexopa.reportportalclient.util.ObjectMappers;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Replays a launch archive recorded by an {@link OfflineRecorder} to
+ * ReportPortal through an {@link RPAsyncClient}. The archive is streamed, so
+ * the calls are sent while the archive is still being read, in parallel as far
+ * as the client allows: items of the launch are started and finished
+ * concurrently, in the order that {@link RPAsyncClient} guarantees, and log
+ * messages are batched when log batching is enabled. The number of calls
+ * read but not yet completed is bounded, so that the memory used does not
+ * depend on the size of the archive.
+ */
+@Slf4j
+public class LaunchArchiveReplayer {
+
+	private final RPAsyncClient client;
+	private final ObjectMapper objectMapper;
+	private final int maxInFlight;
+
+	/**
+	 * Creates a new {@link LaunchArchiveReplayer}
+	 *
+	 * @param client The {@link RPAsyncClient} that sends the calls to
+	 *               ReportPortal
+	 * @param config A {@link RPClientConfig} with the configuration of the
+	 *               replay and the encoding of the archive
+	 */
+	public LaunchArchiveReplayer(final RPAsyncClient client, final RPClientConfig config) {
+		this.client = client;
+		this.objectMapper = ObjectMappers.createSmile(config.getJsonConfig());
+		this.maxInFlight = Math.max(1, config.getOfflineConfig().getReplayMaxInFlight());
+	}
+
+	/**
+	 * Sends all the calls of an archive to ReportPortal and waits for them to
+	 * complete. A call that fails is logged and counted, and does not stop the
+	 * replay, although the calls that depend on it, ie. the children of an item
+	 * that could not be started, fail too
+	 *
+	 * @param archive The {@link Path} of the archive file
+	 * @return The {@link ReplayStatistics} of the replay
+	 * @throws IOException          If the archive cannot be read
+	 * @throws InterruptedException If the thread is interrupted while waiting
+	 *                              for the calls to complete
+	 */
+	public ReplayStatistics replay(Path archive) throws IOException, InterruptedException {
+		long start = System.currentTimeMillis();
+		Semaphore permits = new Semaphore(maxInFlight);
+		LongAdder failed = new LongAdder();
+		long records = 0;
+		long attachmentBytes = 0;
+		try (LaunchArchiveReader reader = new LaunchArchiveReader(archive, objectMapper)) {
+			LaunchArchiveRecord record;
+			while ((record = reader.next()) != null) {
+				permits.acquire();
+				CompletableFuture<?> rs;
+				try {
+					rs = send(reader, record);
+				} catch (RuntimeException e) {
+					rs = CompletableFuture.failedFuture(e);
+				}
+				LaunchArchiveRecord sent = record;
+				rs.whenComplete((r, e) -> {
+					if (e != null) {
+						failed.increment();
+						log.warn("Failed to replay {} call: {}", sent.getOperation(), e.getMessage());
+					}
+					permits.release();
+				});
+				records++;
+				attachmentBytes += record.getContentLength();
+			}
+			// the calls still in flight hold the permits that are missing
+			permits.acquire(maxInFlight);
+		}
+		return new ReplayStatistics(records, failed.sum(), attachmentBytes, System.currentTimeMillis() - start);
+	}
+
+	private CompletableFuture<?> send(LaunchArchiveReader reader, LaunchArchiveRecord record) {
+		Object props = record.getProperties();
+		return switch (record.getOperation()) {
+			case START_LAUNCH -> client.startLaunch((StartLaunchProperties) props);
+			case UPDATE_LAUNCH -> client.updateLaunch((UpdateLaunchProperties) props);
+			case FINISH_LAUNCH -> client.finishLaunch((FinishLaunchProperties) props);
+			case START_ITEM -> client.startItem((StartTestItemProperties) props);
+			case FINISH_ITEM -> client.finishItem((FinishTestItemProperties) props);
+			case ADD_LOG -> client.addLog((AddLogProperties) props);
+			case ADD_FILE_ATTACHMENT ->
+				client.addFileAttachment((AddFileAttachmentProperties) props, reader.attachment(record));
+		};
+	}
+}
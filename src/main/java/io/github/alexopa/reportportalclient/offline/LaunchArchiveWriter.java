@@ -0,0 +1,260 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.offline;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.alexopa.reportportalclient.attachment.AttachmentSource;
+import io.github.alexopa.reportportalclient.journal.JournalOperation;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Appends the calls of a client to a launch archive file. The file starts with
+ * a magic number and a version, followed by one record per call:
+ * <ul>
+ * <li>the ordinal of the {@link JournalOperation}, as a byte</li>
+ * <li>the length of the properties, as an int, followed by the properties
+ * encoded with the given {@link ObjectMapper}</li>
+ * <li>for file attachments only, the length of the file name, as an int, the
+ * name in UTF-8, the length of the content, as a long, and the content. The
+ * length is -1 until the whole content has been written</li>
+ * </ul>
+ * An existing archive is appended to, so that several runs can be recorded in
+ * the same file. A record that was only partially written when the previous
+ * writer crashed is cut off first, so that the new records can be read after
+ * the complete ones.
+ * <p>
+ * An archive is written by one writer at a time, which holds an exclusive lock
+ * on a <code>.lock</code> file next to it. When the configured archive is
+ * locked by another writer, ie. of a parallel test fork in the same working
+ * directory, the first unlocked archive with a <code>-N</code> suffix, ie.
+ * <code>launch-1.rpla</code>, is written instead.
+ */
+@Slf4j
+public class LaunchArchiveWriter implements AutoCloseable {
+
+	static final int MAGIC = 0x52504c41;
+	static final int VERSION = 1;
+
+	private static final int OUTPUT_BUFFER_BYTES = 65536;
+	private static final String LOCK_SUFFIX = ".lock";
+
+	private final Path path;
+	private final ObjectMapper objectMapper;
+	private final FileChannel channel;
+	private final FileLock lock;
+	private final DataOutputStream out;
+	private final byte[] buffer;
+	private long records;
+
+	/**
+	 * Opens an archive for writing, creating it if it does not exist. When the
+	 * archive is locked by another writer, the first unlocked archive with a
+	 * <code>-N</code> suffix is opened instead
+	 *
+	 * @param path            The {@link Path} of the archive file
+	 * @param objectMapper    The {@link ObjectMapper} to encode the properties
+	 *                        of the calls with
+	 * @param bufferSizeBytes The size of the buffer that attachments are copied
+	 *                        through
+	 */
+	public LaunchArchiveWriter(final Path path, final ObjectMapper objectMapper, final int bufferSizeBytes) {
+		this.objectMapper = objectMapper;
+		this.buffer = new byte[bufferSizeBytes];
+		try {
+			Path candidate = path;
+			FileLock candidateLock;
+			int instance = 0;
+			while ((candidateLock = tryLock(candidate)) == null) {
+				candidate = instancePath(path, ++instance);
+			}
+			if (instance > 0) {
+				log.info("Launch archive {} is used by another process, using {}", path, candidate);
+			}
+			this.path = candidate;
+			this.lock = candidateLock;
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to lock launch archive " + path, e);
+		}
+		try {
+			this.channel = FileChannel.open(this.path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+					StandardOpenOption.WRITE);
+			if (channel.size() == 0) {
+				channel.write(ByteBuffer.allocate(8).putInt(MAGIC).putInt(VERSION).flip());
+			} else {
+				LaunchArchiveReader.checkHeader(channel, this.path);
+				long end = LaunchArchiveReader.completeLength(this.path, objectMapper);
+				if (end < channel.size()) {
+					log.warn("Cutting off {} bytes of a partially written record at the end of launch archive {}",
+							channel.size() - end, this.path);
+					channel.truncate(end);
+				}
+				channel.position(end);
+			}
+		} catch (IOException e) {
+			releaseLock();
+			throw new UncheckedIOException("Failed to open launch archive " + this.path, e);
+		}
+		this.out = new DataOutputStream(
+				new BufferedOutputStream(Channels.newOutputStream(channel), OUTPUT_BUFFER_BYTES));
+	}
+
+	/**
+	 * Takes the exclusive lock of an archive
+	 *
+	 * @return The {@link FileLock}, or <code>null</code> if another writer holds
+	 *         it
+	 */
+	private static FileLock tryLock(Path archive) throws IOException {
+		FileChannel lockChannel = FileChannel.open(archive.resolveSibling(archive.getFileName() + LOCK_SUFFIX),
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+		try {
+			FileLock fileLock = lockChannel.tryLock();
+			if (fileLock != null) {
+				return fileLock;
+			}
+		} catch (OverlappingFileLockException e) {
+			// held by another writer in this JVM
+		} catch (IOException e) {
+			lockChannel.close();
+			throw e;
+		}
+		lockChannel.close();
+		return null;
+	}
+
+	private static Path instancePath(Path archive, int instance) {
+		String fileName = archive.getFileName().toString();
+		String name = fileName.indexOf('.') > 0
+				? StringUtils.substringBeforeLast(fileName, ".") + "-" + instance + "."
+						+ StringUtils.substringAfterLast(fileName, ".")
+				: fileName + "-" + instance;
+		return archive.resolveSibling(name);
+	}
+
+	/**
+	 * Appends a call to the archive
+	 *
+	 * @param operation The {@link JournalOperation} of the call
+	 * @param props     The properties object of the call
+	 */
+	public synchronized void append(JournalOperation operation, Object props) {
+		try {
+			writeProperties(operation, props);
+			records++;
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to write to launch archive " + path, e);
+		}
+	}
+
+	/**
+	 * Appends a file attachment to the archive, together with its content. The
+	 * content is copied through a buffer of fixed size, and its length is
+	 * written when the whole content has been copied, so that a stream of
+	 * unknown length can be archived too
+	 *
+	 * @param props  The properties object of the attachment
+	 * @param source The {@link AttachmentSource} with the content
+	 * @throws IOException If the content cannot be read. Nothing is written to
+	 *                     the archive in this case
+	 */
+	public synchronized void appendAttachment(Object props, AttachmentSource source) throws IOException {
+		out.flush();
+		long start = channel.position();
+		try {
+			writeProperties(JournalOperation.ADD_FILE_ATTACHMENT, props);
+			byte[] fileName = source.getFileName().getBytes(StandardCharsets.UTF_8);
+			out.writeInt(fileName.length);
+			out.write(fileName);
+			out.flush();
+			long lengthPosition = channel.position();
+			out.writeLong(-1L);
+			source.writeTo(out, buffer);
+			out.flush();
+			long length = channel.position() - lengthPosition - Long.BYTES;
+			channel.write(ByteBuffer.allocate(Long.BYTES).putLong(length).flip(), lengthPosition);
+			records++;
+		} catch (IOException | RuntimeException e) {
+			// drop the partial record, so that the archive stays readable
+			out.flush();
+			channel.truncate(start);
+			channel.position(start);
+			throw e;
+		}
+	}
+
+	private void writeProperties(JournalOperation operation, Object props) throws IOException {
+		byte[] payload = objectMapper.writeValueAsBytes(props);
+		out.writeByte(operation.ordinal());
+		out.writeInt(payload.length);
+		out.write(payload);
+	}
+
+	/**
+	 * @return The {@link Path} of the archive file that is written, which has a
+	 *         <code>-N</code> suffix when the configured one was locked
+	 */
+	public Path getPath() {
+		return path;
+	}
+
+	/**
+	 * @return The number of calls appended to the archive since it was opened
+	 */
+	public synchronized long getRecords() {
+		return records;
+	}
+
+	/**
+	 * Writes the buffered records to the archive file and closes it
+	 */
+	@Override
+	public synchronized void close() {
+		try {
+			out.flush();
+			channel.force(true);
+			channel.close();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to close launch archive " + path, e);
+		} finally {
+			releaseLock();
+		}
+	}
+
+	private void releaseLock() {
+		try {
+			lock.channel().close();
+		} catch (IOException e) {
+			log.warn("Failed to release the lock of launch archive {}", path, e);
+		}
+	}
+}
@@ -0,0 +1,220 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.offline;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.web.client.ResourceAccessException;
+
+import io.github.alexopa.reportportalclient.RPClient;
+import io.github.alexopa.reportportalclient.attachment.AttachmentSource;
+import io.github.alexopa.reportportalclient.config.RPClientConfig;
+import io.github.alexopa.reportportalclient.journal.JournalOperation;
+import io.github.alexopa.reportportalclient.model.launch.FinishLaunchProperties;
+import io.github.alexopa.reportportalclient.model.launch.StartLaunchProperties;
+import io.github.alexopa.reportportalclient.model.launch.UpdateLaunchProperties;
+import io.github.alexopa.reportportalclient.model.log.AddFileAttachmentProperties;
+import io.github.alexopa.reportportalclient.model.log.AddLogProperties;
+import io.github.alexopa.reportportalclient.model.testitem.FinishTestItemProperties;
+import io.github.alexopa.reportportalclient.model.testitem.StartTestItemProperties;
+import io.github.alexopa.reportportalclient.rpmodel.EntryCreatedResponse;
+import io.github.alexopa.reportportalclient.rpmodel.FinishLaunchResponse;
+import io.github.alexopa.reportportalclient.rpmodel.StartLaunchResponse;
+import io.github.alexopa.reportportalclient.rpmodel.UpdateLaunchResponse;
+import io.github.alexopa.reportportalclient.rpmodel.log.BatchSaveOperatingResponse;
+import io.github.alexopa.reportportalclient.rpmodel.log.BatchSaveOperatingResponse.BatchElementCreatedResponse;
+import io.github.alexopa.reportportalclient.util.ObjectMappers;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Records the calls of an {@link RPClient} that runs offline in a launch
+ * archive, instead of sending them to ReportPortal. The responses are made up
+ * on the client side: launches and items that are started without a uuid get
+ * one generated, which is also written to the archive, so that the replayed
+ * launch has the same uuids. Log messages and attachments get their ids from
+ * ReportPortal only when they are replayed, so their responses have a made up
+ * id, which is not the id of the replayed log message.
+ */
+@Slf4j
+public class OfflineRecorder implements AutoCloseable {
+
+	private final LaunchArchiveWriter writer;
+	private final String archive;
+
+	/**
+	 * Creates a new {@link OfflineRecorder} that appends to the configured
+	 * archive file
+	 *
+	 * @param config A {@link RPClientConfig} with the configuration of the
+	 *               offline mode, the attachments and the encoding
+	 */
+	public OfflineRecorder(final RPClientConfig config) {
+		this.writer = new LaunchArchiveWriter(Path.of(config.getOfflineConfig().getArchive()),
+				ObjectMappers.createSmile(config.getJsonConfig()), config.getAttachmentConfig().getBufferSizeBytes());
+		this.archive = writer.getPath().toString();
+		log.info("ReportPortal client runs offline, calls are recorded in {}", archive);
+	}
+
+	/**
+	 * Records the start of a launch
+	 *
+	 * @param props A {@link StartLaunchProperties} object with the properties of
+	 *              the launch to start
+	 * @return A {@link StartLaunchResponse} with the uuid of the launch
+	 */
+	public StartLaunchResponse startLaunch(StartLaunchProperties props) {
+		StartLaunchProperties rq = StringUtils.isBlank(props.getUuid())
+				? props.toBuilder().uuid(UUID.randomUUID().toString()).build()
+				: props;
+		writer.append(JournalOperation.START_LAUNCH, rq);
+		StartLaunchResponse rs = new StartLaunchResponse();
+		rs.setId(rq.getUuid());
+		return rs;
+	}
+
+	/**
+	 * Records the update of a launch
+	 *
+	 * @param props An {@link UpdateLaunchProperties} object with the properties of
+	 *              the launch to update
+	 * @return An empty {@link UpdateLaunchResponse}
+	 */
+	public UpdateLaunchResponse updateLaunch(UpdateLaunchProperties props) {
+		writer.append(JournalOperation.UPDATE_LAUNCH, props);
+		return new UpdateLaunchResponse();
+	}
+
+	/**
+	 * Records the finish of a launch
+	 *
+	 * @param props A {@link FinishLaunchProperties} object with the properties of
+	 *              the launch to finish
+	 * @return A {@link FinishLaunchResponse} with the uuid of the launch
+	 */
+	public FinishLaunchResponse finishLaunch(FinishLaunchProperties props) {
+		writer.append(JournalOperation.FINISH_LAUNCH, props);
+		FinishLaunchResponse rs = new FinishLaunchResponse();
+		rs.setId(props.getLaunchUuid());
+		return rs;
+	}
+
+	/**
+	 * Records the start of an item
+	 *
+	 * @param props A {@link StartTestItemProperties} object with the properties of
+	 *              the item to start
+	 * @return An {@link EntryCreatedResponse} with the uuid of the item
+	 */
+	public EntryCreatedResponse startItem(StartTestItemProperties props) {
+		StartTestItemProperties rq = StringUtils.isBlank(props.getUuid())
+				? props.toBuilder().uuid(UUID.randomUUID().toString()).build()
+				: props;
+		writer.append(JournalOperation.START_ITEM, rq);
+		EntryCreatedResponse rs = new EntryCreatedResponse();
+		rs.setId(rq.getUuid());
+		return rs;
+	}
+
+	/**
+	 * Records the finish of an item
+	 *
+	 * @param props A {@link FinishTestItemProperties} object with the properties of
+	 *              the item to finish
+	 * @return An empty {@link EntryCreatedResponse}
+	 */
+	public EntryCreatedResponse finishItem(FinishTestItemProperties props) {
+		writer.append(JournalOperation.FINISH_ITEM, props);
+		return new EntryCreatedResponse();
+	}
+
+	/**
+	 * Records a log message
+	 *
+	 * @param props An {@link AddLogProperties} object with the properties of the
+	 *              log message to add
+	 * @return An {@link EntryCreatedResponse} with a made up id
+	 */
+	public EntryCreatedResponse addLog(AddLogProperties props) {
+		writer.append(JournalOperation.ADD_LOG, props);
+		return recordedEntry();
+	}
+
+	/**
+	 * Records multiple log messages
+	 *
+	 * @param props A {@link List} of {@link AddLogProperties} objects with the
+	 *              properties of the log messages to add
+	 * @return A {@link BatchSaveOperatingResponse} with a response with a made
+	 *         up id for each log message
+	 */
+	public BatchSaveOperatingResponse addLogs(List<AddLogProperties> props) {
+		List<BatchElementCreatedResponse> responses = new ArrayList<>(props.size());
+		for (AddLogProperties p : props) {
+			writer.append(JournalOperation.ADD_LOG, p);
+			BatchElementCreatedResponse element = new BatchElementCreatedResponse();
+			element.setId(recordedEntry().getId());
+			responses.add(element);
+		}
+		BatchSaveOperatingResponse rs = new BatchSaveOperatingResponse();
+		rs.setResponses(responses);
+		return rs;
+	}
+
+	/**
+	 * Records a file attachment, copying its content in the archive, so that
+	 * the file does not need to be kept until the archive is replayed
+	 *
+	 * @param props  An {@link AddFileAttachmentProperties} object with the
+	 *               properties of the attachment to add
+	 * @param source The {@link AttachmentSource} with the content of the
+	 *               attachment
+	 * @return An {@link EntryCreatedResponse} with a made up id
+	 */
+	public EntryCreatedResponse addFileAttachment(AddFileAttachmentProperties props, AttachmentSource source) {
+		try {
+			writer.appendAttachment(props, source);
+		} catch (IOException e) {
+			throw new ResourceAccessException("Failed to read attachment " + source.getFileName(), e);
+		}
+		return recordedEntry();
+	}
+
+	/**
+	 * Makes up the response of a recorded log message. It has an id, like the
+	 * response of ReportPortal, so that the callers that expect one, ie. the
+	 * log batcher, take the message as sent
+	 */
+	private static EntryCreatedResponse recordedEntry() {
+		EntryCreatedResponse rs = new EntryCreatedResponse();
+		rs.setId(UUID.randomUUID().toString());
+		return rs;
+	}
+
+	/**
+	 * Closes the archive file
+	 */
+	@Override
+	public void close() {
+		writer.close();
+		log.info("Recorded {} calls to ReportPortal in {}", writer.getRecords(), archive);
+	}
+}
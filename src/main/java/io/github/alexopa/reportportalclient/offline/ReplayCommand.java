@@ -0,0 +1,109 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.offline;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.apache.commons.lang3.StringUtils;
+
+import io.github.alexopa.reportportalclient.RPAsyncClient;
+import io.github.alexopa.reportportalclient.config.RPClientConfig;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Command line entry point that replays a launch archive to ReportPortal:
+ *
+ * <pre>
+ * java io.github.alexopa.reportportalclient.offline.ReplayCommand &lt;archive&gt;
+ *     --endpoint=&lt;url&gt; --project=&lt;project&gt; [--api-key=&lt;key&gt;]
+ *     [--concurrency=&lt;threads&gt;] [--batch-size=&lt;logs&gt;] [--max-in-flight=&lt;calls&gt;]
+ * </pre>
+ *
+ * The api key can also be passed in the <code>RP_API_KEY</code> environment
+ * variable, so that it does not show up in the process list. Log messages are
+ * always sent in batches. The command exits with status 1 if any call failed.
+ */
+@Slf4j
+public class ReplayCommand {
+
+	private static final String API_KEY_VARIABLE = "RP_API_KEY";
+
+	private ReplayCommand() {
+		throw new IllegalStateException("Static only class");
+	}
+
+	/**
+	 * Replays the archive given in the arguments
+	 *
+	 * @param args The archive and the options of the command
+	 * @throws IOException          If the archive cannot be read
+	 * @throws InterruptedException If the replay is interrupted
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException {
+		RPClientConfig config = new RPClientConfig();
+		config.setApiKey(System.getenv(API_KEY_VARIABLE));
+		config.getAsyncConfig().setMaxConcurrency(32);
+		config.getLogBatchConfig().setEnabled(true);
+		config.getLogBatchConfig().setMaxLingerMs(100L);
+		config.getRetryConfig().setMaxAttempts(3);
+
+		String archive = null;
+		for (String arg : args) {
+			String value = StringUtils.substringAfter(arg, "=");
+			if (arg.startsWith("--endpoint=")) {
+				config.setEndpoint(value);
+			} else if (arg.startsWith("--project=")) {
+				config.setProject(value);
+			} else if (arg.startsWith("--api-key=")) {
+				config.setApiKey(value);
+			} else if (arg.startsWith("--concurrency=")) {
+				config.getAsyncConfig().setMaxConcurrency(Integer.parseInt(value));
+			} else if (arg.startsWith("--batch-size=")) {
+				config.getLogBatchConfig().setMaxCount(Integer.parseInt(value));
+			} else if (arg.startsWith("--max-in-flight=")) {
+				config.getOfflineConfig().setReplayMaxInFlight(Integer.parseInt(value));
+			} else if (!arg.startsWith("--") && archive == null) {
+				archive = arg;
+			} else {
+				usage("Unknown argument " + arg);
+				return;
+			}
+		}
+		if (archive == null || StringUtils.isAnyBlank(config.getEndpoint(), config.getProject(), config.getApiKey())) {
+			usage("The archive, the endpoint, the project and the api key are required");
+			return;
+		}
+
+		ReplayStatistics statistics;
+		try (RPAsyncClient client = new RPAsyncClient(config)) {
+			statistics = new LaunchArchiveReplayer(client, config).replay(Path.of(archive));
+		}
+		log.info("Replayed {} calls with {} bytes of attachments in {} ms, {} failed", statistics.getRecords(),
+				statistics.getAttachmentBytes(), statistics.getDurationMs(), statistics.getFailed());
+		if (statistics.getFailed() > 0) {
+			System.exit(1);
+		}
+	}
+
+	private static void usage(String error) {
+		System.err.println(error);
+		System.err.println("Usage: ReplayCommand <archive> --endpoint=<url> --project=<project> [--api-key=<key>]"
+				+ " [--concurrency=<threads>] [--batch-size=<logs>] [--max-in-flight=<calls>]");
+		System.exit(2);
+	}
+}
@@ -0,0 +1,48 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.offline;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * The outcome of replaying a launch archive to ReportPortal
+ */
+@Data
+@AllArgsConstructor
+public class ReplayStatistics {
+
+	/**
+	 * The number of calls read from the archive
+	 */
+	private long records;
+
+	/**
+	 * The number of calls that failed or were rejected by ReportPortal
+	 */
+	private long failed;
+
+	/**
+	 * The bytes of attachment content sent to ReportPortal
+	 */
+	private long attachmentBytes;
+
+	/**
+	 * The time it took to replay the archive, in milliseconds
+	 */
+	private long durationMs;
+}
@@ -0,0 +1,126 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.ordering;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps track of the tree of launches and items that are started and not yet
+ * finished, so that the finish request of a launch or item can be held back
+ * until all its children have been finished, while independent subtrees are
+ * reported in parallel. A node is forgotten as soon as its finish request
+ * completes.
+ */
+public class ItemTree {
+
+	private static final String TEMPORARY_KEY_PREFIX = "pending-";
+
+	private final Map<String, Node> nodes = new ConcurrentHashMap<>();
+
+	private static class Node {
+
+		private final Node parent;
+		private final Set<Node> children = ConcurrentHashMap.newKeySet();
+		private final CompletableFuture<Void> finished = new CompletableFuture<>();
+
+		private Node(Node parent) {
+			this.parent = parent;
+		}
+	}
+
+	/**
+	 * @return A unique key for an item which uuid is not known until
+	 *         ReportPortal replies to its start request
+	 */
+	public String newTemporaryKey() {
+		return TEMPORARY_KEY_PREFIX + UUID.randomUUID();
+	}
+
+	/**
+	 * Adds a started item to the tree
+	 *
+	 * @param parentUuid The uuid of the parent item, or of the launch for a root
+	 *                   item
+	 * @param key        The uuid of the item, or a temporary key until its uuid
+	 *                   is known
+	 */
+	public void register(String parentUuid, String key) {
+		Node parent = parentUuid == null ? null : nodes.computeIfAbsent(parentUuid, k -> new Node(null));
+		Node node = new Node(parent);
+		if (parent != null) {
+			parent.children.add(node);
+		}
+		nodes.put(key, node);
+	}
+
+	/**
+	 * Replaces the temporary key of an item with its uuid
+	 *
+	 * @param key  The temporary key of the item
+	 * @param uuid The uuid of the item, as returned by ReportPortal
+	 */
+	public void rename(String key, String uuid) {
+		Node node = nodes.remove(key);
+		if (node != null) {
+			nodes.put(uuid, node);
+		}
+	}
+
+	/**
+	 * @param uuid The uuid of a launch or item
+	 * @return A {@link CompletableFuture} that completes once all the children
+	 *         of the launch or item that are started so far have been finished
+	 */
+	public CompletableFuture<Void> awaitChildren(String uuid) {
+		Node node = uuid == null ? null : nodes.get(uuid);
+		if (node == null || node.children.isEmpty()) {
+			return CompletableFuture.completedFuture(null);
+		}
+		return CompletableFuture.allOf(node.children.stream()
+				.map(child -> child.finished)
+				.toArray(CompletableFuture[]::new));
+	}
+
+	/**
+	 * Removes a launch or item from the tree, once its finish request has
+	 * completed or its start request has failed, and releases the finish request
+	 * of its parent if it was waiting for it
+	 *
+	 * @param key The uuid or temporary key of the launch or item
+	 */
+	public void finished(String key) {
+		Node node = key == null ? null : nodes.remove(key);
+		if (node == null) {
+			return;
+		}
+		if (node.parent != null) {
+			node.parent.children.remove(node);
+		}
+		node.finished.complete(null);
+	}
+
+	/**
+	 * @return The number of launches and items in the tree
+	 */
+	public int size() {
+		return nodes.size();
+	}
+}
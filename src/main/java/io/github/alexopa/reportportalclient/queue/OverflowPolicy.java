@@ -0,0 +1,48 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.queue;
+
+/**
+ * What a {@link ReportQueue} does with a log message or attachment that is
+ * submitted while the queue is full
+ */
+public enum OverflowPolicy {
+
+	/**
+	 * The caller waits until there is room in the queue
+	 */
+	BLOCK,
+
+	/**
+	 * The new entry is dropped
+	 */
+	DROP_NEWEST,
+
+	/**
+	 * A new entry of <code>DEBUG</code> or <code>TRACE</code> level is dropped.
+	 * A new entry of another level evicts the newest <code>DEBUG</code> or
+	 * <code>TRACE</code> entry whose request has not started yet, which is then
+	 * never sent, and the caller waits until there is room only if there is none
+	 */
+	DROP_DEBUG_FIRST,
+
+	/**
+	 * The new entry is written to a file on the local disk and submitted again
+	 * once there is room in the queue
+	 */
+	SPILL_TO_DISK
+}
@@ -0,0 +1,89 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.queue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.github.alexopa.reportportalclient.journal.JournalOperation;
+import lombok.Getter;
+
+/**
+ * A log message or attachment that got a place in a {@link ReportQueue}. Its
+ * request must be started with {@link #start()} right before it is sent, so
+ * that an entry evicted from the queue in the meantime is not sent at all
+ */
+public class QueuedEntry {
+
+	private static final int PENDING = 0;
+	private static final int STARTED = 1;
+	private static final int EVICTED = 2;
+	private static final int DONE = 3;
+
+	@Getter
+	private final JournalOperation operation;
+	private final AtomicInteger state = new AtomicInteger(PENDING);
+	final CompletableFuture<Object> response = new CompletableFuture<>();
+
+	private volatile Object properties;
+
+	QueuedEntry(final JournalOperation operation, final Object properties) {
+		this.operation = operation;
+		this.properties = properties;
+	}
+
+	/**
+	 * @return The properties object of the entry, or <code>null</code> if it was
+	 *         evicted from the queue
+	 */
+	public Object getProperties() {
+		return properties;
+	}
+
+	/**
+	 * Marks the request of the entry as started, so that it can no longer be
+	 * evicted
+	 *
+	 * @return <code>false</code> if the entry was evicted and must not be sent
+	 */
+	public boolean start() {
+		return state.compareAndSet(PENDING, STARTED);
+	}
+
+	/**
+	 * Evicts the entry, unless its request has already started, and drops its
+	 * properties, so that an evicted entry that is still waiting to be sent
+	 * holds no memory
+	 */
+	boolean evict() {
+		if (!state.compareAndSet(PENDING, EVICTED)) {
+			return false;
+		}
+		properties = null;
+		return true;
+	}
+
+	/**
+	 * Marks the entry as done, when its request has completed or was skipped
+	 *
+	 * @return <code>false</code> if the entry was evicted, and so has already
+	 *         given up its place in the queue
+	 */
+	boolean finish() {
+		return state.getAndSet(DONE) != EVICTED;
+	}
+}
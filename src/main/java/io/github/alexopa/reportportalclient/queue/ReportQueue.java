@@ -0,0 +1,326 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.queue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.springframework.util.FileSystemUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.alexopa.reportportalclient.config.RPClientConfig;
+import io.github.alexopa.reportportalclient.journal.JournalOperation;
+import io.github.alexopa.reportportalclient.journal.JournalRecord;
+import io.github.alexopa.reportportalclient.journal.ReportJournal;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A bounded queue in front of the sending of log messages and attachments. An
+ * entry takes a place in the queue from the moment it is submitted until its
+ * request to ReportPortal completes, so a slow ReportPortal cannot make the
+ * entries pile up in memory, or in the executor and the log batches of the
+ * client. When the queue is full, the configured {@link OverflowPolicy}
+ * applies.
+ * <p>
+ * With {@link OverflowPolicy#SPILL_TO_DISK}, the entries that do not fit in the
+ * queue are appended to a {@link ReportJournal} in a temporary directory, and a
+ * background thread submits them again, in order, as soon as there is room.
+ * The directory is deleted when the queue is closed.
+ * <p>
+ * With {@link OverflowPolicy#DROP_DEBUG_FIRST}, an entry of a higher level
+ * that does not fit in the queue evicts the newest <code>DEBUG</code> or
+ * <code>TRACE</code> entry in the queue whose request has not started yet,
+ * and waits only when there is none. The evicted entry fails, drops its
+ * properties and is skipped when its turn to be sent comes, see
+ * {@link QueuedEntry#start()}.
+ */
+@Slf4j
+public class ReportQueue implements AutoCloseable {
+
+	private static final Set<String> LOW_LEVELS = Set.of("DEBUG", "TRACE");
+	private static final String SPILL_THREAD_NAME = "rp-client-queue-spill";
+	private static final String SPILL_DIRECTORY_PREFIX = "rp-client-spill-";
+	private static final long POLL_TIMEOUT_MS = 200L;
+
+	private final int capacity;
+	private final OverflowPolicy overflowPolicy;
+	private final long closeTimeoutMs;
+	private final Semaphore permits;
+	private final Function<QueuedEntry, CompletableFuture<?>> dispatcher;
+	private final LongAdder dropped = new LongAdder();
+	/**
+	 * The low level entries in the queue that can be evicted, in the order they
+	 * were submitted
+	 */
+	private final Deque<QueuedEntry> lowLevelEntries = new ConcurrentLinkedDeque<>();
+
+	private final ObjectMapper objectMapper;
+	private final Path spillDirectory;
+	private final ReportJournal spill;
+	private final Map<Long, CompletableFuture<Object>> spillWaiting = new HashMap<>();
+	private final Thread spillDrainer;
+
+	private volatile boolean running = true;
+
+	/**
+	 * Creates a new {@link ReportQueue}
+	 *
+	 * @param config       A {@link RPClientConfig.QueueConfig} with the
+	 *                     configuration of the queue
+	 * @param objectMapper The {@link ObjectMapper} used to (de)serialize the
+	 *                     spilled entries
+	 * @param dispatcher   The function that sends an entry that got a place in
+	 *                     the queue, and returns the future of its response. It
+	 *                     must call {@link QueuedEntry#start()} right before
+	 *                     sending the entry, and not send it if that fails
+	 */
+	public ReportQueue(final RPClientConfig.QueueConfig config, final ObjectMapper objectMapper,
+			final Function<QueuedEntry, CompletableFuture<?>> dispatcher) {
+		this.capacity = config.getCapacity();
+		this.overflowPolicy = config.getOverflowPolicy();
+		this.closeTimeoutMs = config.getCloseTimeoutMs();
+		this.permits = new Semaphore(capacity);
+		this.dispatcher = dispatcher;
+
+		if (overflowPolicy == OverflowPolicy.SPILL_TO_DISK) {
+			this.objectMapper = objectMapper;
+			try {
+				this.spillDirectory = Files.createTempDirectory(SPILL_DIRECTORY_PREFIX);
+			} catch (IOException e) {
+				throw new UncheckedIOException("Failed to create spill directory", e);
+			}
+			RPClientConfig.JournalConfig spillConfig = new RPClientConfig.JournalConfig();
+			spillConfig.setDirectory(spillDirectory.toString());
+			this.spill = new ReportJournal(spillConfig, objectMapper);
+			this.spillDrainer = new Thread(this::drainSpill, SPILL_THREAD_NAME);
+			this.spillDrainer.setDaemon(true);
+			this.spillDrainer.start();
+		} else {
+			this.objectMapper = null;
+			this.spillDirectory = null;
+			this.spill = null;
+			this.spillDrainer = null;
+		}
+	}
+
+	/**
+	 * Submits an entry to the queue
+	 *
+	 * @param <T>       The type of the response from ReportPortal
+	 * @param operation The {@link JournalOperation} of the entry
+	 * @param props     The properties object of the entry
+	 * @param level     The log level of the entry
+	 * @return A {@link CompletableFuture} that completes with the response from
+	 *         ReportPortal, or fails with a {@link RejectedExecutionException} if
+	 *         the entry was dropped
+	 */
+	public <T> CompletableFuture<T> submit(JournalOperation operation, Object props, String level) {
+		if (spill != null && getSpilled() > 0) {
+			// keep the entries in order while older ones are still on disk
+			return spill(operation, props);
+		}
+		boolean lowLevel = level != null && LOW_LEVELS.contains(level.toUpperCase(Locale.ROOT));
+		if (permits.tryAcquire()) {
+			return dispatch(new QueuedEntry(operation, props), lowLevel);
+		}
+		return switch (overflowPolicy) {
+		case BLOCK -> acquireAndDispatch(operation, props);
+		case DROP_NEWEST -> drop(operation);
+		case DROP_DEBUG_FIRST -> lowLevel ? drop(operation) : evictAndDispatch(operation, props);
+		case SPILL_TO_DISK -> spill(operation, props);
+		};
+	}
+
+	/**
+	 * Makes room for an entry by evicting the newest low level entries in the
+	 * queue, which are the least likely to have been sent already. An entry
+	 * whose request has already started is not evicted, since it keeps its place
+	 * until the request completes
+	 */
+	private <T> CompletableFuture<T> evictAndDispatch(JournalOperation operation, Object props) {
+		while (!permits.tryAcquire()) {
+			QueuedEntry lowLevel = lowLevelEntries.pollLast();
+			if (lowLevel == null) {
+				return acquireAndDispatch(operation, props);
+			}
+			if (lowLevel.evict()) {
+				permits.release();
+				dropped.increment();
+				lowLevel.response.completeExceptionally(new RejectedExecutionException("Evicted from the reporting queue"));
+				log.debug("Reporting queue is full, evicted a low level entry for {} entry", operation);
+			}
+		}
+		return dispatch(new QueuedEntry(operation, props), false);
+	}
+
+	private <T> CompletableFuture<T> acquireAndDispatch(JournalOperation operation, Object props) {
+		try {
+			permits.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return drop(operation);
+		}
+		return dispatch(new QueuedEntry(operation, props), false);
+	}
+
+	/**
+	 * Sends an entry that holds a place in the queue. The place is given back
+	 * when its request completes, or when it is evicted before the request
+	 * starts
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> CompletableFuture<T> dispatch(QueuedEntry entry, boolean lowLevel) {
+		CompletableFuture<?> sent;
+		try {
+			sent = dispatcher.apply(entry);
+		} catch (RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+		if (lowLevel && overflowPolicy == OverflowPolicy.DROP_DEBUG_FIRST) {
+			lowLevelEntries.addLast(entry);
+			entry.response.whenComplete((r, e) -> lowLevelEntries.remove(entry));
+		}
+		sent.whenComplete((r, e) -> {
+			if (entry.finish()) {
+				permits.release();
+			}
+			if (e == null) {
+				entry.response.complete(r);
+			} else {
+				entry.response.completeExceptionally(e);
+			}
+		});
+		return (CompletableFuture<T>) entry.response;
+	}
+
+	private <T> CompletableFuture<T> drop(JournalOperation operation) {
+		dropped.increment();
+		log.debug("Reporting queue is full, dropped {} entry", operation);
+		return CompletableFuture.failedFuture(new RejectedExecutionException("Reporting queue is full"));
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> CompletableFuture<T> spill(JournalOperation operation, Object props) {
+		CompletableFuture<Object> rs = new CompletableFuture<>();
+		synchronized (spillWaiting) {
+			spillWaiting.put(spill.append(operation, props), rs);
+		}
+		return (CompletableFuture<T>) rs;
+	}
+
+	private void drainSpill() {
+		try (ReportJournal.Reader reader = spill.reader()) {
+			while (running || getSpilled() > 0) {
+				JournalRecord record = reader.next(POLL_TIMEOUT_MS);
+				if (record == null) {
+					continue;
+				}
+				CompletableFuture<Object> rs;
+				synchronized (spillWaiting) {
+					rs = spillWaiting.getOrDefault(record.getSequence(), new CompletableFuture<>());
+					spillWaiting.remove(record.getSequence());
+				}
+				Object props;
+				try {
+					props = objectMapper.treeToValue(record.getProperties(),
+							record.getOperation().getPropertiesType());
+				} catch (IOException | RuntimeException e) {
+					rs.completeExceptionally(e);
+					spill.acknowledge(record.getSequence());
+					continue;
+				}
+				permits.acquire();
+				try {
+					dispatch(new QueuedEntry(record.getOperation(), props), false).whenComplete((r, e) -> {
+						if (e == null) {
+							rs.complete(r);
+						} else {
+							rs.completeExceptionally(e);
+						}
+					});
+				} catch (RuntimeException e) {
+					rs.completeExceptionally(e);
+				}
+				spill.acknowledge(record.getSequence());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (IOException | UncheckedIOException e) {
+			log.error("Failed to read spilled entries of the reporting queue", e);
+		}
+	}
+
+	private long getSpilled() {
+		return spill.getLastSequence() - spill.getAcknowledgedSequence();
+	}
+
+	/**
+	 * @return A {@link ReportQueueStatistics} snapshot of the queue
+	 */
+	public ReportQueueStatistics getStatistics() {
+		return new ReportQueueStatistics(capacity - permits.availablePermits(), capacity,
+				spill == null ? 0L : getSpilled(), dropped.sum());
+	}
+
+	/**
+	 * Waits for the spilled entries, if any, to be submitted again, up to the
+	 * configured close timeout, and deletes the spill directory. Entries that
+	 * are still on disk then fail
+	 */
+	@Override
+	public void close() {
+		if (spill == null) {
+			return;
+		}
+		running = false;
+		try {
+			spillDrainer.join(closeTimeoutMs);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (spillDrainer.isAlive()) {
+			log.warn("{} spilled entries of the reporting queue were not sent to ReportPortal", getSpilled());
+			spillDrainer.interrupt();
+		}
+		synchronized (spillWaiting) {
+			spillWaiting.values().forEach(rs -> rs.completeExceptionally(
+					new RejectedExecutionException("Reporting queue was closed")));
+			spillWaiting.clear();
+		}
+		spill.close();
+		try {
+			FileSystemUtils.deleteRecursively(spillDirectory);
+		} catch (IOException e) {
+			log.warn("Failed to delete spill directory {}", spillDirectory, e);
+		}
+	}
+}
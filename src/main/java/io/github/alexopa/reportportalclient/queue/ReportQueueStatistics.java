@@ -0,0 +1,50 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.queue;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A snapshot of the state of a {@link ReportQueue}
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ReportQueueStatistics {
+
+	/**
+	 * The number of entries in the queue, ie. submitted and not yet completed
+	 */
+	private final int depth;
+
+	/**
+	 * The maximum number of entries in the queue
+	 */
+	private final int capacity;
+
+	/**
+	 * The number of entries waiting on the local disk for room in the queue
+	 */
+	private final long spilled;
+
+	/**
+	 * The number of entries dropped because the queue was full
+	 */
+	private final long dropped;
+}
@@ -0,0 +1,140 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.ratelimit;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * A {@link ClientHttpRequestFactory} that takes the bytes of the request bodies
+ * from the budget of a {@link RateLimiter} while they are streamed. The
+ * {@link TrafficClass} of a request is the one of the call that creates it, so
+ * the body can be written by another thread, ie. by the JDK http client.
+ */
+public class RateLimitedClientHttpRequestFactory implements ClientHttpRequestFactory {
+
+	private final ClientHttpRequestFactory delegate;
+	private final RateLimiter rateLimiter;
+
+	/**
+	 * Creates a new {@link RateLimitedClientHttpRequestFactory}
+	 *
+	 * @param delegate    The {@link ClientHttpRequestFactory} that creates the
+	 *                    actual requests
+	 * @param rateLimiter The {@link RateLimiter} to take the bytes from
+	 */
+	public RateLimitedClientHttpRequestFactory(final ClientHttpRequestFactory delegate,
+			final RateLimiter rateLimiter) {
+		this.delegate = delegate;
+		this.rateLimiter = rateLimiter;
+	}
+
+	@Override
+	public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+		ClientHttpRequest request = delegate.createRequest(uri, httpMethod);
+		TrafficClass trafficClass = rateLimiter.getCurrentTrafficClass();
+		return trafficClass == null ? request : new RateLimitedRequest(request, trafficClass);
+	}
+
+	private class RateLimitedRequest implements ClientHttpRequest, StreamingHttpOutputMessage {
+
+		private final ClientHttpRequest request;
+		private final TrafficClass trafficClass;
+
+		private RateLimitedRequest(ClientHttpRequest request, TrafficClass trafficClass) {
+			this.request = request;
+			this.trafficClass = trafficClass;
+		}
+
+		@Override
+		public HttpMethod getMethod() {
+			return request.getMethod();
+		}
+
+		@Override
+		public URI getURI() {
+			return request.getURI();
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return request.getHeaders();
+		}
+
+		@Override
+		public OutputStream getBody() throws IOException {
+			return new RateLimitedOutputStream(request.getBody());
+		}
+
+		@Override
+		public void setBody(Body body) {
+			if (request instanceof StreamingHttpOutputMessage streamingRequest) {
+				streamingRequest.setBody(new Body() {
+
+					@Override
+					public void writeTo(OutputStream outputStream) throws IOException {
+						body.writeTo(new RateLimitedOutputStream(outputStream));
+					}
+
+					@Override
+					public boolean repeatable() {
+						return body.repeatable();
+					}
+				});
+			} else {
+				try {
+					body.writeTo(getBody());
+				} catch (IOException e) {
+					throw new IllegalStateException(e);
+				}
+			}
+		}
+
+		@Override
+		public ClientHttpResponse execute() throws IOException {
+			return request.execute();
+		}
+
+		private class RateLimitedOutputStream extends FilterOutputStream {
+
+			private RateLimitedOutputStream(OutputStream out) {
+				super(out);
+			}
+
+			@Override
+			public void write(int b) throws IOException {
+				rateLimiter.acquireBytes(trafficClass, 1L);
+				out.write(b);
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				rateLimiter.acquireBytes(trafficClass, len);
+				out.write(b, off, len);
+			}
+		}
+	}
+}
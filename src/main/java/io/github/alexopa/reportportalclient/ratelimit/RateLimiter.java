@@ -0,0 +1,179 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import io.github.alexopa.reportportalclient.config.RPClientConfig;
+
+/**
+ * Limits the requests per second and the bytes per second that a client sends
+ * to ReportPortal, so that many clients that start at the same time do not
+ * overload it. Every limit is a token bucket that allows short bursts.
+ * <p>
+ * There is a total budget for all calls, and separate budgets for the
+ * {@link TrafficClass#LIFECYCLE} and the {@link TrafficClass#LOG} calls. A call
+ * takes from the budget of its class first, and then from the total budget,
+ * where lifecycle calls take priority: log calls do not take from the total
+ * budget while a lifecycle call is waiting for it, and never wait ahead of one.
+ * This way launches and items keep progressing when the logs use up the
+ * budget.
+ * <p>
+ * Requests are counted before each attempt of a call. Bytes are counted while
+ * the request body is written, by a {@link RateLimitedClientHttpRequestFactory}.
+ */
+public class RateLimiter {
+
+	private static final long LOG_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	private final TokenBucket totalRequests;
+	private final TokenBucket totalBytes;
+	private final TokenBucket lifecycleRequests;
+	private final TokenBucket lifecycleBytes;
+	private final TokenBucket logRequests;
+	private final TokenBucket logBytes;
+
+	private final AtomicInteger lifecycleWaiting = new AtomicInteger();
+	private final ThreadLocal<TrafficClass> currentTrafficClass = new ThreadLocal<>();
+
+	private final LongAdder lifecycleWaits = new LongAdder();
+	private final LongAdder lifecycleWaitNanos = new LongAdder();
+	private final LongAdder logWaits = new LongAdder();
+	private final LongAdder logWaitNanos = new LongAdder();
+
+	/**
+	 * Creates a new {@link RateLimiter}
+	 *
+	 * @param config A {@link RPClientConfig.RateLimitConfig} with the budgets.
+	 *               A budget of 0 is unlimited
+	 */
+	public RateLimiter(final RPClientConfig.RateLimitConfig config) {
+		double burstSeconds = config.getBurstSeconds();
+		this.totalRequests = bucket(config.getRequestsPerSecond(), burstSeconds);
+		this.totalBytes = bucket(config.getBytesPerSecond(), burstSeconds);
+		this.lifecycleRequests = bucket(config.getLifecycleRequestsPerSecond(), burstSeconds);
+		this.lifecycleBytes = bucket(config.getLifecycleBytesPerSecond(), burstSeconds);
+		this.logRequests = bucket(config.getLogRequestsPerSecond(), burstSeconds);
+		this.logBytes = bucket(config.getLogBytesPerSecond(), burstSeconds);
+	}
+
+	private static TokenBucket bucket(double perSecond, double burstSeconds) {
+		return perSecond > 0 ? new TokenBucket(perSecond, burstSeconds) : null;
+	}
+
+	/**
+	 * Waits for the budget of a request of an operation and executes it
+	 *
+	 * @param <T>       The type of the result of the call
+	 * @param operation The name of the operation, ie. <code>startItem</code>
+	 * @param call      The call to execute
+	 * @return The result of the call
+	 */
+	public <T> T execute(String operation, Supplier<T> call) {
+		TrafficClass trafficClass = TrafficClass.of(operation);
+		acquire(trafficClass, trafficClass == TrafficClass.LOG ? logRequests : lifecycleRequests, totalRequests, 1L);
+		TrafficClass previous = currentTrafficClass.get();
+		currentTrafficClass.set(trafficClass);
+		try {
+			return call.get();
+		} finally {
+			if (previous == null) {
+				currentTrafficClass.remove();
+			} else {
+				currentTrafficClass.set(previous);
+			}
+		}
+	}
+
+	/**
+	 * @return The {@link TrafficClass} of the call that is currently executed in
+	 *         {@link #execute(String, Supplier)} by this thread, or
+	 *         <code>null</code>
+	 */
+	TrafficClass getCurrentTrafficClass() {
+		return currentTrafficClass.get();
+	}
+
+	/**
+	 * Waits for the budget of bytes of a request body
+	 *
+	 * @param trafficClass The {@link TrafficClass} of the request
+	 * @param bytes        The number of bytes about to be sent
+	 */
+	void acquireBytes(TrafficClass trafficClass, long bytes) {
+		acquire(trafficClass, trafficClass == TrafficClass.LOG ? logBytes : lifecycleBytes, totalBytes, bytes);
+	}
+
+	private void acquire(TrafficClass trafficClass, TokenBucket own, TokenBucket total, long permits) {
+		long start = System.nanoTime();
+		boolean waited = own != null && sleep(own.reserve(permits));
+		if (total != null) {
+			if (trafficClass == TrafficClass.LIFECYCLE) {
+				lifecycleWaiting.incrementAndGet();
+				try {
+					waited |= sleep(total.reserve(permits));
+				} finally {
+					lifecycleWaiting.decrementAndGet();
+				}
+			} else {
+				while ((lifecycleWaiting.get() > 0 || !total.tryAcquire(permits))
+						&& !Thread.currentThread().isInterrupted()) {
+					waited = true;
+					sleep(Math.max(LOG_POLL_NANOS, total.nanosUntilAvailable()));
+				}
+			}
+		}
+		if (waited) {
+			long waitNanos = System.nanoTime() - start;
+			if (trafficClass == TrafficClass.LIFECYCLE) {
+				lifecycleWaits.increment();
+				lifecycleWaitNanos.add(waitNanos);
+			} else {
+				logWaits.increment();
+				logWaitNanos.add(waitNanos);
+			}
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if the thread had to wait
+	 */
+	private static boolean sleep(long nanos) {
+		if (nanos <= 0) {
+			return false;
+		}
+		try {
+			TimeUnit.NANOSECONDS.sleep(nanos);
+		} catch (InterruptedException e) {
+			// the call is sent without waiting further, the caller sees the interrupt
+			Thread.currentThread().interrupt();
+		}
+		return true;
+	}
+
+	/**
+	 * @return A {@link RateLimiterStatistics} snapshot of the calls delayed so
+	 *         far
+	 */
+	public RateLimiterStatistics getStatistics() {
+		return new RateLimiterStatistics(lifecycleWaits.sum(), TimeUnit.NANOSECONDS.toMillis(lifecycleWaitNanos.sum()),
+				logWaits.sum(), TimeUnit.NANOSECONDS.toMillis(logWaitNanos.sum()));
+	}
+}
@@ -0,0 +1,50 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A snapshot of the calls delayed by a {@link RateLimiter}
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class RateLimiterStatistics {
+
+	/**
+	 * The number of times a lifecycle call waited for its budget
+	 */
+	private final long lifecycleWaits;
+
+	/**
+	 * The total time lifecycle calls waited for their budget, in milliseconds
+	 */
+	private final long lifecycleWaitMs;
+
+	/**
+	 * The number of times a log call waited for its budget
+	 */
+	private final long logWaits;
+
+	/**
+	 * The total time log calls waited for their budget, in milliseconds
+	 */
+	private final long logWaitMs;
+}
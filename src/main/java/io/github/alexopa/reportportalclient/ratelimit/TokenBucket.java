@@ -0,0 +1,80 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A token bucket that refills continuously at a fixed rate, up to a burst of
+ * tokens. A request of any size is admitted as long as the bucket is not
+ * empty, and may leave the bucket in debt, which later requests wait for.
+ * This way a body larger than the burst, ie. a big attachment, is not blocked
+ * forever, while the average rate is still kept.
+ */
+class TokenBucket {
+
+	private final double tokensPerNano;
+	private final double capacity;
+	private double tokens;
+	private long refilledAt;
+
+	TokenBucket(double tokensPerSecond, double burstSeconds) {
+		this.tokensPerNano = tokensPerSecond / TimeUnit.SECONDS.toNanos(1);
+		this.capacity = Math.max(1.0, tokensPerSecond * burstSeconds);
+		this.tokens = capacity;
+		this.refilledAt = System.nanoTime();
+	}
+
+	/**
+	 * Takes tokens, going into debt if needed
+	 *
+	 * @return The nanoseconds to wait until the tokens taken have been refilled
+	 */
+	synchronized long reserve(long permits) {
+		refill();
+		tokens -= permits;
+		return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / tokensPerNano);
+	}
+
+	/**
+	 * Takes tokens only if the bucket is not empty
+	 *
+	 * @return <code>true</code> if the tokens were taken
+	 */
+	synchronized boolean tryAcquire(long permits) {
+		refill();
+		if (tokens <= 0) {
+			return false;
+		}
+		tokens -= permits;
+		return true;
+	}
+
+	/**
+	 * @return The nanoseconds until the bucket is no longer empty
+	 */
+	synchronized long nanosUntilAvailable() {
+		refill();
+		return tokens > 0 ? 0 : (long) Math.ceil(-tokens / tokensPerNano) + 1;
+	}
+
+	private void refill() {
+		long now = System.nanoTime();
+		tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+		refilledAt = now;
+	}
+}
@@ -0,0 +1,47 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.ratelimit;
+
+import java.util.Set;
+
+/**
+ * The classes of traffic that a {@link RateLimiter} has separate budgets for
+ */
+public enum TrafficClass {
+
+	/**
+	 * The calls that start, update and finish launches and items. They take
+	 * priority over log messages
+	 */
+	LIFECYCLE,
+
+	/**
+	 * The calls that add log messages and file attachments
+	 */
+	LOG;
+
+	private static final Set<String> LOG_OPERATIONS = Set.of("addLog", "addLogs", "addFileAttachment");
+
+	/**
+	 * @param operation The name of an operation of the client, ie.
+	 *                  <code>startItem</code>
+	 * @return The {@link TrafficClass} of the operation
+	 */
+	public static TrafficClass of(String operation) {
+		return LOG_OPERATIONS.contains(operation) ? LOG : LIFECYCLE;
+	}
+}
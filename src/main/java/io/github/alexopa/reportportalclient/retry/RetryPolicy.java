@@ -0,0 +1,170 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.retry;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.web.client.ResourceAccessException;
+
+import io.github.alexopa.reportportalclient.config.RPClientConfig;
+import io.github.alexopa.reportportalclient.exception.ReportPortalClientException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Retries failed calls to ReportPortal with exponential backoff and jitter. A
+ * call is retried when it fails with one of the configured status codes or
+ * when ReportPortal cannot be reached. Calls that are not idempotent are
+ * retried only if this is explicitly enabled, since a failed response does not
+ * guarantee that ReportPortal has not processed the request. When the failed
+ * response has a <code>Retry-After</code> header, the call waits at least that
+ * long before it is retried, up to the maximum backoff.
+ */
+@Slf4j
+public class RetryPolicy {
+
+	private final int maxAttempts;
+	private final long baseBackoffMs;
+	private final long maxBackoffMs;
+	private final double jitter;
+	private final Set<Integer> retryableStatusCodes;
+	private final boolean retryNonIdempotent;
+
+	private final LongAdder calls = new LongAdder();
+	private final LongAdder retries = new LongAdder();
+	private final LongAdder recovered = new LongAdder();
+	private final LongAdder exhausted = new LongAdder();
+
+	/**
+	 * Creates a new {@link RetryPolicy}
+	 *
+	 * @param config A {@link RPClientConfig.RetryConfig} with the configuration
+	 *               of the retries
+	 */
+	public RetryPolicy(final RPClientConfig.RetryConfig config) {
+		this.maxAttempts = Math.max(1, config.getMaxAttempts());
+		this.baseBackoffMs = config.getBaseBackoffMs();
+		this.maxBackoffMs = config.getMaxBackoffMs();
+		this.jitter = Math.min(1.0, Math.max(0.0, config.getJitter()));
+		this.retryableStatusCodes = new HashSet<>(config.getRetryableStatusCodes());
+		this.retryNonIdempotent = config.isRetryNonIdempotent();
+	}
+
+	/**
+	 * Executes a call, retrying it if it fails with a retryable error
+	 *
+	 * @param <T>        The type of the result of the call
+	 * @param idempotent Whether the call can be safely repeated
+	 * @param call       The call to execute
+	 * @return The result of the call
+	 */
+	public <T> T execute(boolean idempotent, Supplier<T> call) {
+		calls.increment();
+		int attempt = 1;
+		while (true) {
+			try {
+				T result = call.get();
+				if (attempt > 1) {
+					recovered.increment();
+				}
+				return result;
+			} catch (RuntimeException e) {
+				if (!isRetryable(e) || (!idempotent && !retryNonIdempotent)) {
+					throw e;
+				}
+				if (attempt >= maxAttempts) {
+					if (maxAttempts > 1) {
+						exhausted.increment();
+					}
+					throw e;
+				}
+				long backoff = backoff(attempt, e);
+				log.debug("Retrying call to ReportPortal in {} ms after attempt {} failed: {}", backoff, attempt,
+						e.getMessage());
+				retries.increment();
+				try {
+					Thread.sleep(backoff);
+				} catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+					throw e;
+				}
+				attempt++;
+			}
+		}
+	}
+
+	private boolean isRetryable(RuntimeException e) {
+		if (e instanceof ReportPortalClientException rpe) {
+			return rpe.getHttpStatusCode() != null && retryableStatusCodes.contains(rpe.getHttpStatusCode().value());
+		}
+		return e instanceof ResourceAccessException;
+	}
+
+	private long backoff(int attempt, RuntimeException e) {
+		long exponential = baseBackoffMs << Math.min(attempt - 1, 30);
+		long delay = Math.min(maxBackoffMs, exponential < 0 ? maxBackoffMs : exponential);
+		long backoff = delay - (long) (delay * jitter * ThreadLocalRandom.current().nextDouble());
+		if (e instanceof ReportPortalClientException rpe && rpe.getRetryAfter() != null) {
+			return Math.max(backoff, Math.min(maxBackoffMs, rpe.getRetryAfter().toMillis()));
+		}
+		return backoff;
+	}
+
+	/**
+	 * Parses the value of a <code>Retry-After</code> header, which is either a
+	 * number of seconds or an HTTP date
+	 *
+	 * @param value The value of the header
+	 * @return The {@link Duration} to wait, or <code>null</code> if the value is
+	 *         missing or cannot be parsed
+	 */
+	public static Duration parseRetryAfter(String value) {
+		if (StringUtils.isBlank(value)) {
+			return null;
+		}
+		String trimmed = value.trim();
+		if (StringUtils.isNumeric(trimmed)) {
+			try {
+				return Duration.ofSeconds(Long.parseLong(trimmed));
+			} catch (NumberFormatException e) {
+				return null;
+			}
+		}
+		try {
+			Duration wait = Duration.between(ZonedDateTime.now(),
+					ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME));
+			return wait.isNegative() ? Duration.ZERO : wait;
+		} catch (DateTimeParseException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return A {@link RetryStatistics} snapshot with the retries done so far
+	 */
+	public RetryStatistics getStatistics() {
+		return new RetryStatistics(calls.sum(), retries.sum(), recovered.sum(), exhausted.sum());
+	}
+}
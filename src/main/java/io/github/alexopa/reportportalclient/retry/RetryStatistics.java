@@ -0,0 +1,50 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.retry;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A snapshot of the retries done by a {@link RetryPolicy}
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class RetryStatistics {
+
+	/**
+	 * The number of calls executed, not counting retries
+	 */
+	private final long calls;
+
+	/**
+	 * The number of retries of failed calls
+	 */
+	private final long retries;
+
+	/**
+	 * The number of calls that succeeded after at least one retry
+	 */
+	private final long recovered;
+
+	/**
+	 * The number of calls that failed after all attempts
+	 */
+	private final long exhausted;
+}
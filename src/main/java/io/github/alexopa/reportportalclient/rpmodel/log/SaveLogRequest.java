@@ -41,6 +41,10 @@ public class SaveLogRequest {
 	public static class File {
 
 		private String name;
+		/**
+		 * Not set by the client, the content of attachments is streamed in a
+		 * separate part of the multipart request
+		 */
 		private byte[] content;
 		private String contentType;
 	}
@@ -0,0 +1,104 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.transport;
+
+import org.apache.hc.client5.http.classic.HttpClient;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import io.github.alexopa.reportportalclient.config.RPClientConfig;
+import io.github.alexopa.reportportalclient.model.ConnectionPoolStatistics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * An {@link HttpTransport} on Apache httpclient5. Every request in flight uses
+ * its own HTTP/1.1 connection from a pool, which is sized and maintained as
+ * configured in {@link RPClientConfig.ConnectionConfig}.
+ */
+@Slf4j
+public class ApacheHttpTransport implements HttpTransport {
+
+	private final PoolingHttpClientConnectionManager connManager;
+	private final HttpComponentsClientHttpRequestFactory requestFactory;
+
+	/**
+	 * Creates a new {@link ApacheHttpTransport}
+	 *
+	 * @param config A {@link RPClientConfig.ConnectionConfig} with the
+	 *               configuration of the connections
+	 */
+	public ApacheHttpTransport(final RPClientConfig.ConnectionConfig config) {
+		this.connManager = createConnectionManager(config);
+
+		RequestConfig requestConfig = RequestConfig.custom()
+				.setConnectionKeepAlive(TimeValue.ofMilliseconds(config.getKeepAliveMs()))
+				.build();
+		HttpClient httpClient = HttpClientBuilder.create().setConnectionManager(connManager).useSystemProperties()
+				.setDefaultRequestConfig(requestConfig)
+				.evictExpiredConnections()
+				.evictIdleConnections(TimeValue.ofMilliseconds(config.getIdleEvictionMs()))
+				.disableAutomaticRetries()
+				.disableRedirectHandling().build();
+		this.requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+	}
+
+	private PoolingHttpClientConnectionManager createConnectionManager(final RPClientConfig.ConnectionConfig config) {
+		final PoolingHttpClientConnectionManager manager = new PoolingHttpClientConnectionManager();
+		manager.setMaxTotal(config.getMaxConnectionsTotal());
+		manager.setDefaultMaxPerRoute(config.getMaxConnectionsPerRoute());
+
+		ConnectionConfig connectionConfig = ConnectionConfig.custom()
+				.setConnectTimeout(Timeout.ofMilliseconds(config.getConnectTimeout()))
+				.setSocketTimeout(Timeout.ofMilliseconds(config.getSocketTimeout()))
+				.setTimeToLive(TimeValue.ofMilliseconds(config.getTimeToLiveMs()))
+				.setValidateAfterInactivity(TimeValue.ofMilliseconds(config.getValidateAfterInactivityMs()))
+				.build();
+		manager.setDefaultConnectionConfig(connectionConfig);
+		return manager;
+	}
+
+	@Override
+	public ClientHttpRequestFactory getRequestFactory() {
+		return requestFactory;
+	}
+
+	@Override
+	public ConnectionPoolStatistics getConnectionPoolStatistics() {
+		PoolStats stats = connManager.getTotalStats();
+		return new ConnectionPoolStatistics(stats.getLeased(), stats.getAvailable(), stats.getPending(),
+				stats.getMax());
+	}
+
+	@Override
+	public void close() {
+		try {
+			// closes the http client, which stops its idle connection evictor and
+			// closes the connection manager
+			requestFactory.destroy();
+		} catch (Exception e) {
+			log.warn("Failed to close HTTP client", e);
+			connManager.close();
+		}
+	}
+}
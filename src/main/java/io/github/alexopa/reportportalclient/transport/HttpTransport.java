@@ -0,0 +1,72 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.transport;
+
+import org.springframework.http.client.ClientHttpRequestFactory;
+
+import io.github.alexopa.reportportalclient.RPClient;
+import io.github.alexopa.reportportalclient.config.RPClientConfig;
+import io.github.alexopa.reportportalclient.model.ConnectionPoolStatistics;
+
+/**
+ * The HTTP transport under {@link RPClient}. A transport owns the underlying
+ * HTTP client and its connections, and exposes them as a
+ * {@link ClientHttpRequestFactory} on which the client builds its requests.
+ */
+public interface HttpTransport extends AutoCloseable {
+
+	/**
+	 * @return The {@link ClientHttpRequestFactory} that creates the requests of
+	 *         the transport
+	 */
+	ClientHttpRequestFactory getRequestFactory();
+
+	/**
+	 * @return A {@link ConnectionPoolStatistics} snapshot of the connections of
+	 *         the transport
+	 */
+	ConnectionPoolStatistics getConnectionPoolStatistics();
+
+	/**
+	 * @return <code>false</code> if the transport does not expose the state of
+	 *         its connections, so that its {@link ConnectionPoolStatistics} are
+	 *         always zero and no gauges are registered for them
+	 */
+	default boolean hasConnectionPool() {
+		return true;
+	}
+
+	/**
+	 * Closes the connections of the transport
+	 */
+	@Override
+	void close();
+
+	/**
+	 * Creates the {@link HttpTransport} of the configured {@link TransportType}
+	 *
+	 * @param config A {@link RPClientConfig.ConnectionConfig} with the
+	 *               configuration of the connections
+	 * @return The {@link HttpTransport}
+	 */
+	static HttpTransport create(RPClientConfig.ConnectionConfig config) {
+		return switch (config.getTransport()) {
+		case JDK -> new JdkHttpTransport(config);
+		case APACHE -> new ApacheHttpTransport(config);
+		};
+	}
+}
@@ -0,0 +1,128 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.transport;
+
+import java.net.Authenticator;
+import java.net.ProxySelector;
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import io.github.alexopa.reportportalclient.config.RPClientConfig;
+import io.github.alexopa.reportportalclient.model.ConnectionPoolStatistics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * An {@link HttpTransport} on the JDK <code>java.net.http.HttpClient</code>. The
+ * client negotiates HTTP/2 with ReportPortal, through ALPN for https and
+ * through an upgrade for plain http, and multiplexes the concurrent requests
+ * over a single connection. When ReportPortal does not support HTTP/2, the
+ * client falls back to HTTP/1.1.
+ * <p>
+ * Like the Apache transport, which uses the system properties, the client
+ * goes through the proxy of the <code>http.proxyHost</code>,
+ * <code>https.proxyHost</code> and <code>http.nonProxyHosts</code> system
+ * properties, via the default {@link ProxySelector}, and authenticates with
+ * the default {@link Authenticator}, if any. The connect, socket and close
+ * timeouts of {@link RPClientConfig.ConnectionConfig} apply. The connections
+ * are managed by the JDK client, which is configured only through the
+ * <code>jdk.httpclient.*</code> system properties and does not expose their
+ * state, so the pool settings do not apply and no pool statistics are
+ * available, see {@link #hasConnectionPool()}.
+ */
+@Slf4j
+public class JdkHttpTransport implements HttpTransport {
+
+	private final HttpClient httpClient;
+	private final JdkClientHttpRequestFactory requestFactory;
+	private final long closeTimeoutMs;
+
+	/**
+	 * Creates a new {@link JdkHttpTransport}
+	 *
+	 * @param config A {@link RPClientConfig.ConnectionConfig} with the
+	 *               configuration of the connections
+	 */
+	public JdkHttpTransport(final RPClientConfig.ConnectionConfig config) {
+		HttpClient.Builder builder = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_2)
+				.connectTimeout(Duration.ofMillis(config.getConnectTimeout()))
+				.followRedirects(HttpClient.Redirect.NEVER);
+		// the proxy of the system properties, and the default authenticator for it,
+		// which the JDK client does not use unless it is set
+		ProxySelector proxySelector = ProxySelector.getDefault();
+		if (proxySelector != null) {
+			builder.proxy(proxySelector);
+		}
+		Authenticator authenticator = Authenticator.getDefault();
+		if (authenticator != null) {
+			builder.authenticator(authenticator);
+		}
+		this.httpClient = builder.build();
+		this.closeTimeoutMs = config.getCloseTimeoutMs();
+
+		this.requestFactory = new JdkClientHttpRequestFactory(httpClient);
+		this.requestFactory.setReadTimeout(Duration.ofMillis(config.getSocketTimeout()));
+	}
+
+	@Override
+	public ClientHttpRequestFactory getRequestFactory() {
+		return requestFactory;
+	}
+
+	/**
+	 * @return Always zero, since the JDK client does not expose the state of
+	 *         its connections
+	 */
+	@Override
+	public ConnectionPoolStatistics getConnectionPoolStatistics() {
+		return new ConnectionPoolStatistics(0, 0, 0, 0);
+	}
+
+	@Override
+	public boolean hasConnectionPool() {
+		return false;
+	}
+
+	/**
+	 * Waits up to the close timeout for the requests in progress and closes the
+	 * connections. The client is compiled for JDK 17, where the JDK client
+	 * cannot be closed and releases its connections once it is no longer
+	 * referenced, so the methods added in JDK 21 are looked up reflectively
+	 */
+	@Override
+	public void close() {
+		try {
+			HttpClient.class.getMethod("shutdown").invoke(httpClient);
+			boolean terminated = (boolean) HttpClient.class.getMethod("awaitTermination", Duration.class)
+					.invoke(httpClient, Duration.ofMillis(closeTimeoutMs));
+			if (!terminated) {
+				log.warn("HTTP client did not terminate in {} ms", closeTimeoutMs);
+				HttpClient.class.getMethod("shutdownNow").invoke(httpClient);
+			}
+		} catch (NoSuchMethodException e) {
+			// JDK 17, nothing to close
+		} catch (ReflectiveOperationException e) {
+			if (e.getCause() instanceof InterruptedException) {
+				Thread.currentThread().interrupt();
+			}
+			log.warn("Failed to close HTTP client", e);
+		}
+	}
+}
@@ -0,0 +1,36 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.transport;
+
+/**
+ * The implementations of {@link HttpTransport} that can be selected in the
+ * configuration
+ */
+public enum TransportType {
+
+	/**
+	 * Apache httpclient5 with a pool of HTTP/1.1 connections, see
+	 * {@link ApacheHttpTransport}
+	 */
+	APACHE,
+
+	/**
+	 * The JDK <code>java.net.http.HttpClient</code>, which multiplexes the
+	 * requests over a single HTTP/2 connection, see {@link JdkHttpTransport}
+	 */
+	JDK
+}
@@ -17,8 +17,11 @@
 package io.github.alexopa.reportportalclient.util;
 
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import io.github.alexopa.reportportalclient.rpmodel.ItemAttribute;
 
@@ -27,11 +30,23 @@ import io.github.alexopa.reportportalclient.rpmodel.ItemAttribute;
  * string. The class has been copied from the <code>client-java</code> project
  * of <a href=
  * "https://github.com/reportportal/client-java/blob/master/src/main/java/com/epam/reportportal/utils/AttributeParser.java">reportportal</a>
+ * and changed to parse the string in a single pass, without regular
+ * expressions, and to cache the parsed keys and values, since the same
+ * attribute strings are usually passed again and again
  */
 public class AttributeParser {
 
-	private static final String ATTRIBUTES_SPLITTER = ";";
-	private static final String KEY_VALUE_SPLITTER = ":";
+	private static final char ATTRIBUTES_SPLITTER = ';';
+	private static final char KEY_VALUE_SPLITTER = ':';
+	private static final int MAX_CACHE_SIZE = 1024;
+	private static final int MAX_CACHED_LENGTH = 1024;
+
+	/**
+	 * The keys and values parsed from an attribute string, in pairs. Only the
+	 * immutable strings are cached, and new {@link ItemAttribute}s are created
+	 * from them every time, since callers may change the returned attributes
+	 */
+	private static final Map<String, String[]> CACHE = new ConcurrentHashMap<>();
 
 	private AttributeParser() {
 		throw new IllegalStateException("Static only class");
@@ -54,14 +69,75 @@ public class AttributeParser {
 		if (null == rawAttributes) {
 			return Collections.emptySet();
 		}
-		Set<ItemAttribute> attributes = new HashSet<>();
+		String[] keyValues = CACHE.get(rawAttributes);
+		if (keyValues != null) {
+			return toSet(keyValues);
+		}
+		Set<ItemAttribute> attributes = parse(rawAttributes);
+		if (rawAttributes.length() <= MAX_CACHED_LENGTH) {
+			if (CACHE.size() >= MAX_CACHE_SIZE) {
+				CACHE.clear();
+			}
+			CACHE.put(rawAttributes, toKeyValues(attributes));
+		}
+		return attributes;
+	}
+
+	/**
+	 * Lists the keys and values of a set in its iteration order, so that adding
+	 * them in the same order to a new set results in the same iteration order
+	 */
+	private static String[] toKeyValues(Set<ItemAttribute> attributes) {
+		String[] keyValues = new String[attributes.size() * 2];
+		Iterator<ItemAttribute> it = attributes.iterator();
+		for (int i = 0; i < keyValues.length; i += 2) {
+			ItemAttribute attribute = it.next();
+			keyValues[i] = attribute.getKey();
+			keyValues[i + 1] = attribute.getValue();
+		}
+		return keyValues;
+	}
+
+	/**
+	 * Builds a new set from cached keys and values. The set is created with the
+	 * table size that a parsed set ends up with, so that it is not resized
+	 * while it is filled and iterates in the same order
+	 */
+	private static Set<ItemAttribute> toSet(String[] keyValues) {
+		Set<ItemAttribute> attributes = new HashSet<>(tableSize(keyValues.length / 2));
+		for (int i = 0; i < keyValues.length; i += 2) {
+			attributes.add(new ItemAttribute(keyValues[i], keyValues[i + 1]));
+		}
+		return attributes;
+	}
+
+	/**
+	 * The table size of a {@link HashSet} that grows from the default capacity
+	 * to hold the given number of elements
+	 */
+	private static int tableSize(int size) {
+		int tableSize = 16;
+		while (size > tableSize * 3 / 4) {
+			tableSize <<= 1;
+		}
+		return tableSize;
+	}
 
-		String[] attributesSplit = rawAttributes.trim().split(ATTRIBUTES_SPLITTER);
-		for (String s : attributesSplit) {
-			ItemAttribute itemAttributeResource = splitKeyValue(s);
+	private static Set<ItemAttribute> parse(String rawAttributes) {
+		Set<ItemAttribute> attributes = new HashSet<>();
+		int end = trimEnd(rawAttributes, trimStart(rawAttributes, 0, rawAttributes.length()),
+				rawAttributes.length());
+		int start = trimStart(rawAttributes, 0, end);
+		while (start <= end) {
+			int next = rawAttributes.indexOf(ATTRIBUTES_SPLITTER, start);
+			if (next < 0 || next > end) {
+				next = end;
+			}
+			ItemAttribute itemAttributeResource = splitKeyValue(rawAttributes, start, next);
 			if (itemAttributeResource != null) {
 				attributes.add(itemAttributeResource);
 			}
+			start = next + 1;
 		}
 		return attributes;
 	}
@@ -74,20 +150,55 @@ public class AttributeParser {
 	 * @return ReportPortal attribute object instance
 	 */
 	public static ItemAttribute splitKeyValue(String attribute) {
-		if (null == attribute || attribute.trim().isEmpty()) {
+		if (null == attribute) {
 			return null;
 		}
-		String[] keyValue = attribute.split(KEY_VALUE_SPLITTER);
-		if (keyValue.length == 1) {
-			return new ItemAttribute(null, keyValue[0].trim());
-		} else if (keyValue.length == 2) {
-			String key = keyValue[0].trim();
-			if (key.isEmpty()) {
-				key = null;
-			}
-			return new ItemAttribute(key, keyValue[1].trim());
+		return splitKeyValue(attribute, 0, attribute.length());
+	}
+
+	/**
+	 * Parses the attribute between two indexes of a string. Empty parts at the
+	 * end of the attribute are ignored, the same way as
+	 * {@link String#split(String)} drops them
+	 */
+	private static ItemAttribute splitKeyValue(String raw, int start, int end) {
+		if (trimStart(raw, start, end) == end) {
+			return null;
+		}
+		while (end > start && raw.charAt(end - 1) == KEY_VALUE_SPLITTER) {
+			end--;
 		}
-		return null;
+		if (end == start) {
+			return null;
+		}
+		int splitter = raw.indexOf(KEY_VALUE_SPLITTER, start);
+		if (splitter < 0 || splitter >= end) {
+			return new ItemAttribute(null, trim(raw, start, end));
+		}
+		int other = raw.indexOf(KEY_VALUE_SPLITTER, splitter + 1);
+		if (other >= 0 && other < end) {
+			return null;
+		}
+		String key = trim(raw, start, splitter);
+		return new ItemAttribute(key.isEmpty() ? null : key, trim(raw, splitter + 1, end));
+	}
+
+	private static String trim(String raw, int start, int end) {
+		start = trimStart(raw, start, end);
+		return raw.substring(start, trimEnd(raw, start, end));
 	}
 
+	private static int trimStart(String raw, int start, int end) {
+		while (start < end && raw.charAt(start) <= ' ') {
+			start++;
+		}
+		return start;
+	}
+
+	private static int trimEnd(String raw, int start, int end) {
+		while (end > start && raw.charAt(end - 1) <= ' ') {
+			end--;
+		}
+		return end;
+	}
 }
@@ -0,0 +1,96 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.util;
+
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.ClassUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+import io.github.alexopa.reportportalclient.config.RPClientConfig;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creates the {@link ObjectMapper} that a client shares between its message
+ * converters, its error handling and its journal. The mapper has the same
+ * defaults as the one of a Spring <code>MappingJackson2HttpMessageConverter</code>.
+ */
+@Slf4j
+public class ObjectMappers {
+
+	private static final String BLACKBIRD_MODULE = "com.fasterxml.jackson.module.blackbird.BlackbirdModule";
+	private static final String SMILE_FACTORY = "com.fasterxml.jackson.dataformat.smile.SmileFactory";
+
+	private ObjectMappers() {
+		throw new IllegalStateException("Static only class");
+	}
+
+	/**
+	 * Creates a new {@link ObjectMapper}. When Blackbird is enabled and
+	 * <code>jackson-module-blackbird</code> is on the classpath, the mapper uses
+	 * bytecode generated accessors instead of reflection
+	 *
+	 * @param config A {@link RPClientConfig.JsonConfig} with the configuration of
+	 *               the mapper
+	 * @return The {@link ObjectMapper}
+	 */
+	public static ObjectMapper create(final RPClientConfig.JsonConfig config) {
+		return configure(Jackson2ObjectMapperBuilder.json().build(), config);
+	}
+
+	/**
+	 * Creates a new {@link ObjectMapper} for the binary Smile format, with the
+	 * same configuration as the one of {@link #create(RPClientConfig.JsonConfig)}.
+	 * It needs <code>jackson-dataformat-smile</code> on the classpath
+	 *
+	 * @param config A {@link RPClientConfig.JsonConfig} with the configuration of
+	 *               the mapper
+	 * @return The {@link ObjectMapper}
+	 * @throws IllegalStateException If <code>jackson-dataformat-smile</code> is
+	 *                               not on the classpath
+	 */
+	public static ObjectMapper createSmile(final RPClientConfig.JsonConfig config) {
+		if (!ClassUtils.isPresent(SMILE_FACTORY, ObjectMappers.class.getClassLoader())) {
+			throw new IllegalStateException(
+					"The launch archive is encoded as Smile, but " + SMILE_FACTORY + " is not on the classpath");
+		}
+		return configure(Jackson2ObjectMapperBuilder.smile().build(), config);
+	}
+
+	private static ObjectMapper configure(ObjectMapper objectMapper, final RPClientConfig.JsonConfig config) {
+		if (config.isBlackbird()) {
+			if (ClassUtils.isPresent(BLACKBIRD_MODULE, ObjectMappers.class.getClassLoader())) {
+				Blackbird.register(objectMapper);
+			} else {
+				log.warn("Blackbird is enabled but {} is not on the classpath", BLACKBIRD_MODULE);
+			}
+		}
+		return objectMapper;
+	}
+
+	/**
+	 * Keeps the reference to the optional module out of {@link ObjectMappers},
+	 * so that it is resolved only when the module is present
+	 */
+	private static class Blackbird {
+
+		private static void register(ObjectMapper objectMapper) {
+			objectMapper.registerModule(new BlackbirdModule());
+		}
+	}
+}
@@ -0,0 +1,160 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.alexopa.reportportalclient.config.RPClientConfig;
+import io.github.alexopa.reportportalclient.model.launch.FinishLaunchProperties;
+import io.github.alexopa.reportportalclient.model.launch.StartLaunchProperties;
+import io.github.alexopa.reportportalclient.model.testitem.FinishTestItemProperties;
+import io.github.alexopa.reportportalclient.model.testitem.StartTestItemProperties;
+import io.github.alexopa.reportportalclient.rpmodel.EntryCreatedResponse;
+import io.github.alexopa.reportportalclient.rpmodel.FinishLaunchResponse;
+import io.github.alexopa.reportportalclient.stub.StubReportPortalServer;
+import io.github.alexopa.reportportalclient.stub.StubServerConfig;
+
+class RPAsyncClientFinishOrderTest {
+
+	/**
+	 * The uuids of the finish requests, in the order they were sent
+	 */
+	private final List<String> finished = Collections.synchronizedList(new ArrayList<>());
+
+	private StubReportPortalServer stub;
+	private RPAsyncClient client;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		StubServerConfig stubConfig = new StubServerConfig();
+		stubConfig.setLatencyMs(50L);
+		stub = new StubReportPortalServer(stubConfig);
+		RPClientConfig config = new RPClientConfig();
+		config.setEndpoint(stub.getEndpoint());
+		config.setProject("test");
+		config.setApiKey("key");
+		RPClient recording = new RPClient(config) {
+
+			@Override
+			public EntryCreatedResponse finishItem(FinishTestItemProperties props) {
+				finished.add(props.getItemUuid());
+				return super.finishItem(props);
+			}
+
+			@Override
+			public FinishLaunchResponse finishLaunch(FinishLaunchProperties props) {
+				finished.add(props.getLaunchUuid());
+				return super.finishLaunch(props);
+			}
+		};
+		client = new RPAsyncClient(recording, config);
+	}
+
+	@AfterEach
+	void tearDown() {
+		client.close();
+		stub.close();
+	}
+
+	@Test
+	void parentsAreFinishedAfterTheirChildren() throws Exception {
+		String launch = client.startLaunchPipelined(StartLaunchProperties.builder()
+				.name("launch")
+				.startTime(new Date())
+				.build()).getUuid();
+		String suite = startItem(launch, null);
+		String first = startItem(launch, suite);
+		String second = startItem(launch, suite);
+
+		// the parents are finished first, as a parallel runner may do
+		CompletableFuture<FinishLaunchResponse> launchFinished = client.finishLaunch(FinishLaunchProperties.builder()
+				.launchUuid(launch)
+				.endTime(new Date())
+				.build());
+		CompletableFuture<EntryCreatedResponse> suiteFinished = finishItem(launch, suite);
+		Thread.sleep(200);
+		assertThat(finished).isEmpty();
+
+		finishItem(launch, second);
+		finishItem(launch, first);
+		launchFinished.get(10, TimeUnit.SECONDS);
+
+		assertThat(suiteFinished).isCompleted();
+		assertThat(finished).hasSize(4);
+		assertThat(finished.subList(0, 2)).containsExactlyInAnyOrder(first, second);
+		assertThat(finished.subList(2, 4)).containsExactly(suite, launch);
+	}
+
+	@Test
+	void aFailedChildDoesNotHoldBackItsParent() throws Exception {
+		String launch = client.startLaunchPipelined(StartLaunchProperties.builder()
+				.name("launch")
+				.startTime(new Date())
+				.build()).getUuid();
+		String suite = startItem(launch, null);
+		StubServerConfig failing = new StubServerConfig();
+		failing.setErrorRate(1.0);
+		failing.setErrorStatus(400);
+		client.flush(Duration.ofSeconds(10));
+		stub.setConfig(failing);
+		CompletableFuture<EntryCreatedResponse> child = client.startItem(StartTestItemProperties.builder()
+				.launchUuid(launch)
+				.parentUuid(suite)
+				.name("child")
+				.startTime(new Date())
+				.type("STEP")
+				.build());
+		assertThat(child).failsWithin(10, TimeUnit.SECONDS);
+		stub.setConfig(new StubServerConfig());
+
+		finishItem(launch, suite).get(10, TimeUnit.SECONDS);
+
+		assertThat(finished).containsExactly(suite);
+	}
+
+	private String startItem(String launch, String parent) {
+		return client.startItemPipelined(StartTestItemProperties.builder()
+				.launchUuid(launch)
+				.parentUuid(parent)
+				.name("item")
+				.startTime(new Date())
+				.type(parent == null ? "SUITE" : "STEP")
+				.build()).getUuid();
+	}
+
+	private CompletableFuture<EntryCreatedResponse> finishItem(String launch, String item) {
+		return client.finishItem(FinishTestItemProperties.builder()
+				.launchUuid(launch)
+				.itemUuid(item)
+				.endTime(new Date())
+				.status("PASSED")
+				.build());
+	}
+}
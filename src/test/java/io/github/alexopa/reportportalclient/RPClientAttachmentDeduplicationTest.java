@@ -0,0 +1,123 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.alexopa.reportportalclient.attachment.DuplicateAttachmentMode;
+import io.github.alexopa.reportportalclient.config.RPClientConfig;
+import io.github.alexopa.reportportalclient.model.log.AddFileAttachmentProperties;
+import io.github.alexopa.reportportalclient.rpmodel.EntryCreatedResponse;
+import io.github.alexopa.reportportalclient.stub.StubOperation;
+import io.github.alexopa.reportportalclient.stub.StubReportPortalServer;
+
+class RPClientAttachmentDeduplicationTest {
+
+	@TempDir
+	Path directory;
+
+	private StubReportPortalServer stub;
+	private Path file;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		stub = new StubReportPortalServer();
+		file = Files.writeString(directory.resolve("screenshot.txt"), "the same content");
+	}
+
+	@AfterEach
+	void tearDown() {
+		stub.close();
+	}
+
+	@Test
+	void uploadReturnsTheIdOfTheLogEntry() {
+		try (RPClient client = new RPClient(config(false, DuplicateAttachmentMode.SKIP))) {
+			EntryCreatedResponse rs = client.addFileAttachment(attachment(UUID.randomUUID().toString()));
+
+			assertThat(rs.getId()).isNotNull();
+		}
+	}
+
+	@Test
+	void skipsADuplicateWithinTheSameLaunch() {
+		String launchUuid = UUID.randomUUID().toString();
+		try (RPClient client = new RPClient(config(true, DuplicateAttachmentMode.SKIP))) {
+			EntryCreatedResponse first = client.addFileAttachment(attachment(launchUuid));
+			EntryCreatedResponse second = client.addFileAttachment(attachment(launchUuid));
+			EntryCreatedResponse third = client.addFileAttachment(attachment(launchUuid));
+
+			assertThat(first.getId()).isNotNull();
+			assertThat(second.getId()).isEqualTo(first.getId());
+			assertThat(third.getId()).isEqualTo(first.getId());
+		}
+		assertThat(stub.getStatistics(StubOperation.ADD_FILE_ATTACHMENT).getRequests()).isEqualTo(1);
+		assertThat(stub.getStatistics(StubOperation.ADD_LOG).getRequests()).isZero();
+	}
+
+	@Test
+	void logsADuplicateInsteadOfUploadingIt() {
+		String launchUuid = UUID.randomUUID().toString();
+		try (RPClient client = new RPClient(config(true, DuplicateAttachmentMode.LOG_ONLY))) {
+			client.addFileAttachment(attachment(launchUuid));
+			client.addFileAttachment(attachment(launchUuid));
+		}
+		assertThat(stub.getStatistics(StubOperation.ADD_FILE_ATTACHMENT).getRequests()).isEqualTo(1);
+		assertThat(stub.getStatistics(StubOperation.ADD_LOG).getRequests()).isEqualTo(1);
+	}
+
+	@Test
+	void uploadsTheSameContentToAnotherLaunch() {
+		try (RPClient client = new RPClient(config(true, DuplicateAttachmentMode.SKIP))) {
+			client.addFileAttachment(attachment(UUID.randomUUID().toString()));
+			client.addFileAttachment(attachment(UUID.randomUUID().toString()));
+		}
+		assertThat(stub.getStatistics(StubOperation.ADD_FILE_ATTACHMENT).getRequests()).isEqualTo(2);
+	}
+
+	private RPClientConfig config(boolean deduplication, DuplicateAttachmentMode mode) {
+		RPClientConfig config = new RPClientConfig();
+		config.setEndpoint(stub.getEndpoint());
+		config.setProject("test");
+		config.setApiKey("key");
+		config.getAttachmentConfig().setDeduplicationEnabled(deduplication);
+		config.getAttachmentConfig().setDuplicateMode(mode);
+		return config;
+	}
+
+	private AddFileAttachmentProperties attachment(String launchUuid) {
+		return AddFileAttachmentProperties.builder()
+				.launchUuid(launchUuid)
+				.itemUuid(UUID.randomUUID().toString())
+				.level("INFO")
+				.time(new Date())
+				.message("screenshot")
+				.fullPath(file.toString())
+				.build();
+	}
+}
@@ -0,0 +1,75 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+import io.github.alexopa.reportportalclient.config.RPClientConfig;
+import io.github.alexopa.reportportalclient.model.launch.StartLaunchProperties;
+import io.github.alexopa.reportportalclient.rpmodel.StartLaunchResponse;
+import io.github.alexopa.reportportalclient.stub.StubReportPortalServer;
+
+class RPClientObjectMapperTest {
+
+	@Test
+	void responsesAreReadWithTheSharedObjectMapper() throws IOException {
+		try (StubReportPortalServer stub = new StubReportPortalServer()) {
+			RPClientConfig config = new RPClientConfig();
+			config.setEndpoint(stub.getEndpoint());
+			config.setProject("test");
+			config.setApiKey("key");
+			try (RPClient client = new RPClient(config)) {
+				client.getObjectMapper().registerModule(
+						new SimpleModule().addDeserializer(StartLaunchResponse.class, new MarkingDeserializer()));
+
+				StartLaunchResponse rs = client.startLaunch(StartLaunchProperties.builder()
+						.name("launch")
+						.startTime(new Date())
+						.build());
+
+				assertThat(rs.getId()).isEqualTo(MarkingDeserializer.ID);
+			}
+		}
+	}
+
+	/**
+	 * Replaces the id of the response, to tell that it was read by the mapper
+	 * of the client
+	 */
+	private static class MarkingDeserializer extends JsonDeserializer<StartLaunchResponse> {
+
+		private static final String ID = "read-by-the-shared-mapper";
+
+		@Override
+		public StartLaunchResponse deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+			p.skipChildren();
+			StartLaunchResponse rs = new StartLaunchResponse();
+			rs.setId(ID);
+			return rs;
+		}
+	}
+}
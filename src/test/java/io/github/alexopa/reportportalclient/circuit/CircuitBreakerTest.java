@@ -0,0 +1,162 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.circuit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import io.github.alexopa.reportportalclient.config.RPClientConfig;
+import io.github.alexopa.reportportalclient.exception.CircuitBreakerOpenException;
+import io.github.alexopa.reportportalclient.exception.ReportPortalClientException;
+
+class CircuitBreakerTest {
+
+	private final List<String> transitions = new ArrayList<>();
+
+	@Test
+	void opensWhenTheFailureRateReachesTheThreshold() {
+		CircuitBreaker breaker = breaker(60000L);
+
+		succeed(breaker);
+		fail(breaker, HttpStatus.SERVICE_UNAVAILABLE);
+		fail(breaker, HttpStatus.SERVICE_UNAVAILABLE);
+		assertThat(breaker.getStatistics().getState()).isEqualTo(CircuitState.CLOSED);
+		fail(breaker, HttpStatus.SERVICE_UNAVAILABLE);
+
+		assertThat(breaker.getStatistics().getState()).isEqualTo(CircuitState.OPEN);
+		assertThatThrownBy(() -> succeed(breaker)).isInstanceOf(CircuitBreakerOpenException.class);
+		assertThat(breaker.getStatistics().getOpened()).isEqualTo(1);
+		assertThat(breaker.getStatistics().getShortCircuited()).isEqualTo(1);
+		assertThat(transitions).containsExactly("CLOSED->OPEN");
+	}
+
+	@Test
+	void rejectedCallsDoNotOpenTheBreaker() {
+		CircuitBreaker breaker = breaker(60000L);
+
+		for (int i = 0; i < 10; i++) {
+			fail(breaker, HttpStatus.BAD_REQUEST);
+		}
+
+		assertThat(breaker.getStatistics().getState()).isEqualTo(CircuitState.CLOSED);
+		assertThat(transitions).isEmpty();
+	}
+
+	@Test
+	void closesWhenTheProbeCallsSucceed() throws Exception {
+		CircuitBreaker breaker = breaker(50L);
+		open(breaker);
+		Thread.sleep(100);
+
+		succeed(breaker);
+		assertThat(breaker.getStatistics().getState()).isEqualTo(CircuitState.HALF_OPEN);
+		succeed(breaker);
+
+		assertThat(breaker.getStatistics().getState()).isEqualTo(CircuitState.CLOSED);
+		assertThat(transitions).containsExactly("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED");
+	}
+
+	@Test
+	void opensAgainWhenAProbeCallFails() throws Exception {
+		CircuitBreaker breaker = breaker(50L);
+		open(breaker);
+		Thread.sleep(100);
+
+		fail(breaker, HttpStatus.BAD_GATEWAY);
+
+		assertThat(breaker.getStatistics().getState()).isEqualTo(CircuitState.OPEN);
+		assertThat(transitions).containsExactly("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->OPEN");
+	}
+
+	@Test
+	void opensWhenTheCallsAreSlow() {
+		RPClientConfig.CircuitBreakerConfig config = config(60000L);
+		config.setSlowCallDurationMs(10L);
+		CircuitBreaker breaker = new CircuitBreaker(config);
+
+		for (int i = 0; i < 4; i++) {
+			breaker.execute(() -> {
+				sleep(20);
+				return "slow";
+			});
+		}
+
+		assertThat(breaker.getStatistics().getState()).isEqualTo(CircuitState.OPEN);
+	}
+
+	@Test
+	void listenersAreNotifiedWithoutTheLockOfTheBreaker() {
+		CircuitBreaker breaker = new CircuitBreaker(config(60000L));
+		List<Boolean> locked = new ArrayList<>();
+		breaker.addListener((from, to) -> {
+			locked.add(Thread.holdsLock(breaker));
+			breaker.getStatistics();
+		});
+
+		open(breaker);
+
+		assertThat(locked).containsExactly(false);
+	}
+
+	private CircuitBreaker breaker(long openDurationMs) {
+		CircuitBreaker breaker = new CircuitBreaker(config(openDurationMs));
+		breaker.addListener((from, to) -> transitions.add(from + "->" + to));
+		return breaker;
+	}
+
+	private static RPClientConfig.CircuitBreakerConfig config(long openDurationMs) {
+		RPClientConfig.CircuitBreakerConfig config = new RPClientConfig.CircuitBreakerConfig();
+		config.setEnabled(true);
+		config.setWindowSize(4);
+		config.setMinimumCalls(4);
+		config.setFailureRateThreshold(0.5);
+		config.setOpenDurationMs(openDurationMs);
+		config.setHalfOpenCalls(2);
+		return config;
+	}
+
+	private static void open(CircuitBreaker breaker) {
+		for (int i = 0; i < 4; i++) {
+			fail(breaker, HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+		assertThat(breaker.getStatistics().getState()).isEqualTo(CircuitState.OPEN);
+	}
+
+	private static void succeed(CircuitBreaker breaker) {
+		breaker.execute(() -> "ok");
+	}
+
+	private static void fail(CircuitBreaker breaker, HttpStatus status) {
+		assertThatThrownBy(() -> breaker.execute(() -> {
+			throw new ReportPortalClientException(status, "failed");
+		})).isInstanceOf(ReportPortalClientException.class);
+	}
+
+	private static void sleep(long ms) {
+		try {
+			Thread.sleep(ms);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
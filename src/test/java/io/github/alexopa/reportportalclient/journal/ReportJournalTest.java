@@ -0,0 +1,186 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.journal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.alexopa.reportportalclient.config.RPClientConfig;
+import io.github.alexopa.reportportalclient.model.log.AddLogProperties;
+import io.github.alexopa.reportportalclient.util.ObjectMappers;
+
+class ReportJournalTest {
+
+	private final ObjectMapper objectMapper = ObjectMappers.create(new RPClientConfig.JsonConfig());
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void unacknowledgedRecordsAreReplayedAfterReopening() throws Exception {
+		try (ReportJournal journal = new ReportJournal(config(), objectMapper)) {
+			journal.append(JournalOperation.ADD_LOG, log("first"));
+			journal.append(JournalOperation.ADD_LOG, log("second"));
+			journal.append(JournalOperation.ADD_LOG, log("third"));
+			journal.acknowledge(1);
+		}
+
+		try (ReportJournal journal = new ReportJournal(config(), objectMapper)) {
+			assertThat(journal.getAcknowledgedSequence()).isEqualTo(1);
+			assertThat(journal.getLastSequence()).isEqualTo(3);
+			assertThat(messages(journal)).containsExactly("second", "third");
+		}
+	}
+
+	@Test
+	void aTruncatedRecordIsDroppedOnRecovery() throws Exception {
+		try (ReportJournal journal = new ReportJournal(config(), objectMapper)) {
+			journal.append(JournalOperation.ADD_LOG, log("first"));
+			journal.append(JournalOperation.ADD_LOG, log("torn"));
+		}
+		try (FileChannel channel = FileChannel.open(segment(), StandardOpenOption.WRITE)) {
+			channel.truncate(channel.size() - 5);
+		}
+
+		try (ReportJournal journal = new ReportJournal(config(), objectMapper)) {
+			assertThat(journal.getLastSequence()).isEqualTo(1);
+			journal.append(JournalOperation.ADD_LOG, log("second"));
+			assertThat(messages(journal)).containsExactly("first", "second");
+		}
+	}
+
+	@Test
+	void aRecordWithABadChecksumIsDroppedOnRecovery() throws Exception {
+		try (ReportJournal journal = new ReportJournal(config(), objectMapper)) {
+			journal.append(JournalOperation.ADD_LOG, log("first"));
+			journal.append(JournalOperation.ADD_LOG, log("corrupted"));
+		}
+		try (FileChannel channel = FileChannel.open(segment(), StandardOpenOption.WRITE)) {
+			// the end of the payload no longer matches the checksum of the record
+			channel.write(ByteBuffer.wrap("xx".getBytes(StandardCharsets.UTF_8)), channel.size() - 4);
+		}
+
+		try (ReportJournal journal = new ReportJournal(config(), objectMapper)) {
+			assertThat(journal.getLastSequence()).isEqualTo(1);
+			assertThat(messages(journal)).containsExactly("first");
+		}
+	}
+
+	@Test
+	void acknowledgedSegmentsAreDeleted() throws Exception {
+		RPClientConfig.JournalConfig config = config();
+		config.setSegmentSizeBytes(1);
+		try (ReportJournal journal = new ReportJournal(config, objectMapper)) {
+			journal.append(JournalOperation.ADD_LOG, log("first"));
+			journal.append(JournalOperation.ADD_LOG, log("second"));
+			journal.append(JournalOperation.ADD_LOG, log("third"));
+			assertThat(segments()).hasSize(3);
+
+			journal.acknowledge(2);
+
+			assertThat(segments()).hasSize(1);
+			assertThat(messages(journal)).containsExactly("third");
+		}
+	}
+
+	@Test
+	void deadLettersAreAppendedAsJsonLines() throws Exception {
+		try (ReportJournal journal = new ReportJournal(config(), objectMapper)) {
+			journal.append(JournalOperation.ADD_LOG, log("rejected"));
+			try (ReportJournal.Reader reader = journal.reader()) {
+				journal.deadLetter(reader.next(1000), "rejected by ReportPortal");
+			}
+		}
+
+		List<String> lines = Files.readAllLines(directory.resolve("dead-letters.jsonl"));
+		assertThat(lines).hasSize(1);
+		JsonNode deadLetter = objectMapper.readTree(lines.get(0));
+		assertThat(deadLetter.get("sequence").asLong()).isEqualTo(1);
+		assertThat(deadLetter.get("operation").asText()).isEqualTo("ADD_LOG");
+		assertThat(deadLetter.get("properties").get("message").asText()).isEqualTo("rejected");
+		assertThat(deadLetter.get("error").asText()).isEqualTo("rejected by ReportPortal");
+	}
+
+	@Test
+	void aLockedDirectoryIsNotUsedByAnotherJournal() {
+		try (ReportJournal first = new ReportJournal(config(), objectMapper);
+				ReportJournal second = new ReportJournal(config(), objectMapper)) {
+			first.append(JournalOperation.ADD_LOG, log("first"));
+			second.append(JournalOperation.ADD_LOG, log("second"));
+
+			assertThat(Files.exists(directory.resolve("instance-1").resolve("checkpoint"))).isTrue();
+			assertThat(first.getLastSequence()).isEqualTo(1);
+			assertThat(second.getLastSequence()).isEqualTo(1);
+		}
+	}
+
+	private RPClientConfig.JournalConfig config() {
+		RPClientConfig.JournalConfig config = new RPClientConfig.JournalConfig();
+		config.setEnabled(true);
+		config.setDirectory(directory.toString());
+		return config;
+	}
+
+	private Path segment() throws IOException {
+		List<Path> segments = segments();
+		return segments.get(segments.size() - 1);
+	}
+
+	private List<Path> segments() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(f -> f.getFileName().toString().endsWith(".journal")).sorted().toList();
+		}
+	}
+
+	private static List<String> messages(ReportJournal journal) throws Exception {
+		List<String> messages = new ArrayList<>();
+		try (ReportJournal.Reader reader = journal.reader()) {
+			JournalRecord record;
+			while ((record = reader.next(100)) != null) {
+				messages.add(record.getProperties().get("message").asText());
+			}
+		}
+		return messages;
+	}
+
+	private static AddLogProperties log(String message) {
+		return AddLogProperties.builder()
+				.launchId("launch")
+				.itemId("item")
+				.level("INFO")
+				.time(new Date())
+				.message(message)
+				.build();
+	}
+}
@@ -0,0 +1,149 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.journal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.alexopa.reportportalclient.RPClient;
+import io.github.alexopa.reportportalclient.config.RPClientConfig;
+import io.github.alexopa.reportportalclient.model.log.AddFileAttachmentProperties;
+import io.github.alexopa.reportportalclient.model.log.AddLogProperties;
+import io.github.alexopa.reportportalclient.rpmodel.EntryCreatedResponse;
+import io.github.alexopa.reportportalclient.stub.StubOperation;
+import io.github.alexopa.reportportalclient.stub.StubReportPortalServer;
+import io.github.alexopa.reportportalclient.stub.StubServerConfig;
+
+class ReportSpoolTest {
+
+	@TempDir
+	Path directory;
+
+	private StubReportPortalServer stub;
+	private RPClientConfig config;
+	private RPClient client;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		stub = new StubReportPortalServer();
+		config = new RPClientConfig();
+		config.setEndpoint(stub.getEndpoint());
+		config.setProject("test");
+		config.setApiKey("key");
+		config.getJournalConfig().setEnabled(true);
+		config.getJournalConfig().setDirectory(directory.toString());
+		config.getJournalConfig().setRetryDelayMs(10);
+		config.getJournalConfig().setMaxAttempts(3);
+		client = new RPClient(config);
+	}
+
+	@AfterEach
+	void tearDown() {
+		client.close();
+		stub.close();
+	}
+
+	@Test
+	void aMissingAttachmentDoesNotBlockTheNextRecords() throws Exception {
+		try (ReportSpool spool = new ReportSpool(client, config.getJournalConfig())) {
+			CompletableFuture<EntryCreatedResponse> attachment = spool.submit(JournalOperation.ADD_FILE_ATTACHMENT,
+					AddFileAttachmentProperties.builder()
+							.launchUuid("launch")
+							.itemUuid("item")
+							.level("INFO")
+							.time(new Date())
+							.fullPath(directory.resolve("deleted.png").toString())
+							.build());
+			CompletableFuture<EntryCreatedResponse> log = spool.submit(JournalOperation.ADD_LOG, log("after"));
+
+			assertThat(log.get(10, TimeUnit.SECONDS).getId()).isNotNull();
+			assertThatThrownBy(() -> attachment.get(10, TimeUnit.SECONDS))
+					.isInstanceOf(ExecutionException.class)
+					.hasCauseInstanceOf(IllegalStateException.class);
+		}
+		assertThat(stub.getStatistics(StubOperation.ADD_FILE_ATTACHMENT).getRequests()).isZero();
+		assertThat(Files.readAllLines(directory.resolve("dead-letters.jsonl"))).hasSize(1);
+	}
+
+	@Test
+	void aRejectedRecordIsNotRetried() throws Exception {
+		stub.setConfig(failing(400));
+		try (ReportSpool spool = new ReportSpool(client, config.getJournalConfig())) {
+			CompletableFuture<EntryCreatedResponse> log = spool.submit(JournalOperation.ADD_LOG, log("rejected"));
+
+			assertThatThrownBy(() -> log.get(10, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+		}
+		assertThat(stub.getStatistics(StubOperation.ADD_LOG).getRequests()).isEqualTo(1);
+		assertThat(Files.readAllLines(directory.resolve("dead-letters.jsonl"))).hasSize(1);
+	}
+
+	@Test
+	void aFailingRecordIsRetriedUpToTheMaximumAttempts() throws Exception {
+		stub.setConfig(failing(503));
+		try (ReportSpool spool = new ReportSpool(client, config.getJournalConfig())) {
+			CompletableFuture<EntryCreatedResponse> log = spool.submit(JournalOperation.ADD_LOG, log("failing"));
+
+			assertThatThrownBy(() -> log.get(10, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+		}
+		assertThat(stub.getStatistics(StubOperation.ADD_LOG).getRequests()).isEqualTo(3);
+		assertThat(Files.readAllLines(directory.resolve("dead-letters.jsonl"))).hasSize(1);
+	}
+
+	@Test
+	void aFailingRecordIsSentOnceReportPortalRecovers() throws Exception {
+		config.getJournalConfig().setMaxAttempts(1000);
+		stub.setConfig(failing(503));
+		try (ReportSpool spool = new ReportSpool(client, config.getJournalConfig())) {
+			CompletableFuture<EntryCreatedResponse> log = spool.submit(JournalOperation.ADD_LOG, log("delayed"));
+			Thread.sleep(100);
+			stub.setConfig(new StubServerConfig());
+
+			assertThat(log.get(10, TimeUnit.SECONDS).getId()).isNotNull();
+		}
+		assertThat(directory.resolve("dead-letters.jsonl")).doesNotExist();
+	}
+
+	private static StubServerConfig failing(int status) {
+		StubServerConfig failing = new StubServerConfig();
+		failing.setErrorRate(1.0);
+		failing.setErrorStatus(status);
+		return failing;
+	}
+
+	private static AddLogProperties log(String message) {
+		return AddLogProperties.builder()
+				.launchId("launch")
+				.itemId("item")
+				.level("INFO")
+				.time(new Date())
+				.message(message)
+				.build();
+	}
+}
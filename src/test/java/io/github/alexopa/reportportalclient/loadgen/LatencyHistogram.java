@@ -0,0 +1,96 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.loadgen;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of latencies in microseconds with a fixed number of buckets.
+ * Latencies below 128 microseconds are counted exactly, and longer ones in buckets of
+ * 1/64 of their power of two, so that every percentile is accurate to about
+ * 1.6% and the memory used does not depend on the number of samples. The
+ * histogram can be recorded into from any number of threads.
+ */
+class LatencyHistogram {
+
+	private static final int LINEAR_BUCKETS = 128;
+	private static final int SUB_BUCKET_BITS = 6;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int EXPONENTS = 40;
+
+	private final AtomicLongArray counts = new AtomicLongArray(LINEAR_BUCKETS + EXPONENTS * SUB_BUCKETS);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+
+	void record(long micros) {
+		long value = Math.max(0L, micros);
+		counts.incrementAndGet(Math.min(index(value), counts.length() - 1));
+		count.increment();
+		sum.add(value);
+	}
+
+	private static int index(long value) {
+		if (value < LINEAR_BUCKETS) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		return LINEAR_BUCKETS + (exponent - 1) * SUB_BUCKETS + (int) ((value >> exponent) - SUB_BUCKETS);
+	}
+
+	/**
+	 * @return The highest value that falls in a bucket
+	 */
+	private static long highestValue(int index) {
+		if (index < LINEAR_BUCKETS) {
+			return index;
+		}
+		int exponent = (index - LINEAR_BUCKETS) / SUB_BUCKETS + 1;
+		long subBucket = (index - LINEAR_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+		return ((subBucket + 1) << exponent) - 1;
+	}
+
+	long getCount() {
+		return count.sum();
+	}
+
+	long getMeanMicros() {
+		long n = count.sum();
+		return n == 0 ? 0 : sum.sum() / n;
+	}
+
+	/**
+	 * @param quantile The quantile, ie. 0.99
+	 * @return The latency in microseconds below which the given quantile of the
+	 *         samples falls
+	 */
+	long getPercentileMicros(double quantile) {
+		long n = count.sum();
+		if (n == 0) {
+			return 0;
+		}
+		long target = Math.max(1L, (long) Math.ceil(quantile * n));
+		long seen = 0;
+		for (int i = 0; i < counts.length(); i++) {
+			seen += counts.get(i);
+			if (seen >= target) {
+				return highestValue(i);
+			}
+		}
+		return highestValue(counts.length() - 1);
+	}
+}
@@ -0,0 +1,293 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.loadgen;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import io.github.alexopa.reportportalclient.RPClient;
+import io.github.alexopa.reportportalclient.attachment.AttachmentSource;
+import io.github.alexopa.reportportalclient.config.RPClientConfig;
+import io.github.alexopa.reportportalclient.model.launch.FinishLaunchProperties;
+import io.github.alexopa.reportportalclient.model.launch.StartLaunchProperties;
+import io.github.alexopa.reportportalclient.model.log.AddFileAttachmentProperties;
+import io.github.alexopa.reportportalclient.model.log.AddLogProperties;
+import io.github.alexopa.reportportalclient.model.testitem.FinishTestItemProperties;
+import io.github.alexopa.reportportalclient.model.testitem.StartTestItemProperties;
+import io.github.alexopa.reportportalclient.stub.StubReportPortalServer;
+import io.github.alexopa.reportportalclient.stub.StubServerConfig;
+import io.github.alexopa.reportportalclient.transport.TransportType;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reports a synthetic launch through an {@link RPClient}, to measure the
+ * throughput and latency of the client and of the ReportPortal instance behind
+ * it. The launch is a tree of items of a configurable depth and fan-out, with
+ * log messages and attachments on its steps. Independent subtrees are reported
+ * concurrently by a fixed number of threads, and every item is finished after
+ * its children, like a test framework would do.
+ * <p>
+ * It can be run from the command line:
+ *
+ * <pre>
+ * java io.github.alexopa.reportportalclient.loadgen.LoadGenerator
+ *     [--endpoint=&lt;url&gt; --project=&lt;project&gt; --api-key=&lt;key&gt;]
+ *     [--depth=3] [--fan-out=5] [--logs-per-item=20] [--log-batch-size=1]
+ *     [--log-message-bytes=200] [--attachments-per-item=0] [--attachment-bytes=65536]
+ *     [--threads=8] [--transport=APACHE|JDK] [--max-connections=50] [--stub-latency-ms=0]
+ * </pre>
+ *
+ * Without an endpoint, the launch is reported to a
+ * {@link StubReportPortalServer} in the same JVM. The api key can also be
+ * passed in the <code>RP_API_KEY</code> environment variable. At the end, the
+ * calls, errors, throughput, p50, p99 and p99.9 latency and the bytes sent are
+ * reported for every operation.
+ */
+@Slf4j
+public class LoadGenerator {
+
+	private static final String API_KEY_VARIABLE = "RP_API_KEY";
+	private static final String THREAD_NAME_PREFIX = "rp-load-generator-";
+	private static final String[] LEVELS = { "INFO", "DEBUG", "WARN", "ERROR" };
+
+	private final RPClient client;
+	private final LoadGeneratorConfig config;
+	private final byte[] attachment;
+	private final String message;
+
+	/**
+	 * Creates a new {@link LoadGenerator}
+	 *
+	 * @param client The {@link RPClient} to report the launch with
+	 * @param config A {@link LoadGeneratorConfig} with the shape of the launch
+	 */
+	public LoadGenerator(final RPClient client, final LoadGeneratorConfig config) {
+		this.client = client;
+		this.config = config;
+		this.attachment = new byte[Math.max(0, config.getAttachmentBytes())];
+		ThreadLocalRandom.current().nextBytes(attachment);
+		this.message = RandomStringUtils.insecure().nextAlphanumeric(Math.max(1, config.getLogMessageBytes()));
+	}
+
+	/**
+	 * Reports a whole launch and waits for it to be finished
+	 *
+	 * @return The uuid of the launch
+	 */
+	public String run() {
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, config.getThreads()),
+				new CustomizableThreadFactory(THREAD_NAME_PREFIX));
+		try {
+			String launch = UUID.randomUUID().toString();
+			client.startLaunch(StartLaunchProperties.builder()
+					.uuid(launch)
+					.name("load-generator")
+					.description(String.format("depth %d, fan-out %d, %d logs per item", config.getDepth(),
+							config.getFanOut(), config.getLogsPerItem()))
+					.startTime(new Date())
+					.build());
+			children(launch, null, 1, executor).join();
+			client.finishLaunch(FinishLaunchProperties.builder().launchUuid(launch).endTime(new Date()).build());
+			return launch;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private CompletableFuture<Void> children(String launch, String parent, int level, ExecutorService executor) {
+		List<CompletableFuture<Void>> children = new ArrayList<>(config.getFanOut());
+		for (int i = 0; i < config.getFanOut(); i++) {
+			String name = (level == config.getDepth() ? "step-" : "suite-") + level + "-" + i;
+			children.add(item(launch, parent, name, level, executor)
+					// a failed subtree does not stop its siblings and its parent from finishing
+					.exceptionally(e -> null));
+		}
+		return CompletableFuture.allOf(children.toArray(new CompletableFuture[0]));
+	}
+
+	private CompletableFuture<Void> item(String launch, String parent, String name, int level,
+			ExecutorService executor) {
+		boolean step = level >= config.getDepth();
+		if (step) {
+			return CompletableFuture.runAsync(() -> {
+				String uuid = startItem(launch, parent, name, "STEP");
+				logsAndAttachments(launch, uuid);
+				finishItem(launch, uuid);
+			}, executor);
+		}
+		return CompletableFuture.supplyAsync(() -> startItem(launch, parent, name, level == 1 ? "SUITE" : "TEST"),
+				executor)
+				.thenCompose(uuid -> children(launch, uuid, level + 1, executor)
+						.thenRunAsync(() -> finishItem(launch, uuid), executor));
+	}
+
+	private String startItem(String launch, String parent, String name, String type) {
+		String uuid = UUID.randomUUID().toString();
+		client.startItem(StartTestItemProperties.builder()
+				.uuid(uuid)
+				.launchUuid(launch)
+				.parentUuid(parent)
+				.name(name)
+				.type(type)
+				.codeRef("io.github.alexopa.loadgen." + name)
+				.attributes("generator:load;type:" + StringUtils.lowerCase(type))
+				.startTime(new Date())
+				.build());
+		return uuid;
+	}
+
+	private void finishItem(String launch, String uuid) {
+		client.finishItem(FinishTestItemProperties.builder()
+				.launchUuid(launch)
+				.itemUuid(uuid)
+				.status("PASSED")
+				.endTime(new Date())
+				.build());
+	}
+
+	private void logsAndAttachments(String launch, String item) {
+		int batchSize = Math.max(1, config.getLogBatchSize());
+		List<AddLogProperties> batch = new ArrayList<>(batchSize);
+		for (int i = 0; i < config.getLogsPerItem(); i++) {
+			batch.add(AddLogProperties.builder()
+					.launchId(launch)
+					.itemId(item)
+					.level(LEVELS[i % LEVELS.length])
+					.time(new Date())
+					.message(message)
+					.build());
+			if (batch.size() == batchSize) {
+				sendLogs(batch);
+				batch.clear();
+			}
+		}
+		if (!batch.isEmpty()) {
+			sendLogs(batch);
+		}
+		for (int i = 0; i < config.getAttachmentsPerItem(); i++) {
+			client.addFileAttachment(AddFileAttachmentProperties.builder()
+					.launchUuid(launch)
+					.itemUuid(item)
+					.level("INFO")
+					.time(new Date())
+					.message("attachment-" + i)
+					.contentType("application/octet-stream")
+					.build(), AttachmentSource.of(new ByteArrayInputStream(attachment), "attachment-" + i + ".bin"));
+		}
+	}
+
+	private void sendLogs(List<AddLogProperties> batch) {
+		if (batch.size() == 1) {
+			client.addLog(batch.get(0));
+		} else {
+			client.addLogs(batch);
+		}
+	}
+
+	/**
+	 * @return The number of items of the launch
+	 */
+	private long items() {
+		long items = 0;
+		long level = 1;
+		for (int i = 0; i < config.getDepth(); i++) {
+			level *= config.getFanOut();
+			items += level;
+		}
+		return items;
+	}
+
+	/**
+	 * Reports a synthetic launch as given in the arguments and prints the
+	 * report
+	 *
+	 * @param args The options of the command
+	 * @throws IOException If the stub server cannot be started
+	 */
+	public static void main(String[] args) throws IOException {
+		RPClientConfig clientConfig = new RPClientConfig();
+		clientConfig.setApiKey(StringUtils.defaultIfBlank(System.getenv(API_KEY_VARIABLE), "load-generator"));
+		clientConfig.setProject("load-generator");
+		LoadGeneratorConfig config = new LoadGeneratorConfig();
+		StubServerConfig stubConfig = new StubServerConfig();
+
+		for (String arg : args) {
+			String name = StringUtils.substringBefore(arg, "=");
+			String value = StringUtils.substringAfter(arg, "=");
+			switch (name) {
+				case "--endpoint" -> clientConfig.setEndpoint(value);
+				case "--project" -> clientConfig.setProject(value);
+				case "--api-key" -> clientConfig.setApiKey(value);
+				case "--depth" -> config.setDepth(Integer.parseInt(value));
+				case "--fan-out" -> config.setFanOut(Integer.parseInt(value));
+				case "--logs-per-item" -> config.setLogsPerItem(Integer.parseInt(value));
+				case "--log-batch-size" -> config.setLogBatchSize(Integer.parseInt(value));
+				case "--log-message-bytes" -> config.setLogMessageBytes(Integer.parseInt(value));
+				case "--attachments-per-item" -> config.setAttachmentsPerItem(Integer.parseInt(value));
+				case "--attachment-bytes" -> config.setAttachmentBytes(Integer.parseInt(value));
+				case "--threads" -> config.setThreads(Integer.parseInt(value));
+				case "--transport" -> clientConfig.getConnectionConfig()
+						.setTransport(TransportType.valueOf(value));
+				case "--max-connections" -> {
+					clientConfig.getConnectionConfig().setMaxConnectionsTotal(Integer.parseInt(value));
+					clientConfig.getConnectionConfig().setMaxConnectionsPerRoute(Integer.parseInt(value));
+				}
+				case "--stub-latency-ms" -> stubConfig.setLatencyMs(Long.parseLong(value));
+				default -> {
+					System.err.println("Unknown argument " + arg);
+					System.exit(2);
+					return;
+				}
+			}
+		}
+
+		StubReportPortalServer stub = null;
+		if (StringUtils.isBlank(clientConfig.getEndpoint())) {
+			stub = new StubReportPortalServer(stubConfig);
+			clientConfig.setEndpoint(stub.getEndpoint());
+			log.info("No endpoint given, reporting to a stub server at {}", stub.getEndpoint());
+		}
+
+		LoadGeneratorMetrics metrics = new LoadGeneratorMetrics();
+		try (RPClient client = new RPClient(clientConfig, metrics)) {
+			LoadGenerator generator = new LoadGenerator(client, config);
+			log.info("Reporting a launch of {} items and {} log messages with {} threads", generator.items(),
+					(long) Math.pow(config.getFanOut(), config.getDepth()) * config.getLogsPerItem(),
+					config.getThreads());
+			long start = System.nanoTime();
+			String launch = generator.run();
+			long elapsed = System.nanoTime() - start;
+			log.info("Reported launch {}{}{}", launch, System.lineSeparator(), metrics.report(elapsed));
+		} finally {
+			if (stub != null) {
+				stub.close();
+			}
+		}
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.loadgen;
+
+import lombok.Data;
+
+/**
+ * The shape of the synthetic launch that a {@link LoadGenerator} reports
+ */
+@Data
+public class LoadGeneratorConfig {
+
+	/**
+	 * The number of levels of items, ie. 3 for suites, tests and steps
+	 */
+	int depth = 3;
+
+	/**
+	 * The number of children of the launch and of every item that is not a
+	 * step
+	 */
+	int fanOut = 5;
+
+	/**
+	 * The number of log messages of every step
+	 */
+	int logsPerItem = 20;
+
+	/**
+	 * The number of log messages sent in a single request, or 1 to send every
+	 * message on its own
+	 */
+	int logBatchSize = 1;
+
+	int logMessageBytes = 200;
+
+	/**
+	 * The number of file attachments of every step
+	 */
+	int attachmentsPerItem = 0;
+
+	int attachmentBytes = 65536;
+
+	/**
+	 * The number of threads that call the client concurrently
+	 */
+	int threads = 8;
+}
@@ -0,0 +1,140 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.loadgen;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import io.github.alexopa.reportportalclient.metrics.RPClientMetrics;
+import io.github.alexopa.reportportalclient.model.ConnectionPoolStatistics;
+
+/**
+ * An {@link RPClientMetrics} that keeps a latency histogram, the number of
+ * failed calls and the bytes sent and received for every operation of the
+ * client, so that a {@link LoadGenerator} can report them
+ */
+public class LoadGeneratorMetrics implements RPClientMetrics {
+
+	private static final double[] QUANTILES = { 0.5, 0.99, 0.999 };
+
+	private final Map<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+	private final ThreadLocal<OperationMetrics> currentOperation = new ThreadLocal<>();
+	private volatile Supplier<ConnectionPoolStatistics> connectionPool;
+
+	@Override
+	public <T> T record(String operation, Supplier<T> call) {
+		OperationMetrics metrics = operations.computeIfAbsent(operation, o -> new OperationMetrics());
+		OperationMetrics previous = currentOperation.get();
+		currentOperation.set(metrics);
+		long start = System.nanoTime();
+		try {
+			return call.get();
+		} catch (RuntimeException e) {
+			metrics.errors.increment();
+			throw e;
+		} finally {
+			metrics.latency.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+			if (previous == null) {
+				currentOperation.remove();
+			} else {
+				currentOperation.set(previous);
+			}
+		}
+	}
+
+	@Override
+	public boolean isRecordingBytes() {
+		return true;
+	}
+
+	@Override
+	public void recordRequestBytes(long bytes) {
+		OperationMetrics metrics = currentOperation.get();
+		if (metrics != null) {
+			metrics.requestBytes.add(bytes);
+		}
+	}
+
+	@Override
+	public void recordResponseBytes(long bytes) {
+		OperationMetrics metrics = currentOperation.get();
+		if (metrics != null) {
+			metrics.responseBytes.add(bytes);
+		}
+	}
+
+	@Override
+	public void bindConnectionPool(String client, Supplier<ConnectionPoolStatistics> statistics) {
+		this.connectionPool = statistics;
+	}
+
+	/**
+	 * Formats the metrics recorded so far as a table with one row per operation
+	 * and a row with the totals
+	 *
+	 * @param elapsedNanos The time the load was generated for, to calculate the
+	 *                     throughput
+	 * @return The report
+	 */
+	public String report(long elapsedNanos) {
+		double seconds = Math.max(1L, elapsedNanos) / 1e9;
+		String format = "%-18s %10s %8s %10s %10s %10s %10s %10s %14s%n";
+		StringBuilder report = new StringBuilder(String.format(format, "operation", "calls", "errors", "calls/s",
+				"mean ms", "p50 ms", "p99 ms", "p99.9 ms", "bytes sent"));
+		long calls = 0;
+		long errors = 0;
+		long requestBytes = 0;
+		long responseBytes = 0;
+		for (Map.Entry<String, OperationMetrics> entry : new TreeMap<>(operations).entrySet()) {
+			OperationMetrics metrics = entry.getValue();
+			LatencyHistogram latency = metrics.latency;
+			report.append(String.format(format, entry.getKey(), latency.getCount(), metrics.errors.sum(),
+					String.format("%.1f", latency.getCount() / seconds), millis(latency.getMeanMicros()),
+					millis(latency.getPercentileMicros(QUANTILES[0])), millis(latency.getPercentileMicros(QUANTILES[1])),
+					millis(latency.getPercentileMicros(QUANTILES[2])), metrics.requestBytes.sum()));
+			calls += latency.getCount();
+			errors += metrics.errors.sum();
+			requestBytes += metrics.requestBytes.sum();
+			responseBytes += metrics.responseBytes.sum();
+		}
+		report.append(String.format(format, "total", calls, errors, String.format("%.1f", calls / seconds), "", "",
+				"", "", requestBytes));
+		report.append(String.format("%.1f s, %.2f MB/s sent, %d bytes received%n", seconds,
+				requestBytes / seconds / 1048576, responseBytes));
+		Supplier<ConnectionPoolStatistics> pool = connectionPool;
+		if (pool != null && pool.get() != null) {
+			report.append("connection pool: ").append(pool.get()).append(System.lineSeparator());
+		}
+		return report.toString();
+	}
+
+	private static String millis(long micros) {
+		return String.format("%.2f", micros / 1000.0);
+	}
+
+	private static class OperationMetrics {
+
+		private final LatencyHistogram latency = new LatencyHistogram();
+		private final LongAdder errors = new LongAdder();
+		private final LongAdder requestBytes = new LongAdder();
+		private final LongAdder responseBytes = new LongAdder();
+	}
+}
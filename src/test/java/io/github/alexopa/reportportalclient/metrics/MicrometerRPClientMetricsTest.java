@@ -0,0 +1,86 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.alexopa.reportportalclient.RPClient;
+import io.github.alexopa.reportportalclient.config.RPClientConfig;
+import io.github.alexopa.reportportalclient.exception.ReportPortalClientException;
+import io.github.alexopa.reportportalclient.model.launch.FinishLaunchProperties;
+import io.github.alexopa.reportportalclient.stub.StubReportPortalServer;
+import io.github.alexopa.reportportalclient.stub.StubServerConfig;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class MicrometerRPClientMetricsTest {
+
+	private StubReportPortalServer stub;
+	private SimpleMeterRegistry registry;
+	private RPClient client;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		stub = new StubReportPortalServer();
+		registry = new SimpleMeterRegistry();
+		RPClientConfig config = new RPClientConfig();
+		config.setEndpoint(stub.getEndpoint());
+		config.setProject("test");
+		config.setApiKey("key");
+		config.getRetryConfig().setMaxAttempts(3);
+		config.getRetryConfig().setBaseBackoffMs(200L);
+		config.getRetryConfig().setJitter(0.0);
+		client = new RPClient(config, new MicrometerRPClientMetrics(registry));
+	}
+
+	@AfterEach
+	void tearDown() {
+		client.close();
+		stub.close();
+	}
+
+	@Test
+	void timesEveryAttemptWithoutTheBackoff() {
+		StubServerConfig failing = new StubServerConfig();
+		failing.setErrorRate(1.0);
+		failing.setErrorStatus(503);
+		stub.setConfig(failing);
+
+		assertThatThrownBy(() -> client.finishLaunch(FinishLaunchProperties.builder()
+				.launchUuid("launch")
+				.endTime(new Date())
+				.build())).isInstanceOf(ReportPortalClientException.class);
+
+		Timer requests = registry.get("rp.client.requests").tag("operation", "finishLaunch").timer();
+		Timer attempts = registry.get("rp.client.attempts").tag("operation", "finishLaunch").timer();
+		assertThat(requests.count()).isEqualTo(1);
+		assertThat(attempts.count()).isEqualTo(3);
+		// two backoffs of 200 and 400 ms are in the call, not in its attempts
+		assertThat(requests.totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(600);
+		assertThat(attempts.totalTime(TimeUnit.MILLISECONDS))
+				.isLessThan(requests.totalTime(TimeUnit.MILLISECONDS) - 500);
+	}
+}
@@ -0,0 +1,201 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.offline;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.alexopa.reportportalclient.attachment.AttachmentSource;
+import io.github.alexopa.reportportalclient.config.RPClientConfig;
+import io.github.alexopa.reportportalclient.journal.JournalOperation;
+import io.github.alexopa.reportportalclient.model.log.AddFileAttachmentProperties;
+import io.github.alexopa.reportportalclient.model.log.AddLogProperties;
+import io.github.alexopa.reportportalclient.util.ObjectMappers;
+
+class LaunchArchiveWriterTest {
+
+	private static final int BUFFER_SIZE = 16;
+
+	private final ObjectMapper objectMapper = ObjectMappers.createSmile(new RPClientConfig.JsonConfig());
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void recordsAreReadInTheOrderTheyWereWritten() throws IOException {
+		Path archive = directory.resolve("launch.rpla");
+		Path file = Files.writeString(directory.resolve("output.txt"), "content of the attachment");
+		try (LaunchArchiveWriter writer = new LaunchArchiveWriter(archive, objectMapper, BUFFER_SIZE)) {
+			writer.append(JournalOperation.ADD_LOG, log("first"));
+			writer.appendAttachment(attachment(), AttachmentSource.of(file));
+			writer.append(JournalOperation.ADD_LOG, log("second"));
+		}
+
+		try (LaunchArchiveReader reader = new LaunchArchiveReader(archive, objectMapper)) {
+			assertThat(((AddLogProperties) reader.next().getProperties()).getMessage()).isEqualTo("first");
+			LaunchArchiveRecord attachment = reader.next();
+			assertThat(attachment.getFileName()).isEqualTo("output.txt");
+			assertThat(content(reader.attachment(attachment))).isEqualTo("content of the attachment");
+			assertThat(((AddLogProperties) reader.next().getProperties()).getMessage()).isEqualTo("second");
+			assertThat(reader.next()).isNull();
+		}
+	}
+
+	@Test
+	void aTornRecordIsCutOffBeforeAppending() throws IOException {
+		Path archive = directory.resolve("launch.rpla");
+		try (LaunchArchiveWriter writer = new LaunchArchiveWriter(archive, objectMapper, BUFFER_SIZE)) {
+			writer.append(JournalOperation.ADD_LOG, log("first"));
+			writer.append(JournalOperation.ADD_LOG, log("torn"));
+		}
+		try (FileChannel channel = FileChannel.open(archive, StandardOpenOption.WRITE)) {
+			channel.truncate(channel.size() - 3);
+		}
+
+		try (LaunchArchiveWriter writer = new LaunchArchiveWriter(archive, objectMapper, BUFFER_SIZE)) {
+			writer.append(JournalOperation.ADD_LOG, log("second"));
+		}
+
+		assertThat(messages(archive)).containsExactly("first", "second");
+	}
+
+	@Test
+	void aZeroFilledTailIsCutOffBeforeAppending() throws IOException {
+		Path archive = directory.resolve("launch.rpla");
+		try (LaunchArchiveWriter writer = new LaunchArchiveWriter(archive, objectMapper, BUFFER_SIZE)) {
+			writer.append(JournalOperation.ADD_LOG, log("first"));
+		}
+		try (FileChannel channel = FileChannel.open(archive, StandardOpenOption.APPEND)) {
+			// a file system can extend the file before the data of a crashed write reaches it
+			channel.write(ByteBuffer.allocate(64));
+		}
+
+		try (LaunchArchiveWriter writer = new LaunchArchiveWriter(archive, objectMapper, BUFFER_SIZE)) {
+			writer.append(JournalOperation.ADD_LOG, log("second"));
+		}
+
+		assertThat(messages(archive)).containsExactly("first", "second");
+	}
+
+	@Test
+	void anAttachmentWithoutItsLengthIsCutOff() throws IOException {
+		Path archive = directory.resolve("launch.rpla");
+		try (LaunchArchiveWriter writer = new LaunchArchiveWriter(archive, objectMapper, BUFFER_SIZE)) {
+			writer.append(JournalOperation.ADD_LOG, log("first"));
+		}
+		long complete = Files.size(archive);
+		Path file = Files.writeString(directory.resolve("output.txt"), "content of the attachment");
+		try (LaunchArchiveWriter writer = new LaunchArchiveWriter(archive, objectMapper, BUFFER_SIZE)) {
+			writer.appendAttachment(attachment(), AttachmentSource.of(file));
+		}
+		// the length of the content is written last, so a crash before it leaves -1
+		try (FileChannel channel = FileChannel.open(archive, StandardOpenOption.WRITE)) {
+			long lengthPosition = Files.size(archive) - "content of the attachment".length() - Long.BYTES;
+			channel.write(ByteBuffer.allocate(Long.BYTES).putLong(-1L).flip(), lengthPosition);
+		}
+
+		try (LaunchArchiveWriter writer = new LaunchArchiveWriter(archive, objectMapper, BUFFER_SIZE)) {
+			assertThat(Files.size(archive)).isEqualTo(complete);
+			writer.append(JournalOperation.ADD_LOG, log("second"));
+		}
+
+		assertThat(messages(archive)).containsExactly("first", "second");
+	}
+
+	@Test
+	void aLockedArchiveIsNotWrittenByAnotherWriter() throws IOException {
+		Path archive = directory.resolve("launch.rpla");
+		try (LaunchArchiveWriter first = new LaunchArchiveWriter(archive, objectMapper, BUFFER_SIZE);
+				LaunchArchiveWriter second = new LaunchArchiveWriter(archive, objectMapper, BUFFER_SIZE)) {
+			first.append(JournalOperation.ADD_LOG, log("first"));
+			second.append(JournalOperation.ADD_LOG, log("second"));
+
+			assertThat(first.getPath()).isEqualTo(archive);
+			assertThat(second.getPath()).isEqualTo(directory.resolve("launch-1.rpla"));
+		}
+
+		assertThat(messages(archive)).containsExactly("first");
+		assertThat(messages(directory.resolve("launch-1.rpla"))).containsExactly("second");
+	}
+
+	@Test
+	void anArchiveIsReusedWhenItsWriterIsClosed() throws IOException {
+		Path archive = directory.resolve("launch.rpla");
+		try (LaunchArchiveWriter writer = new LaunchArchiveWriter(archive, objectMapper, BUFFER_SIZE)) {
+			writer.append(JournalOperation.ADD_LOG, log("first"));
+		}
+		try (LaunchArchiveWriter writer = new LaunchArchiveWriter(archive, objectMapper, BUFFER_SIZE)) {
+			writer.append(JournalOperation.ADD_LOG, log("second"));
+			assertThat(writer.getPath()).isEqualTo(archive);
+		}
+
+		assertThat(messages(archive)).containsExactly("first", "second");
+	}
+
+	private List<String> messages(Path archive) throws IOException {
+		List<String> messages = new ArrayList<>();
+		try (LaunchArchiveReader reader = new LaunchArchiveReader(archive, objectMapper)) {
+			LaunchArchiveRecord record;
+			while ((record = reader.next()) != null) {
+				messages.add(((AddLogProperties) record.getProperties()).getMessage());
+			}
+		}
+		return messages;
+	}
+
+	private static String content(AttachmentSource source) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		source.writeTo(out, new byte[BUFFER_SIZE]);
+		return out.toString(StandardCharsets.UTF_8);
+	}
+
+	private static AddLogProperties log(String message) {
+		return AddLogProperties.builder()
+				.launchId("launch")
+				.itemId("item")
+				.level("INFO")
+				.time(new Date())
+				.message(message)
+				.build();
+	}
+
+	private static AddFileAttachmentProperties attachment() {
+		return AddFileAttachmentProperties.builder()
+				.launchUuid("launch")
+				.itemUuid("item")
+				.level("INFO")
+				.time(new Date())
+				.message("attachment")
+				.build();
+	}
+}
@@ -0,0 +1,85 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.offline;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.alexopa.reportportalclient.RPAsyncClient;
+import io.github.alexopa.reportportalclient.config.RPClientConfig;
+import io.github.alexopa.reportportalclient.journal.JournalOperation;
+import io.github.alexopa.reportportalclient.model.log.AddLogProperties;
+import io.github.alexopa.reportportalclient.rpmodel.EntryCreatedResponse;
+import io.github.alexopa.reportportalclient.util.ObjectMappers;
+
+class OfflineRecorderTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void batchedLogMessagesAreRecorded() throws Exception {
+		Path archive = directory.resolve("launch.rpla");
+		RPClientConfig config = new RPClientConfig();
+		config.setEndpoint("http://localhost:1/");
+		config.setProject("test");
+		config.setApiKey("key");
+		config.getOfflineConfig().setEnabled(true);
+		config.getOfflineConfig().setArchive(archive.toString());
+		config.getLogBatchConfig().setEnabled(true);
+		config.getLogBatchConfig().setMaxCount(10);
+
+		List<CompletableFuture<EntryCreatedResponse>> futures = new ArrayList<>();
+		try (RPAsyncClient client = new RPAsyncClient(config)) {
+			for (int i = 0; i < 25; i++) {
+				futures.add(client.addLog(AddLogProperties.builder()
+						.launchId("launch")
+						.itemId("item")
+						.level("INFO")
+						.time(new Date())
+						.message("message " + i)
+						.build()));
+			}
+			CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+		}
+
+		assertThat(futures).allSatisfy(f -> assertThat(f.join().getId()).isNotNull());
+		assertThat(readOperations(archive, config)).hasSize(25).containsOnly(JournalOperation.ADD_LOG);
+	}
+
+	private static List<JournalOperation> readOperations(Path archive, RPClientConfig config) throws IOException {
+		List<JournalOperation> operations = new ArrayList<>();
+		try (LaunchArchiveReader reader = new LaunchArchiveReader(archive,
+				ObjectMappers.createSmile(config.getJsonConfig()))) {
+			LaunchArchiveRecord record;
+			while ((record = reader.next()) != null) {
+				operations.add(record.getOperation());
+			}
+		}
+		return operations;
+	}
+}
@@ -0,0 +1,216 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.queue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.alexopa.reportportalclient.config.RPClientConfig;
+import io.github.alexopa.reportportalclient.journal.JournalOperation;
+import io.github.alexopa.reportportalclient.model.log.AddLogProperties;
+import io.github.alexopa.reportportalclient.util.ObjectMappers;
+
+class ReportQueueTest {
+
+	/**
+	 * Stands for the executor of the client: the entries wait until
+	 * {@link #runAll()} sends them
+	 */
+	private final List<QueuedEntry> waiting = new ArrayList<>();
+	private final List<CompletableFuture<Object>> results = new ArrayList<>();
+	private final List<String> sent = new ArrayList<>();
+
+	private synchronized CompletableFuture<?> dispatch(QueuedEntry entry) {
+		CompletableFuture<Object> rs = new CompletableFuture<>();
+		waiting.add(entry);
+		results.add(rs);
+		return rs;
+	}
+
+	private void runAll() {
+		List<QueuedEntry> entries;
+		List<CompletableFuture<Object>> futures;
+		synchronized (this) {
+			entries = new ArrayList<>(waiting);
+			futures = new ArrayList<>(results);
+			waiting.clear();
+			results.clear();
+		}
+		for (int i = 0; i < entries.size(); i++) {
+			QueuedEntry entry = entries.get(i);
+			if (entry.start()) {
+				String message = ((AddLogProperties) entry.getProperties()).getMessage();
+				sent.add(message);
+				futures.get(i).complete(message);
+			} else {
+				futures.get(i).completeExceptionally(new RejectedExecutionException("Evicted"));
+			}
+		}
+	}
+
+	@Test
+	void anEntryKeepsItsPlaceUntilItsRequestEnds() {
+		try (ReportQueue queue = queue(2, OverflowPolicy.DROP_NEWEST)) {
+			queue.submit(JournalOperation.ADD_LOG, log("first"), "INFO");
+			queue.submit(JournalOperation.ADD_LOG, log("second"), "INFO");
+			assertThat(queue.getStatistics().getDepth()).isEqualTo(2);
+
+			runAll();
+
+			assertThat(queue.getStatistics().getDepth()).isZero();
+			assertThat(sent).containsExactly("first", "second");
+		}
+	}
+
+	@Test
+	void dropNewestFailsTheEntriesThatDoNotFit() {
+		try (ReportQueue queue = queue(1, OverflowPolicy.DROP_NEWEST)) {
+			CompletableFuture<Object> kept = queue.submit(JournalOperation.ADD_LOG, log("kept"), "INFO");
+			CompletableFuture<Object> dropped = queue.submit(JournalOperation.ADD_LOG, log("dropped"), "INFO");
+			runAll();
+
+			assertThat(kept.join()).isEqualTo("kept");
+			assertThatThrownBy(dropped::join).isInstanceOf(CompletionException.class)
+					.hasCauseInstanceOf(RejectedExecutionException.class);
+			assertThat(sent).containsExactly("kept");
+			assertThat(queue.getStatistics().getDropped()).isEqualTo(1);
+		}
+	}
+
+	@Test
+	void blockWaitsUntilThereIsRoom() throws Exception {
+		try (ReportQueue queue = queue(1, OverflowPolicy.BLOCK)) {
+			queue.submit(JournalOperation.ADD_LOG, log("first"), "INFO");
+			CompletableFuture<Object> blocked = CompletableFuture
+					.supplyAsync(() -> queue.submit(JournalOperation.ADD_LOG, log("second"), "INFO"))
+					.thenCompose(rs -> rs);
+			Thread.sleep(100);
+			assertThat(blocked).isNotDone();
+
+			runAll();
+			while (sent.size() < 2) {
+				Thread.sleep(10);
+				runAll();
+			}
+
+			assertThat(blocked.get(10, TimeUnit.SECONDS)).isEqualTo("second");
+			assertThat(queue.getStatistics().getDropped()).isZero();
+		}
+	}
+
+	@Test
+	void anEvictedEntryIsNeverSent() {
+		try (ReportQueue queue = queue(2, OverflowPolicy.DROP_DEBUG_FIRST)) {
+			CompletableFuture<Object> debug = queue.submit(JournalOperation.ADD_LOG, log("debug"), "DEBUG");
+			CompletableFuture<Object> trace = queue.submit(JournalOperation.ADD_LOG, log("trace"), "TRACE");
+			CompletableFuture<Object> error = queue.submit(JournalOperation.ADD_LOG, log("error"), "ERROR");
+
+			assertThat(trace).isCompletedExceptionally();
+			assertThat(queue.getStatistics().getDepth()).isEqualTo(2);
+			assertThat(queue.submit(JournalOperation.ADD_LOG, log("another trace"), "TRACE"))
+					.isCompletedExceptionally();
+
+			runAll();
+
+			assertThat(sent).containsExactly("debug", "error");
+			assertThat(debug.join()).isEqualTo("debug");
+			assertThat(error.join()).isEqualTo("error");
+			assertThat(queue.getStatistics().getDepth()).isZero();
+			assertThat(queue.getStatistics().getDropped()).isEqualTo(2);
+		}
+	}
+
+	@Test
+	void aStartedEntryIsNotEvicted() throws Exception {
+		try (ReportQueue queue = queue(1, OverflowPolicy.DROP_DEBUG_FIRST)) {
+			queue.submit(JournalOperation.ADD_LOG, log("debug"), "DEBUG");
+			QueuedEntry started;
+			synchronized (this) {
+				started = waiting.get(0);
+			}
+			assertThat(started.start()).isTrue();
+
+			CompletableFuture<Object> error = CompletableFuture
+					.supplyAsync(() -> queue.submit(JournalOperation.ADD_LOG, log("error"), "ERROR"))
+					.thenCompose(rs -> rs);
+			Thread.sleep(100);
+			assertThat(error).isNotDone();
+			assertThat(started.getProperties()).isNotNull();
+
+			synchronized (this) {
+				results.get(0).complete("debug");
+				waiting.clear();
+				results.clear();
+			}
+			while (!error.isDone()) {
+				runAll();
+			}
+
+			assertThat(error.join()).isEqualTo("error");
+			assertThat(queue.getStatistics().getDropped()).isZero();
+		}
+	}
+
+	@Test
+	void spilledEntriesAreSentInOrder() throws Exception {
+		List<CompletableFuture<Object>> futures = new ArrayList<>();
+		try (ReportQueue queue = queue(1, OverflowPolicy.SPILL_TO_DISK)) {
+			for (int i = 0; i < 5; i++) {
+				futures.add(queue.submit(JournalOperation.ADD_LOG, log("log-" + i), "INFO"));
+			}
+			assertThat(queue.getStatistics().getSpilled()).isEqualTo(4);
+
+			while (!futures.stream().allMatch(CompletableFuture::isDone)) {
+				runAll();
+				Thread.sleep(10);
+			}
+		}
+		assertThat(sent).containsExactly("log-0", "log-1", "log-2", "log-3", "log-4");
+		for (int i = 0; i < 5; i++) {
+			assertThat(futures.get(i).get()).isEqualTo("log-" + i);
+		}
+	}
+
+	private ReportQueue queue(int capacity, OverflowPolicy overflowPolicy) {
+		RPClientConfig.QueueConfig config = new RPClientConfig.QueueConfig();
+		config.setEnabled(true);
+		config.setCapacity(capacity);
+		config.setOverflowPolicy(overflowPolicy);
+		config.setCloseTimeoutMs(10000);
+		return new ReportQueue(config, ObjectMappers.create(new RPClientConfig.JsonConfig()), this::dispatch);
+	}
+
+	private static AddLogProperties log(String message) {
+		return AddLogProperties.builder()
+				.launchId("launch")
+				.itemId("item")
+				.level("INFO")
+				.time(new Date())
+				.message(message)
+				.build();
+	}
+}
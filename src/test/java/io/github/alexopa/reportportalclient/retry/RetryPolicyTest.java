@@ -0,0 +1,88 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.retry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import io.github.alexopa.reportportalclient.config.RPClientConfig;
+import io.github.alexopa.reportportalclient.exception.ReportPortalClientException;
+import io.github.alexopa.reportportalclient.model.ReportPortalErrorMessage;
+
+class RetryPolicyTest {
+
+	@Test
+	void waitsAtLeastTheRetryAfterOfTheResponse() {
+		RetryPolicy policy = new RetryPolicy(config(10000L));
+
+		long elapsed = timeRetry(policy, Duration.ofMillis(300));
+
+		assertThat(elapsed).isGreaterThanOrEqualTo(300);
+		assertThat(policy.getStatistics().getRecovered()).isEqualTo(1);
+	}
+
+	@Test
+	void capsTheRetryAfterAtTheMaximumBackoff() {
+		RetryPolicy policy = new RetryPolicy(config(100L));
+
+		long elapsed = timeRetry(policy, Duration.ofSeconds(60));
+
+		assertThat(elapsed).isBetween(100L, 5000L);
+	}
+
+	@Test
+	void parsesSecondsAndDates() {
+		assertThat(RetryPolicy.parseRetryAfter("120")).isEqualTo(Duration.ofSeconds(120));
+		assertThat(RetryPolicy.parseRetryAfter(" 0 ")).isEqualTo(Duration.ZERO);
+		assertThat(RetryPolicy.parseRetryAfter(DateTimeFormatter.RFC_1123_DATE_TIME
+				.format(ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(30))))
+				.isBetween(Duration.ofSeconds(25), Duration.ofSeconds(31));
+		assertThat(RetryPolicy.parseRetryAfter("Wed, 21 Oct 2015 07:28:00 GMT")).isEqualTo(Duration.ZERO);
+		assertThat(RetryPolicy.parseRetryAfter("soon")).isNull();
+		assertThat(RetryPolicy.parseRetryAfter(null)).isNull();
+	}
+
+	private static long timeRetry(RetryPolicy policy, Duration retryAfter) {
+		AtomicInteger attempts = new AtomicInteger();
+		long start = System.nanoTime();
+		String result = policy.execute(true, () -> {
+			if (attempts.incrementAndGet() == 1) {
+				throw new ReportPortalClientException(HttpStatus.TOO_MANY_REQUESTS,
+						ReportPortalErrorMessage.builder().message("slow down").build(), retryAfter);
+			}
+			return "ok";
+		});
+		assertThat(result).isEqualTo("ok");
+		return Duration.ofNanos(System.nanoTime() - start).toMillis();
+	}
+
+	private static RPClientConfig.RetryConfig config(long maxBackoffMs) {
+		RPClientConfig.RetryConfig config = new RPClientConfig.RetryConfig();
+		config.setMaxAttempts(2);
+		config.setBaseBackoffMs(1L);
+		config.setMaxBackoffMs(maxBackoffMs);
+		return config;
+	}
+}
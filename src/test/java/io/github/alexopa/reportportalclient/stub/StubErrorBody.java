@@ -0,0 +1,39 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.stub;
+
+/**
+ * The body of the error responses of a {@link StubReportPortalServer}, each of
+ * which takes a different path of the error handling of the client
+ */
+public enum StubErrorBody {
+
+	/**
+	 * An error message of ReportPortal, as json
+	 */
+	JSON,
+
+	/**
+	 * An html page, ie. of a proxy in front of ReportPortal
+	 */
+	HTML,
+
+	/**
+	 * No body at all
+	 */
+	EMPTY
+}
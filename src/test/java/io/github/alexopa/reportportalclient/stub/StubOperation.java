@@ -0,0 +1,50 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.stub;
+
+/**
+ * The calls of the ReportPortal api that a {@link StubReportPortalServer}
+ * tells apart in its statistics
+ */
+public enum StubOperation {
+
+	START_LAUNCH,
+	UPDATE_LAUNCH,
+	FINISH_LAUNCH,
+	START_ITEM,
+	FINISH_ITEM,
+
+	/**
+	 * A single log message sent as json
+	 */
+	ADD_LOG,
+
+	/**
+	 * A batch of log messages sent as a multipart request without a file
+	 */
+	ADD_LOGS,
+
+	/**
+	 * A log message with a file, sent as a multipart request
+	 */
+	ADD_FILE_ATTACHMENT,
+
+	/**
+	 * Any request that is not part of the api
+	 */
+	UNKNOWN
+}
@@ -0,0 +1,53 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.stub;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Class that models the requests of one {@link StubOperation} that a
+ * {@link StubReportPortalServer} has received
+ */
+@Data
+@AllArgsConstructor
+public class StubOperationStatistics {
+
+	private long requests;
+
+	/**
+	 * The number of entries in the requests, ie. the log messages of the batches
+	 */
+	private long entries;
+
+	/**
+	 * The number of requests that failed with an injected error
+	 */
+	private long errors;
+
+	/**
+	 * The number of requests that were rejected because of the throughput limit
+	 */
+	private long throttled;
+
+	/**
+	 * The bytes of the request bodies, as sent by the client
+	 */
+	private long requestBytes;
+
+	private long responseBytes;
+}
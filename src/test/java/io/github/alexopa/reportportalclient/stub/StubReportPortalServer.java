@@ -0,0 +1,479 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.stub;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import com.fasterxml.jackson.core.StreamReadFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A lightweight in-process http server that implements the launch, item and
+ * log endpoints of the ReportPortal api, so that a client can be load tested
+ * and benchmarked without network and without a ReportPortal instance. The
+ * server replies like ReportPortal does, ie. with the client side uuid of a
+ * started launch or item, or with one response per log message of a batch,
+ * and counts the requests and their bytes per {@link StubOperation}.
+ * <p>
+ * Latency, errors and a throughput limit can be injected as configured in
+ * {@link StubServerConfig}, to see how the client behaves against a slow or
+ * failing ReportPortal. Bodies are streamed and not kept, so the server can
+ * take launches of any size.
+ * <p>
+ * Unless the JVM is started with
+ * <code>-Dsun.net.httpserver.nodelay=true</code>, Nagle's algorithm delays the
+ * responses until the client acknowledges the request, and the latency of the
+ * server is dominated by the tcp stack. The server does not set the property
+ * itself, since it applies to every http server of the JDK in the JVM.
+ */
+@Slf4j
+public class StubReportPortalServer implements AutoCloseable {
+
+	private static final String API_PATH = "/api/v1/";
+	private static final String THREAD_NAME_PREFIX = "rp-stub-server-";
+	private static final String CONTENT_TYPE = "Content-Type";
+	private static final String APPLICATION_JSON = "application/json";
+	private static final byte[] HEADERS_END = "\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+	private static final String NODELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+	private final HttpServer server;
+	private final ExecutorService executor;
+	private final ObjectMapper objectMapper = JsonMapper.builder()
+			.disable(StreamReadFeature.AUTO_CLOSE_SOURCE)
+			.build();
+	private final Map<StubOperation, Counters> counters = new EnumMap<>(StubOperation.class);
+	private final AtomicLong launchNumber = new AtomicLong();
+	private final AtomicLong nextSlotNanos = new AtomicLong();
+
+	private volatile StubServerConfig config;
+
+	/**
+	 * Creates a new {@link StubReportPortalServer} with the default
+	 * configuration, which replies immediately and never fails, and starts it
+	 *
+	 * @throws IOException If the server cannot listen on a port
+	 */
+	public StubReportPortalServer() throws IOException {
+		this(new StubServerConfig());
+	}
+
+	/**
+	 * Creates a new {@link StubReportPortalServer} and starts it
+	 *
+	 * @param config A {@link StubServerConfig} with the behaviour of the server
+	 * @throws IOException If the server cannot listen on the port
+	 */
+	public StubReportPortalServer(final StubServerConfig config) throws IOException {
+		this.config = config;
+		for (StubOperation operation : StubOperation.values()) {
+			counters.put(operation, new Counters());
+		}
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(THREAD_NAME_PREFIX);
+		threadFactory.setDaemon(true);
+		this.executor = Executors.newFixedThreadPool(Math.max(1, config.getThreads()), threadFactory);
+		this.server = HttpServer.create(new InetSocketAddress("localhost", config.getPort()), 0);
+		server.setExecutor(executor);
+		server.createContext("/", this::handle);
+		server.start();
+		if (!Boolean.getBoolean(NODELAY_PROPERTY)) {
+			log.info("Responses of the stub server are delayed by Nagle's algorithm, start the JVM with -D{}=true "
+					+ "to disable it", NODELAY_PROPERTY);
+		}
+	}
+
+	/**
+	 * @return The endpoint to configure the client with
+	 */
+	public String getEndpoint() {
+		return "http://localhost:" + getPort() + "/";
+	}
+
+	/**
+	 * @return The port the server listens on
+	 */
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 * @return The current {@link StubServerConfig} of the server
+	 */
+	public StubServerConfig getConfig() {
+		return config;
+	}
+
+	/**
+	 * Replaces the configuration of the server. Requests that are already in
+	 * progress complete with the previous configuration. The port and the
+	 * number of threads cannot be changed
+	 *
+	 * @param config A {@link StubServerConfig} with the new behaviour of the
+	 *               server
+	 */
+	public void setConfig(StubServerConfig config) {
+		this.config = config;
+	}
+
+	/**
+	 * @return A snapshot of the {@link StubOperationStatistics} of every
+	 *         {@link StubOperation}
+	 */
+	public Map<StubOperation, StubOperationStatistics> getStatistics() {
+		Map<StubOperation, StubOperationStatistics> statistics = new EnumMap<>(StubOperation.class);
+		counters.forEach((operation, c) -> statistics.put(operation, c.snapshot()));
+		return statistics;
+	}
+
+	/**
+	 * @param operation A {@link StubOperation}
+	 * @return A snapshot of the {@link StubOperationStatistics} of the operation
+	 */
+	public StubOperationStatistics getStatistics(StubOperation operation) {
+		return counters.get(operation).snapshot();
+	}
+
+	/**
+	 * Sets all the statistics back to zero
+	 */
+	public void resetStatistics() {
+		counters.values().forEach(Counters::reset);
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		StubServerConfig current = config;
+		Request request;
+		try (CountingInputStream in = new CountingInputStream(exchange.getRequestBody())) {
+			request = read(exchange, in);
+			in.transferTo(OutputStream.nullOutputStream());
+			request.bytes = in.count;
+		} catch (IOException | RuntimeException e) {
+			log.debug("Failed to read request {} {}", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+			exchange.close();
+			return;
+		}
+		Counters c = counters.get(request.operation);
+		c.requests.increment();
+		c.entries.add(request.entries);
+		c.requestBytes.add(request.bytes);
+
+		if (request.operation == StubOperation.UNKNOWN) {
+			respond(exchange, c, 404, APPLICATION_JSON, errorMessage(4041,
+					"Unknown request " + exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath()));
+			return;
+		}
+		if (!awaitTurn(current)) {
+			c.throttled.increment();
+			exchange.getResponseHeaders().add("Retry-After", "1");
+			respond(exchange, c, 429, APPLICATION_JSON, errorMessage(4290, "Too many requests"));
+			return;
+		}
+		sleep(current.getLatencyMs() + (current.getLatencyJitterMs() > 0
+				? ThreadLocalRandom.current().nextLong(current.getLatencyJitterMs() + 1)
+				: 0));
+		if (current.getErrorRate() > 0 && ThreadLocalRandom.current().nextDouble() < current.getErrorRate()) {
+			c.errors.increment();
+			respondError(exchange, c, current);
+			return;
+		}
+		respondSuccess(exchange, c, request);
+	}
+
+	private Request read(HttpExchange exchange, CountingInputStream counting) throws IOException {
+		String method = exchange.getRequestMethod();
+		String path = exchange.getRequestURI().getPath();
+		int api = path.indexOf(API_PATH);
+		// the path after the project, ie. launch/{uuid}/finish
+		String[] resource = api < 0 ? new String[0]
+				: StringUtils.split(StringUtils.substringAfter(path.substring(api + API_PATH.length()), "/"), '/');
+		Request request = new Request();
+		if (resource.length == 0) {
+			return request;
+		}
+
+		InputStream in = counting;
+		if ("gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+			in = new GZIPInputStream(in);
+		}
+		String resourceName = resource[0];
+		boolean post = "POST".equals(method);
+		if ("launch".equals(resourceName)) {
+			if (post && resource.length == 1) {
+				request.operation = StubOperation.START_LAUNCH;
+				request.uuid = readUuid(in);
+			} else if ("PUT".equals(method) && resource.length == 3) {
+				request.uuid = resource[1];
+				request.operation = "finish".equals(resource[2]) ? StubOperation.FINISH_LAUNCH
+						: "update".equals(resource[2]) ? StubOperation.UPDATE_LAUNCH : StubOperation.UNKNOWN;
+			}
+		} else if ("item".equals(resourceName)) {
+			if (post && resource.length <= 2) {
+				request.operation = StubOperation.START_ITEM;
+				request.uuid = readUuid(in);
+			} else if ("PUT".equals(method) && resource.length == 2) {
+				request.operation = StubOperation.FINISH_ITEM;
+				request.uuid = resource[1];
+			}
+		} else if ("log".equals(resourceName) && post && resource.length == 1) {
+			String contentType = StringUtils.defaultString(exchange.getRequestHeaders().getFirst(CONTENT_TYPE));
+			if (contentType.startsWith("multipart/")) {
+				readMultipart(new BufferedInputStream(in), contentType, request);
+			} else {
+				request.operation = StubOperation.ADD_LOG;
+			}
+		}
+		if (in != counting) {
+			in.transferTo(OutputStream.nullOutputStream());
+		}
+		return request;
+	}
+
+	private String readUuid(InputStream in) throws IOException {
+		JsonNode uuid = objectMapper.readTree(in).get("uuid");
+		return uuid == null || uuid.isNull() ? null : uuid.asText();
+	}
+
+	/**
+	 * Reads the json part of a multipart request, to count the log messages,
+	 * and the headers of the next part, to tell whether a file is attached
+	 */
+	private void readMultipart(InputStream in, String contentType, Request request) throws IOException {
+		String boundary = StringUtils.strip(StringUtils.substringAfter(contentType, "boundary="), "\"");
+		byte[] delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.US_ASCII);
+		request.operation = StubOperation.ADD_LOGS;
+		if (readUntil(in, HEADERS_END) == null) {
+			return;
+		}
+		byte[] json = readUntil(in, delimiter);
+		if (json == null) {
+			return;
+		}
+		JsonNode logs = objectMapper.readTree(json);
+		request.entries = logs.isArray() ? logs.size() : 1;
+		byte[] nextPart = readUntil(in, HEADERS_END);
+		if (nextPart != null && new String(nextPart, StandardCharsets.UTF_8).contains("filename=")) {
+			request.operation = StubOperation.ADD_FILE_ATTACHMENT;
+		}
+	}
+
+	/**
+	 * Reads up to a delimiter
+	 *
+	 * @return The bytes before the delimiter, or <code>null</code> if the stream
+	 *         ended before the delimiter
+	 */
+	private static byte[] readUntil(InputStream in, byte[] delimiter) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		int matched = 0;
+		int b;
+		while ((b = in.read()) >= 0) {
+			if (b == delimiter[matched]) {
+				if (++matched == delimiter.length) {
+					return out.toByteArray();
+				}
+			} else {
+				out.write(delimiter, 0, matched);
+				matched = b == delimiter[0] ? 1 : 0;
+				if (matched == 0) {
+					out.write(b);
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Waits for the turn of the request under the throughput limit
+	 *
+	 * @return <code>false</code> if the request is over the limit and must be
+	 *         rejected
+	 */
+	private boolean awaitTurn(StubServerConfig current) {
+		if (current.getMaxRequestsPerSecond() <= 0) {
+			return true;
+		}
+		long interval = TimeUnit.SECONDS.toNanos(1) / current.getMaxRequestsPerSecond();
+		while (true) {
+			long now = System.nanoTime();
+			long next = nextSlotNanos.get();
+			long slot = next - now > 0 ? next : now;
+			if (slot != now && current.isRejectOverLimit()) {
+				return false;
+			}
+			if (nextSlotNanos.compareAndSet(next, slot + interval)) {
+				sleep(TimeUnit.NANOSECONDS.toMillis(slot - now));
+				return true;
+			}
+		}
+	}
+
+	private static void sleep(long millis) {
+		if (millis <= 0) {
+			return;
+		}
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void respondSuccess(HttpExchange exchange, Counters c, Request request) throws IOException {
+		String uuid = request.uuid == null ? UUID.randomUUID().toString() : request.uuid;
+		switch (request.operation) {
+			case START_LAUNCH -> respond(exchange, c, 201, APPLICATION_JSON,
+					"{\"id\":\"" + uuid + "\",\"number\":" + launchNumber.incrementAndGet() + "}");
+			case UPDATE_LAUNCH -> respond(exchange, c, 200, APPLICATION_JSON,
+					"{\"message\":\"Launch with ID = '" + uuid + "' successfully updated.\"}");
+			case FINISH_LAUNCH -> respond(exchange, c, 200, APPLICATION_JSON, "{\"id\":\"" + uuid + "\",\"link\":\""
+					+ getEndpoint() + "ui/#stub/launches/all/" + uuid + "\"}");
+			case START_ITEM, ADD_LOG -> respond(exchange, c, 201, APPLICATION_JSON, "{\"id\":\"" + uuid + "\"}");
+			case FINISH_ITEM -> respond(exchange, c, 200, APPLICATION_JSON,
+					"{\"message\":\"TestItem with ID = '" + uuid + "' successfully finished.\"}");
+			default -> {
+				StringBuilder body = new StringBuilder("{\"responses\":[");
+				for (int i = 0; i < Math.max(1, request.entries); i++) {
+					body.append(i == 0 ? "{\"id\":\"" : ",{\"id\":\"").append(UUID.randomUUID()).append("\"}");
+				}
+				respond(exchange, c, 201, APPLICATION_JSON, body.append("]}").toString());
+			}
+		}
+	}
+
+	private void respondError(HttpExchange exchange, Counters c, StubServerConfig current) throws IOException {
+		switch (current.getErrorBody()) {
+			case HTML -> respond(exchange, c, current.getErrorStatus(), "text/html",
+					"<html><body><h1>" + current.getErrorStatus() + " Injected error</h1></body></html>");
+			case EMPTY -> respond(exchange, c, current.getErrorStatus(), null, null);
+			default -> respond(exchange, c, current.getErrorStatus(), APPLICATION_JSON,
+					errorMessage(5000, "Unclassified error [Injected by the stub server]"));
+		}
+	}
+
+	private static String errorMessage(int errorCode, String message) {
+		return "{\"errorCode\":" + errorCode + ",\"message\":\"" + message + "\"}";
+	}
+
+	private static void respond(HttpExchange exchange, Counters c, int status, String contentType, String body)
+			throws IOException {
+		if (body == null) {
+			exchange.sendResponseHeaders(status, -1);
+			exchange.close();
+			return;
+		}
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add(CONTENT_TYPE, contentType);
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+		c.responseBytes.add(bytes.length);
+	}
+
+	/**
+	 * Stops the server immediately
+	 */
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	private static class Request {
+
+		private StubOperation operation = StubOperation.UNKNOWN;
+		private String uuid;
+		private long entries = 1;
+		private long bytes;
+	}
+
+	private static class Counters {
+
+		private final LongAdder requests = new LongAdder();
+		private final LongAdder entries = new LongAdder();
+		private final LongAdder errors = new LongAdder();
+		private final LongAdder throttled = new LongAdder();
+		private final LongAdder requestBytes = new LongAdder();
+		private final LongAdder responseBytes = new LongAdder();
+
+		private StubOperationStatistics snapshot() {
+			return new StubOperationStatistics(requests.sum(), entries.sum(), errors.sum(), throttled.sum(),
+					requestBytes.sum(), responseBytes.sum());
+		}
+
+		private void reset() {
+			requests.reset();
+			entries.reset();
+			errors.reset();
+			throttled.reset();
+			requestBytes.reset();
+			responseBytes.reset();
+		}
+	}
+
+	private static class CountingInputStream extends FilterInputStream {
+
+		private long count;
+
+		private CountingInputStream(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = in.read();
+			if (b >= 0) {
+				count++;
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int read = in.read(b, off, len);
+			if (read > 0) {
+				count += read;
+			}
+			return read;
+		}
+	}
+}
@@ -0,0 +1,70 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.stub;
+
+import lombok.Data;
+
+/**
+ * The behaviour of a {@link StubReportPortalServer}. The configuration can be
+ * replaced while the server is running, ie. to make it fail in the middle of a
+ * test
+ */
+@Data
+public class StubServerConfig {
+
+	/**
+	 * The port to listen on, or 0 for any free port
+	 */
+	int port = 0;
+
+	/**
+	 * The number of threads that handle the requests, ie. how many requests
+	 * the server processes concurrently
+	 */
+	int threads = 64;
+
+	/**
+	 * The time each request takes, in milliseconds
+	 */
+	long latencyMs = 0L;
+
+	/**
+	 * A random time up to this many milliseconds that is added to the latency
+	 * of each request
+	 */
+	long latencyJitterMs = 0L;
+
+	/**
+	 * The fraction of the requests, from 0 to 1, that fail with the error
+	 * status
+	 */
+	double errorRate = 0.0;
+
+	int errorStatus = 500;
+
+	StubErrorBody errorBody = StubErrorBody.JSON;
+
+	/**
+	 * The maximum number of requests per second the server processes, or 0 for
+	 * no limit. Requests over the limit wait for their turn, or are rejected
+	 * with <code>429 Too Many Requests</code> when
+	 * <code>rejectOverLimit</code> is set
+	 */
+	int maxRequestsPerSecond = 0;
+
+	boolean rejectOverLimit = false;
+}
@@ -0,0 +1,98 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.transport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.ProxySelector;
+import java.net.SocketAddress;
+import java.net.URI;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.alexopa.reportportalclient.RPClient;
+import io.github.alexopa.reportportalclient.config.RPClientConfig;
+import io.github.alexopa.reportportalclient.metrics.MicrometerRPClientMetrics;
+import io.github.alexopa.reportportalclient.model.launch.StartLaunchProperties;
+import io.github.alexopa.reportportalclient.stub.StubOperation;
+import io.github.alexopa.reportportalclient.stub.StubReportPortalServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class JdkHttpTransportTest {
+
+	@Test
+	void requestsGoThroughTheDefaultProxy() throws IOException {
+		ProxySelector previous = ProxySelector.getDefault();
+		try (StubReportPortalServer stub = new StubReportPortalServer()) {
+			// the stub stands in for the proxy of a host that does not resolve
+			ProxySelector.setDefault(new SingleProxySelector(new InetSocketAddress("localhost", stub.getPort())));
+			RPClientConfig config = config("http://reportportal.invalid/");
+			try (RPClient client = new RPClient(config)) {
+				client.startLaunch(StartLaunchProperties.builder().name("launch").startTime(new Date()).build());
+			}
+			assertThat(stub.getStatistics(StubOperation.START_LAUNCH).getRequests()).isEqualTo(1);
+		} finally {
+			ProxySelector.setDefault(previous);
+		}
+	}
+
+	@Test
+	void noConnectionPoolGaugesAreRegistered() throws IOException {
+		try (StubReportPortalServer stub = new StubReportPortalServer()) {
+			SimpleMeterRegistry registry = new SimpleMeterRegistry();
+			try (RPClient client = new RPClient(config(stub.getEndpoint()), new MicrometerRPClientMetrics(registry))) {
+				client.startLaunch(StartLaunchProperties.builder().name("launch").startTime(new Date()).build());
+
+				assertThat(registry.find("rp.client.connections.leased").gauge()).isNull();
+				assertThat(registry.find("rp.client.requests").timer()).isNotNull();
+			}
+		}
+	}
+
+	private static RPClientConfig config(String endpoint) {
+		RPClientConfig config = new RPClientConfig();
+		config.setEndpoint(endpoint);
+		config.setProject("test");
+		config.setApiKey("key");
+		config.getConnectionConfig().setTransport(TransportType.JDK);
+		return config;
+	}
+
+	private static class SingleProxySelector extends ProxySelector {
+
+		private final Proxy proxy;
+
+		SingleProxySelector(SocketAddress address) {
+			this.proxy = new Proxy(Proxy.Type.HTTP, address);
+		}
+
+		@Override
+		public List<Proxy> select(URI uri) {
+			return List.of(proxy);
+		}
+
+		@Override
+		public void connectFailed(URI uri, SocketAddress sa, IOException ioe) {
+			// nothing to do
+		}
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ * (C) Copyright 2024 Andreas Alexopoulos (https://alexop-a.github.io/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package io.github.alexopa.reportportalclient.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.alexopa.reportportalclient.rpmodel.ItemAttribute;
+
+class AttributeParserTest {
+
+	private static final String ALPHABET = "ab :;\t";
+
+	@Test
+	void parsesLikeTheSplitParser() {
+		Random random = new Random(42);
+		for (int i = 0; i < 50000; i++) {
+			String raw = randomString(random, 24);
+
+			List<ItemAttribute> expected = new ArrayList<>(parseAsSetSplit(raw));
+			// the first call parses, the second one is built from the cache
+			assertThat(new ArrayList<>(AttributeParser.parseAsSet(raw))).as(raw).isEqualTo(expected);
+			assertThat(new ArrayList<>(AttributeParser.parseAsSet(raw))).as(raw).isEqualTo(expected);
+			assertThat(AttributeParser.splitKeyValue(raw)).as(raw).isEqualTo(splitKeyValueSplit(raw));
+		}
+	}
+
+	@Test
+	void keepsTheIterationOrderOfManyAttributes() {
+		StringBuilder raw = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			raw.append("key").append(i).append(':').append("value").append(i).append(';');
+		}
+		List<ItemAttribute> expected = new ArrayList<>(parseAsSetSplit(raw.toString()));
+
+		assertThat(new ArrayList<>(AttributeParser.parseAsSet(raw.toString()))).isEqualTo(expected);
+		assertThat(new ArrayList<>(AttributeParser.parseAsSet(raw.toString()))).isEqualTo(expected);
+	}
+
+	@Test
+	void cachedAttributesAreNotShared() {
+		Set<ItemAttribute> first = AttributeParser.parseAsSet("build:1;smoke");
+		first.iterator().next().setValue("changed");
+		first.add(new ItemAttribute("added", "value"));
+
+		assertThat(AttributeParser.parseAsSet("build:1;smoke"))
+				.containsExactlyInAnyOrder(new ItemAttribute("build", "1"), new ItemAttribute(null, "smoke"));
+	}
+
+	private static String randomString(Random random, int maxLength) {
+		char[] chars = new char[random.nextInt(maxLength + 1)];
+		for (int i = 0; i < chars.length; i++) {
+			chars[i] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+		}
+		return new String(chars);
+	}
+
+	/**
+	 * The parser before it was changed to a single pass with a cache
+	 */
+	private static Set<ItemAttribute> parseAsSetSplit(String rawAttributes) {
+		Set<ItemAttribute> attributes = new HashSet<>();
+		for (String s : rawAttributes.trim().split(";")) {
+			ItemAttribute attribute = splitKeyValueSplit(s);
+			if (attribute != null) {
+				attributes.add(attribute);
+			}
+		}
+		return attributes;
+	}
+
+	private static ItemAttribute splitKeyValueSplit(String attribute) {
+		if (attribute.trim().isEmpty()) {
+			return null;
+		}
+		String[] keyValue = attribute.split(":");
+		if (keyValue.length == 1) {
+			return new ItemAttribute(null, keyValue[0].trim());
+		} else if (keyValue.length == 2) {
+			String key = keyValue[0].trim();
+			return new ItemAttribute(key.isEmpty() ? null : key, keyValue[1].trim());
+		}
+		return null;
+	}
+}